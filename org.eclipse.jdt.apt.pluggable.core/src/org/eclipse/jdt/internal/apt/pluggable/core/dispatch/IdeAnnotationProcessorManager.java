@@ -121,6 +121,14 @@ public class IdeAnnotationProcessorManager extends BaseAnnotationProcessorManage
 		return _cuLocator.fromIFile(file);
 	}
 
+	/**
+	 * @return true if the class files compiled from the specified file are still current,
+	 * so that the file need not be compiled again unless its contents changed.
+	 */
+	public boolean hasCurrentClassFiles(IFile file) {
+		return _cuLocator != null && _cuLocator.hasCurrentClassFiles(file);
+	}
+
 	/**
 	 * In IDE mode, we are able to determine whether there are no processors.  If that's the case,
 	 * then we can avoid doing the work of walking the ASTs to search for annotations.  We still
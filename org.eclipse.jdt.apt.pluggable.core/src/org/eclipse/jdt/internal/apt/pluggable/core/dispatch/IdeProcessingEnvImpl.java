@@ -156,11 +156,21 @@ public abstract class IdeProcessingEnvImpl extends BaseProcessingEnvImpl {
 
 	/**
 	 * Inform the environment that a new Java file has been generated.
+	 * A file regenerated with the same contents is not compiled again if its class files
+	 * are still current: the builder recompiles it anyway when a type it depends on changes.
+	 * Files which are themselves the parent of generated files are always compiled, so that
+	 * the processors get to run on them again.
 	 * @param result must be non-null
 	 */
 	public void addNewUnit(FileGenerationResult result) {
-		AptCompilationParticipant.getInstance().addJava6GeneratedFile(result.getFile());
-		addNewUnit(_dispatchManager.findCompilationUnit(result.getFile()));
+		IFile file = result.getFile();
+		AptCompilationParticipant.getInstance().addJava6GeneratedFile(file);
+		if (!result.isModified()
+				&& !_aptProject.getGeneratedFileManager(isTestCode()).isParentFile(file)
+				&& _dispatchManager.hasCurrentClassFiles(file)) {
+			return;
+		}
+		addNewUnit(_dispatchManager.findCompilationUnit(file));
 	}
 
 	/**
@@ -357,6 +357,81 @@ public class BuilderTests extends TestBase
 		}
 	}
 
+	/**
+	 * A generated file regenerated with the same contents is not compiled again, unless it is itself
+	 * the parent of generated files.
+	 */
+	public void testUnchangedGeneratedFile() throws Throwable {
+		IJavaProject jproj = createJavaProject(_projectName);
+		disableJava5Factories(jproj);
+		IProject proj = jproj.getProject();
+		IPath projPath = proj.getFullPath();
+		IPath root = projPath.append("src");
+		IPath packagePath = root.append("test");
+		try {
+			ProcessorTestStatus.reset();
+
+			env.addClass(root, "test", "Foo",
+					"package test;\n" +
+					"import org.eclipse.jdt.apt.pluggable.tests.annotations.GenClass6;\n" +
+					"@GenClass6(name = \"FooGen\", pkg = \"test\", method = \"foo\")\n" +
+					"public class Foo {\n" +
+					"}");
+			env.addClass(root, "test", "Bar",
+					"package test;\n" +
+					"import org.eclipse.jdt.apt.pluggable.tests.annotations.GenClass6;\n" +
+					"@GenClass6(name = \"BarGen\", pkg = \"test\", rounds = 2)\n" +
+					"public class Bar {\n" +
+					"}");
+			AptConfig.setEnabled(jproj, true);
+
+			fullBuild();
+			expectingNoProblems();
+			expectingUniqueCompiledClasses(
+					new String[] {"test.Foo", "test.Bar", "test.FooGen", "test.BarGen", "test.BarGenGen"});
+
+			// FooGen is regenerated with the same contents
+			env.addClass(root, "test", "Foo",
+					"package test;\n" +
+					"import org.eclipse.jdt.apt.pluggable.tests.annotations.GenClass6;\n" +
+					"@GenClass6(name = \"FooGen\", pkg = \"test\", method = \"foo\")\n" +
+					"public class Foo {\n" +
+					"    public int i;\n" +
+					"}");
+			incrementalBuild();
+			expectingNoProblems();
+			expectingUniqueCompiledClasses(new String[] {"test.Foo"});
+
+			// FooGen is regenerated with other contents
+			env.addClass(root, "test", "Foo",
+					"package test;\n" +
+					"import org.eclipse.jdt.apt.pluggable.tests.annotations.GenClass6;\n" +
+					"@GenClass6(name = \"FooGen\", pkg = \"test\", method = \"bar\")\n" +
+					"public class Foo {\n" +
+					"    public int i;\n" +
+					"}");
+			incrementalBuild();
+			expectingNoProblems();
+			expectingUniqueCompiledClasses(new String[] {"test.Foo", "test.FooGen"});
+
+			// BarGen is the parent of BarGenGen, it is compiled again for the processors to run on it
+			env.addClass(root, "test", "Bar",
+					"package test;\n" +
+					"import org.eclipse.jdt.apt.pluggable.tests.annotations.GenClass6;\n" +
+					"@GenClass6(name = \"BarGen\", pkg = \"test\", rounds = 2)\n" +
+					"public class Bar {\n" +
+					"    public int i;\n" +
+					"}");
+			incrementalBuild();
+			expectingNoProblems();
+			expectingUniqueCompiledClasses(new String[] {"test.Bar", "test.BarGen"});
+			expectingPresenceOf(projPath.append("bin/test/BarGenGen.class"));
+		} finally {
+			env.removeClass(packagePath, "Foo");
+			env.removeClass(packagePath, "Bar");
+		}
+	}
+
 	public void testBug510118() throws Throwable {
 		ProcessorTestStatus.reset();
 		IJavaProject jproj = createJavaProject(_projectName);
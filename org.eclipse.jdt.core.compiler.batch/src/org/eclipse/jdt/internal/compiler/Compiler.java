@@ -37,6 +37,7 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 	public ProblemReporter problemReporter;
 	protected PrintWriter out; // output for messages that are not sent to problemReporter
 	public CompilerStats stats;
+	public ICompilerStatsListener statsListener; // optional, receives per unit statistics
 	public CompilationProgress progress;
 	public int remainingIterations = 1;
 
@@ -58,6 +59,7 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 	public int annotationProcessorStartIndex = 0;
 	public ReferenceBinding[] referenceBindings;
 	public boolean useSingleThread = true; // by default the compiler will not use worker threads to read/process/write
+	public int parsingThreads = 0; // number of worker threads diet parsing the initial units when not using a single thread (0 or 1: none)
 
 	// number of initial units parsed at once (-1: none)
 
@@ -645,6 +647,8 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 				processingTask.shutdown();
 				processingTask = null;
 			}
+			this.stats.inferenceCacheHits = this.lookupEnvironment.inferenceResultCache.hits;
+			this.stats.inferenceCacheMisses = this.lookupEnvironment.inferenceResultCache.misses;
 			reset();
 			this.annotationProcessorStartIndex  = 0;
 			this.stats.endTime = System.currentTimeMillis();
@@ -825,7 +829,10 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 	 */
 	protected void internalBeginToCompile(ICompilationUnit[] sourceUnits, int maxUnits) {
 		abortIfPreviewNotAllowed(sourceUnits,maxUnits);
-		if (!this.useSingleThread && maxUnits >= ReadManager.THRESHOLD)
+		ParseManager parseManager = null;
+		if (!this.useSingleThread && this.parsingThreads > 1 && this.parseThreshold <= 0 && maxUnits >= ParseManager.THRESHOLD)
+			parseManager = new ParseManager(this, sourceUnits, maxUnits, this.parsingThreads);
+		else if (!this.useSingleThread && maxUnits >= ReadManager.THRESHOLD)
 			this.parser.readManager = new ReadManager(sourceUnits, maxUnits);
 		try {
 			// Switch the current policy and compilation result for this unit to the requested one.
@@ -843,12 +850,18 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 					}
 					// diet parsing for large collection of units
 					CompilationUnitDeclaration parsedUnit;
-					unitResult = new CompilationResult(sourceUnits[i], i, maxUnits, this.options.maxProblemsPerUnit);
 					long parseStart = System.currentTimeMillis();
-					if (this.totalUnits < this.parseThreshold) {
-						parsedUnit = this.parser.parse(sourceUnits[i], unitResult);
+					if (parseManager != null) {
+						// parsed ahead by the workers, only the time spent waiting for the unit is recorded
+						parsedUnit = parseManager.getParsedUnit(i);
+						unitResult = parsedUnit.compilationResult;
 					} else {
-						parsedUnit = this.parser.dietParse(sourceUnits[i], unitResult);
+						unitResult = new CompilationResult(sourceUnits[i], i, maxUnits, this.options.maxProblemsPerUnit);
+						if (this.totalUnits < this.parseThreshold) {
+							parsedUnit = this.parser.parse(sourceUnits[i], unitResult);
+						} else {
+							parsedUnit = this.parser.dietParse(sourceUnits[i], unitResult);
+						}
 					}
 					long resolveStart = System.currentTimeMillis();
 					this.stats.parseTime += resolveStart - parseStart;
@@ -872,6 +885,8 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 				}
 			}
 		} finally { // especially on AbortCompilation
+			if (parseManager != null)
+				parseManager.shutdown();
 			if (this.parser.readManager != null) {
 				this.parser.readManager.shutdown();
 				this.parser.readManager = null;
@@ -887,10 +902,12 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 	public void process(CompilationUnitDeclaration unit, int i) {
 		this.lookupEnvironment.unitBeingCompleted = unit;
 		long parseStart = System.currentTimeMillis();
+		long parseStartNanos = System.nanoTime();
 
 		this.parser.getMethodBodies(unit);
 
 		long resolveStart = System.currentTimeMillis();
+		long resolveStartNanos = System.nanoTime();
 		this.stats.parseTime += resolveStart - parseStart;
 
 		// fault in fields & methods
@@ -905,12 +922,14 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 		unit.resolve();
 
 		long analyzeStart = System.currentTimeMillis();
+		long analyzeStartNanos = System.nanoTime();
 		this.stats.resolveTime += analyzeStart - resolveStart;
 
 		//No need of analysis or generation of code if statements are not required
 		if (!this.options.ignoreMethodBodies) unit.analyseCode(); // flow analysis
 
 		long generateStart = System.currentTimeMillis();
+		long generateStartNanos = System.nanoTime();
 		this.stats.analyzeTime += generateStart - analyzeStart;
 
 		if (!this.options.ignoreMethodBodies) unit.generateCode(); // code generation
@@ -924,6 +943,19 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 
 		this.stats.generateTime += System.currentTimeMillis() - generateStart;
 
+		if (this.statsListener != null) {
+			long end = System.nanoTime();
+			int classFileBytes = 0;
+			for (ClassFile classFile : unit.compilationResult.getClassFiles())
+				classFileBytes += classFile.headerOffset + classFile.contentsOffset;
+			this.statsListener.unitProcessed(unit,
+					resolveStartNanos - parseStartNanos,
+					analyzeStartNanos - resolveStartNanos,
+					generateStartNanos - analyzeStartNanos,
+					end - generateStartNanos,
+					classFileBytes);
+		}
+
 		// refresh the total number of units known at this stage
 		unit.compilationResult.totalUnitsKnown = this.totalUnits;
 
@@ -0,0 +1,34 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.compiler;
+
+import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
+
+/**
+ * Receives detailed compiler statistics, complementing the totals recorded in
+ * {@link org.eclipse.jdt.internal.compiler.impl.CompilerStats}.
+ * <p>
+ * Callbacks come from the compiler processing thread when the compiler does not use a single thread,
+ * implementations are responsible for their own synchronization.
+ * </p>
+ */
+public interface ICompilerStatsListener {
+
+	/*
+	 * Callback after a compilation unit went through method bodies parsing, resolution, flow analysis
+	 * and code generation. Times are in nanoseconds, classFileBytes is the total size of the class files
+	 * generated for the unit.
+	 */
+	void unitProcessed(CompilationUnitDeclaration unit, long parseTime, long resolveTime, long analyzeTime, long generateTime, int classFileBytes);
+}
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.jdt.internal.compiler;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.jdt.internal.compiler.env.ICompilationUnit;
+import org.eclipse.jdt.internal.compiler.parser.Parser;
+import org.eclipse.jdt.internal.compiler.problem.AbortCompilation;
+import org.eclipse.jdt.internal.compiler.problem.ProblemReporter;
+
+/**
+ * Diet parses the initial compilation units on several worker threads.
+ * <p>
+ * Each worker owns its own {@link Parser} and {@link ProblemReporter}, so that no parser state is shared.
+ * Parsed units are handed back in their original order, binding creation and everything that follows
+ * still happens on the compiling thread against the single lookup environment.
+ * </p>
+ */
+public class ParseManager {
+
+	Compiler compiler;
+	ICompilationUnit[] units;
+	Future<CompilationUnitDeclaration>[] parsedUnits;
+	ExecutorService executor;
+	ThreadLocal<Parser> parsers;
+
+	public static final int THRESHOLD = ReadManager.THRESHOLD;
+
+@SuppressWarnings("unchecked")
+public ParseManager(Compiler compiler, ICompilationUnit[] files, int length, int threadCount) {
+	this.compiler = compiler;
+	this.units = new ICompilationUnit[length];
+	System.arraycopy(files, 0, this.units, 0, length);
+	this.parsedUnits = new Future[length];
+	this.parsers = ThreadLocal.withInitial(() -> {
+		ProblemReporter reporter = compiler.problemReporter;
+		return new Parser(
+			new ProblemReporter(reporter.policy, compiler.options, reporter.problemFactory),
+			compiler.options.parseLiteralExpressionsAsConstants);
+	});
+	this.executor = Executors.newFixedThreadPool(threadCount, runnable -> {
+		Thread thread = new Thread(runnable, "Compiler Parsing Task"); //$NON-NLS-1$
+		thread.setDaemon(true);
+		return thread;
+	});
+	for (int i = 0; i < length; i++) {
+		final int index = i;
+		this.parsedUnits[i] = this.executor.submit(() -> parse(index, length));
+	}
+}
+
+CompilationUnitDeclaration parse(int index, int maxUnits) {
+	ICompilationUnit sourceUnit = this.units[index];
+	this.units[index] = null; // no longer hold onto the unit
+	CompilationResult unitResult = new CompilationResult(sourceUnit, index, maxUnits, this.compiler.options.maxProblemsPerUnit);
+	try {
+		return this.parsers.get().dietParse(sourceUnit, unitResult);
+	} catch (AbortCompilation a) {
+		// best effort to find a way for reporting this problem:
+		if (a.compilationResult == null)
+			a.compilationResult = unitResult;
+		throw a;
+	}
+}
+
+/**
+ * Answer the diet parsed unit at the given index, waiting for a worker to finish it if necessary.
+ * Problems raised by the worker are rethrown in the calling thread.
+ */
+public CompilationUnitDeclaration getParsedUnit(int index) throws Error {
+	try {
+		return this.parsedUnits[index].get();
+	} catch (ExecutionException e) {
+		Throwable cause = e.getCause();
+		if (cause instanceof Error)
+			throw (Error) cause;
+		throw (RuntimeException) cause;
+	} catch (InterruptedException e) {
+		Thread.currentThread().interrupt();
+		throw new AbortCompilation(true, null);
+	} finally {
+		this.parsedUnits[index] = null; // release the parsed unit, it is now owned by the compiler
+	}
+}
+
+public void shutdown() {
+	this.executor.shutdownNow();
+}
+}
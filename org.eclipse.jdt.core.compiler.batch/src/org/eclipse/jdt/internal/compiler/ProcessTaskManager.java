@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2016 IBM Corporation and others.
+ * Copyright (c) 2008, 2023 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,6 +14,9 @@
 
 package org.eclipse.jdt.internal.compiler;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
 import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
 import org.eclipse.jdt.internal.compiler.util.Messages;
 
@@ -21,25 +24,21 @@ public class ProcessTaskManager implements Runnable {
 
 	Compiler compiler;
 	private int unitIndex;
-	private Thread processingThread;
-	CompilationUnitDeclaration unitToProcess;
-	private Throwable caughtException;
+	private volatile Thread processingThread;
+	volatile CompilationUnitDeclaration unitToProcess;
+	private volatile Throwable caughtException;
 
-	// queue
-	volatile int currentIndex, availableIndex, size, sleepCount;
-	CompilationUnitDeclaration[] units;
+	// queue of processed units, handed from the processing thread to the writing/main thread
+	// both sides block (park) on the queue instead of polling, the STOP_SIGNAL marks the end of the processed units
+	private final BlockingQueue<Object> units;
+	private static final Object STOP_SIGNAL = new Object();
 
 	public static final int PROCESSED_QUEUE_SIZE = 100;
 
 public ProcessTaskManager(Compiler compiler, int startingIndex) {
 	this.compiler = compiler;
 	this.unitIndex = startingIndex;
-
-	this.currentIndex = 0;
-	this.availableIndex = 0;
-	this.size = PROCESSED_QUEUE_SIZE;
-	this.sleepCount = 0; // 0 is no one, +1 is the processing thread & -1 is the writing/main thread
-	this.units = new CompilationUnitDeclaration[this.size];
+	this.units = new ArrayBlockingQueue<>(PROCESSED_QUEUE_SIZE);
 
 	synchronized (this) {
 		this.processingThread = new Thread(this, "Compiler Processing Task"); //$NON-NLS-1$
@@ -49,66 +48,50 @@ public ProcessTaskManager(Compiler compiler, int startingIndex) {
 }
 
 // add unit to the queue - wait if no space is available
-private synchronized void addNextUnit(CompilationUnitDeclaration newElement) {
-	while (this.units[this.availableIndex] != null) {
-		//System.out.print('a');
-		//if (this.sleepCount < 0) throw new IllegalStateException(Integer.valueOf(this.sleepCount).toString());
-		this.sleepCount = 1;
-		try {
-			wait(250);
-		} catch (InterruptedException ignore) {
-			// ignore
+private void addNextUnit(Object newElement) {
+	boolean interrupted = false;
+	try {
+		while (true) {
+			try {
+				this.units.put(newElement);
+				return;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
 		}
-		this.sleepCount = 0;
+	} finally {
+		if (interrupted)
+			Thread.currentThread().interrupt();
 	}
-
-	this.units[this.availableIndex++] = newElement;
-	if (this.availableIndex >= this.size)
-		this.availableIndex = 0;
-	if (this.sleepCount <= -1)
-		notify(); // wake up writing thread to accept next unit - could be the last one - must avoid deadlock
 }
 
 public CompilationUnitDeclaration removeNextUnit() throws Error {
-	CompilationUnitDeclaration next = null;
-	boolean yield = false;
-	synchronized (this) {
-		next = this.units[this.currentIndex];
-		if (next == null || this.caughtException != null) {
-			do {
-				if (this.processingThread == null) {
-					if (this.caughtException != null) {
-						// rethrow the caught exception from the processingThread in the main compiler thread
-						if (this.caughtException instanceof Error)
-							throw (Error) this.caughtException;
-						throw (RuntimeException) this.caughtException;
-					}
-					return null;
-				}
-				//System.out.print('r');
-				//if (this.sleepCount > 0) throw new IllegalStateException(Integer.valueOf(this.sleepCount).toString());
-				this.sleepCount = -1;
-				try {
-					wait(100);
-				} catch (InterruptedException ignore) {
-					// ignore
-				}
-				this.sleepCount = 0;
-				next = this.units[this.currentIndex];
-			} while (next == null);
+	Object next;
+	boolean interrupted = false;
+	try {
+		while (true) {
+			try {
+				next = this.units.take(); // waits if no units are in the processed queue
+				break;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
 		}
-
-		this.units[this.currentIndex++] = null;
-		if (this.currentIndex >= this.size)
-			this.currentIndex = 0;
-		if (this.sleepCount >= 1 && ++this.sleepCount > 4) {
-			notify(); // wake up processing thread to add next unit but only after removing some elements first
-			yield = this.sleepCount > 8;
+	} finally {
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+	if (next == STOP_SIGNAL) {
+		this.units.offer(STOP_SIGNAL); // keep answering null to subsequent requests
+		if (this.caughtException != null) {
+			// rethrow the caught exception from the processingThread in the main compiler thread
+			if (this.caughtException instanceof Error)
+				throw (Error) this.caughtException;
+			throw (RuntimeException) this.caughtException;
 		}
+		return null;
 	}
-	if (yield)
-		Thread.yield();
-	return next;
+	return (CompilationUnitDeclaration) next;
 }
 
 @Override
@@ -119,18 +102,15 @@ public void run() {
 		int index = -1;
 		boolean cleanup = noAnnotations || this.compiler.shouldCleanup(this.unitIndex);
 		try {
-			synchronized (this) {
-				if (this.processingThread == null) return;
-
-				this.unitToProcess = this.compiler.getUnitToProcess(this.unitIndex);
-				if (this.unitToProcess == null) {
-					this.processingThread = null;
-					return;
-				}
-				index = this.unitIndex++;
-				if (this.unitToProcess.compilationResult.hasBeenAccepted)
-					continue;
+			this.unitToProcess = this.compiler.getUnitToProcess(this.unitIndex);
+			if (this.unitToProcess == null) {
+				this.processingThread = null;
+				addNextUnit(STOP_SIGNAL);
+				return;
 			}
+			index = this.unitIndex++;
+			if (this.unitToProcess.compilationResult.hasBeenAccepted)
+				continue;
 
 			try {
 				this.compiler.reportProgress(Messages.bind(Messages.compilation_processing, new String(this.unitToProcess.getFileName())));
@@ -151,10 +131,9 @@ public void run() {
 
 			addNextUnit(this.unitToProcess);
 		} catch (Error | RuntimeException e) {
-			synchronized (this) {
-				this.processingThread = null;
-				this.caughtException = e;
-			}
+			this.caughtException = e;
+			this.processingThread = null;
+			addNextUnit(STOP_SIGNAL);
 			return;
 		}
 	}
@@ -162,16 +141,13 @@ public void run() {
 
 public void shutdown() {
 	try {
-		Thread t = null;
-		synchronized (this) {
-			if (this.processingThread != null) {
-				t = this.processingThread;
-				this.processingThread = null;
-				notifyAll();
-			}
-		}
-		if (t != null)
+		Thread t = this.processingThread;
+		if (t != null) {
+			this.processingThread = null;
+			// release the processing thread if it is waiting for space in the queue, it stops after its current unit
+			this.units.clear();
 			t.join(250); // do not wait forever
+		}
 	} catch (InterruptedException ignored) {
 		// ignore
 	}
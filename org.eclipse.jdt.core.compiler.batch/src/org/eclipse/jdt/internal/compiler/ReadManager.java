@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2013 IBM Corporation and others.
+ * Copyright (c) 2008, 2023 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,20 +14,24 @@
 
 package org.eclipse.jdt.internal.compiler;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 import org.eclipse.jdt.internal.compiler.env.ICompilationUnit;
 
 public class ReadManager implements Runnable {
 	ICompilationUnit[] units;
-	int nextFileToRead;
-	ICompilationUnit[] filesRead;
-	char[][] contentsRead;
-	int readyToReadPosition;
-	int nextAvailablePosition;
-	Thread[] readingThreads;
-	char[] readInProcessMarker = new char[0];
-	int sleepingThreadCount;
-	private Throwable caughtException;
+	int nextUnitToRequest; // only used by the main thread, index of the unit it is expected to ask for next
+	AtomicInteger nextFileToRead;
+	// contents of each unit, claimed either by a reading thread (pending or read contents) or by the main thread (CLAIMED)
+	AtomicReferenceArray<CompletableFuture<char[]>> contentsRead;
+	Semaphore cacheSlots; // blocks the reading threads when too many files are kept in memory
+	volatile Thread[] readingThreads;
 
+	static final CompletableFuture<char[]> CLAIMED = new CompletableFuture<>();
 	static final int START_CUSHION = 5;
 	public static final int THRESHOLD = 10;
 	static final int CACHE_SIZE = 15; // do not waste memory by keeping too many files in memory
@@ -42,143 +46,101 @@ public ReadManager(ICompilationUnit[] files, int length) {
 	}
 
 	if (threadCount > 0) {
-		synchronized (this) {
-			this.units = new ICompilationUnit[length];
-			System.arraycopy(files, 0, this.units, 0, length);
-			this.nextFileToRead = START_CUSHION; // skip some files to reduce the number of times we have to wait
-			this.filesRead = new ICompilationUnit[CACHE_SIZE];
-			this.contentsRead = new char[CACHE_SIZE][];
-			this.readyToReadPosition = 0;
-			this.nextAvailablePosition = 0;
-			this.sleepingThreadCount = 0;
-			this.readingThreads = new Thread[threadCount];
-			for (int i = threadCount; --i >= 0;) {
-				this.readingThreads[i] = new Thread(this, "Compiler Source File Reader"); //$NON-NLS-1$
-				this.readingThreads[i].setDaemon(true);
-				this.readingThreads[i].start();
-			}
+		this.units = new ICompilationUnit[length];
+		System.arraycopy(files, 0, this.units, 0, length);
+		this.nextUnitToRequest = 0;
+		this.nextFileToRead = new AtomicInteger(START_CUSHION); // skip some files to reduce the number of times we have to wait
+		this.contentsRead = new AtomicReferenceArray<>(length);
+		this.cacheSlots = new Semaphore(CACHE_SIZE);
+		Thread[] threads = new Thread[threadCount];
+		for (int i = threadCount; --i >= 0;) {
+			threads[i] = new Thread(this, "Compiler Source File Reader"); //$NON-NLS-1$
+			threads[i].setDaemon(true);
 		}
+		this.readingThreads = threads;
+		for (Thread thread : threads)
+			thread.start();
 	}
 }
 
 public char[] getContents(ICompilationUnit unit) throws Error {
-	Thread[] rThreads = this.readingThreads;
-	if (rThreads == null || this.units.length == 0) {
-		if (this.caughtException != null) {
-			// rethrow the caught exception from the readingThreads in the main compiler thread
-			if (this.caughtException instanceof Error)
-				throw (Error) this.caughtException;
-			throw (RuntimeException) this.caughtException;
-		}
+	if (this.readingThreads == null || this.units.length == 0)
+		return unit.getContents();
+
+	int index = indexOf(unit);
+	if (index < 0) {
+		// attempting to read a unit that was not included in the initial files - should not happen
 		return unit.getContents();
 	}
+	CompletableFuture<char[]> contents = this.contentsRead.getAndSet(index, CLAIMED);
+	if (contents == null || contents == CLAIMED) {
+		// not read ahead, do not wait for the reading threads
+		return unit.getContents();
+	}
+	try {
+		return contents.join(); // parks until the reading thread is done with this unit
+	} catch (CompletionException e) {
+		// rethrow the caught exception from the readingThreads in the main compiler thread
+		Throwable cause = e.getCause();
+		if (cause instanceof Error)
+			throw (Error) cause;
+		throw (RuntimeException) cause;
+	} finally {
+		this.cacheSlots.release(); // free spot for next file
+	}
+}
 
-	boolean yield = this.sleepingThreadCount == rThreads.length;
-	char[] result = null;
-	synchronized (this) {
-		if (unit == this.filesRead[this.readyToReadPosition]) {
-			result = this.contentsRead[this.readyToReadPosition];
-			while (result == this.readInProcessMarker || result == null) {
-				// let the readingThread know we're waiting
-				//System.out.print('|');
-				this.contentsRead[this.readyToReadPosition] = null;
-				try {
-					wait(250);
-				} catch (InterruptedException ignore) { // ignore
-				}
-				if (this.caughtException != null) {
-					// rethrow the caught exception from the readingThreads in the main compiler thread
-					if (this.caughtException instanceof Error)
-						throw (Error) this.caughtException;
-					throw (RuntimeException) this.caughtException;
-				}
-				result = this.contentsRead[this.readyToReadPosition];
-			}
-			// free spot for next file
-			this.filesRead[this.readyToReadPosition] = null;
-			this.contentsRead[this.readyToReadPosition] = null;
-			if (++this.readyToReadPosition >= this.contentsRead.length)
-				this.readyToReadPosition = 0;
-			if (this.sleepingThreadCount > 0) {
-				//System.out.print('+');
-				//System.out.print(this.nextFileToRead);
-				notify();
-			}
-		} else {
-			// must make sure we're reading ahead of the unit
-			int unitIndex = 0;
-			for (int l = this.units.length; unitIndex < l; unitIndex++)
-				if (this.units[unitIndex] == unit) break;
-			if (unitIndex == this.units.length) {
-				// attempting to read a unit that was not included in the initial files - should not happen
-				this.units = new ICompilationUnit[0]; // stop looking for more
-			} else if (unitIndex >= this.nextFileToRead) {
-				// start over
-				//System.out.println(unitIndex + " vs " + this.nextFileToRead);
-				this.nextFileToRead = unitIndex + START_CUSHION;
-				this.readyToReadPosition = 0;
-				this.nextAvailablePosition = 0;
-				this.filesRead = new ICompilationUnit[CACHE_SIZE];
-				this.contentsRead = new char[CACHE_SIZE][];
-				notifyAll();
-			}
-		}
+private int indexOf(ICompilationUnit unit) {
+	int expected = this.nextUnitToRequest;
+	if (expected < this.units.length && this.units[expected] == unit) {
+		this.nextUnitToRequest++;
+		return expected;
 	}
-	if (yield)
-		Thread.yield(); // ensure other threads get a chance
-	if (result != null)
-		return result;
-	//System.out.print('-');
-	return unit.getContents();
+	int unitIndex = 0;
+	for (int l = this.units.length; unitIndex < l; unitIndex++)
+		if (this.units[unitIndex] == unit) break;
+	if (unitIndex == this.units.length)
+		return -1;
+	// must make sure we're reading ahead of the unit, and free the spots of the files that were skipped
+	for (int i = expected; i < unitIndex; i++) {
+		CompletableFuture<char[]> skipped = this.contentsRead.getAndSet(i, CLAIMED);
+		if (skipped != null && skipped != CLAIMED)
+			this.cacheSlots.release();
+	}
+	this.nextFileToRead.accumulateAndGet(unitIndex + START_CUSHION, Math::max);
+	this.nextUnitToRequest = unitIndex + 1;
+	return unitIndex;
 }
 
 @Override
 public void run() {
-	try {
-		while (this.readingThreads != null && this.nextFileToRead < this.units.length) {
-			ICompilationUnit unit = null;
-			int position = -1;
-			synchronized (this) {
-				if (this.readingThreads == null) return;
-
-				while (this.filesRead[this.nextAvailablePosition] != null) {
-					this.sleepingThreadCount++;
-					try {
-						wait(250); // wait until a spot in contents is available
-					} catch (InterruptedException e) { // ignore
-					}
-					this.sleepingThreadCount--;
-					if (this.readingThreads == null) return;
-				}
-
-				if (this.nextFileToRead >= this.units.length) return;
-				unit = this.units[this.nextFileToRead++];
-				position = this.nextAvailablePosition;
-				if (++this.nextAvailablePosition >= this.contentsRead.length)
-					this.nextAvailablePosition = 0;
-				this.filesRead[position] = unit;
-				this.contentsRead[position] = this.readInProcessMarker; // mark the spot so we know its being read
-			}
-			char[] result = unit.getContents();
-			synchronized (this) {
-				if (this.filesRead[position] == unit) {
-					if (this.contentsRead[position] == null) // wake up main thread which is waiting for this file
-						notifyAll();
-					this.contentsRead[position] = result;
-				}
-			}
+	while (this.readingThreads != null) {
+		this.cacheSlots.acquireUninterruptibly(); // wait until a spot in contents is available
+		int index = this.nextFileToRead.getAndIncrement();
+		if (this.readingThreads == null || index >= this.units.length) {
+			this.cacheSlots.release();
+			return;
 		}
-	} catch (Error | RuntimeException e) {
-		synchronized (this) {
-			this.caughtException = e;
-			shutdown();
+		CompletableFuture<char[]> contents = new CompletableFuture<>();
+		if (!this.contentsRead.compareAndSet(index, null, contents)) {
+			// already requested by the main thread
+			this.cacheSlots.release();
+			continue;
+		}
+		try {
+			contents.complete(this.units[index].getContents());
+		} catch (Error | RuntimeException e) {
+			contents.completeExceptionally(e);
+			if (e instanceof Error)
+				return;
 		}
-		return;
 	}
 }
 
-public synchronized void shutdown() {
+public void shutdown() {
+	Thread[] threads = this.readingThreads;
 	this.readingThreads = null; // mark the read manager as shutting down so that the reading threads stop
-	notifyAll();
+	if (threads != null)
+		this.cacheSlots.release(threads.length); // wake up the reading threads waiting for a spot
+}
 }
-}
\ No newline at end of file
@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.compiler.batch;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import org.eclipse.jdt.internal.compiler.util.Util;
+
+/**
+ * Writes the class files of a batch compilation on a few threads, so that the compiling thread does not wait for
+ * the file system.
+ * <p>
+ * At most {@link #MAX_PENDING} class files wait to be written at any time: the compiling thread blocks when the
+ * writers fall behind, rather than holding on to the bytes of the whole output. Each output directory is created
+ * once. A class file whose bytes did not change is not written again, only its time stamp is updated as if it was, so
+ * that build tools which compare the time stamps of sources and class files do not find it out of date. An existing
+ * class file of the same length is only read until its first differing byte.
+ * </p><p>
+ * Failures are answered by {@link #finish()} in the order the class files were submitted, so that they are reported
+ * the same way whichever thread wrote them.
+ * </p>
+ */
+class ClassFileWriter {
+
+	static final int MAX_PENDING = 256;
+
+	/**
+	 * A class file submitted to the writer.
+	 */
+	static class Write {
+		final boolean generatePackagesStructure;
+		final String outputPath;
+		final String relativeFileName;
+		Future<?> future;
+		IOException exception;
+
+		Write(boolean generatePackagesStructure, String outputPath, String relativeFileName) {
+			this.generatePackagesStructure = generatePackagesStructure;
+			this.outputPath = outputPath;
+			this.relativeFileName = relativeFileName;
+		}
+	}
+
+	private final ExecutorService executor;
+	private final Semaphore pending;
+	// output directories already created, mapped to the path files are written to
+	private final ConcurrentHashMap<String, String> directories;
+	private final List<Write> writes;
+
+	ClassFileWriter() {
+		int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+		this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "Class file writer"); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.pending = new Semaphore(MAX_PENDING);
+		this.directories = new ConcurrentHashMap<>();
+		this.writes = new ArrayList<>();
+	}
+
+	/**
+	 * Queue the given class file bytes for writing, waiting if too many class files are not written yet.
+	 */
+	void write(boolean generatePackagesStructure, String outputPath, String relativeFileName, byte[] bytes) {
+		Write write = new Write(generatePackagesStructure, outputPath, relativeFileName);
+		this.pending.acquireUninterruptibly();
+		try {
+			write.future = this.executor.submit(() -> {
+				try {
+					writeToDisk(write, bytes);
+				} finally {
+					this.pending.release();
+				}
+				return null;
+			});
+		} catch (RuntimeException e) {
+			this.pending.release();
+			throw e;
+		}
+		this.writes.add(write);
+	}
+
+	private void writeToDisk(Write write, byte[] bytes) throws IOException {
+		if (!write.generatePackagesStructure) {
+			Util.writeToDisk(false, write.outputPath, write.relativeFileName, bytes);
+			return;
+		}
+		String relativeFileName = write.relativeFileName.replace('/', File.separatorChar);
+		int separatorIndex = relativeFileName.lastIndexOf(File.separatorChar);
+		String packagePath = separatorIndex == -1 ? "" : relativeFileName.substring(0, separatorIndex); //$NON-NLS-1$
+		String simpleFileName = relativeFileName.substring(separatorIndex + 1);
+		String directory;
+		try {
+			// other writers of the same directory wait until it is created
+			directory = this.directories.computeIfAbsent(write.outputPath + File.pathSeparatorChar + packagePath, key -> {
+				try {
+					String fileName = Util.buildAllDirectoriesInto(write.outputPath, relativeFileName);
+					return fileName.substring(0, fileName.length() - simpleFileName.length());
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		File file = new File(directory + simpleFileName);
+		// an unchanged class file is touched rather than written, so that build tools comparing time stamps see it is up to date
+		if (file.length() == bytes.length && hasContents(file, bytes) && file.setLastModified(System.currentTimeMillis()))
+			return;
+		try (FileOutputStream output = new FileOutputStream(file)) {
+			output.write(bytes);
+		}
+	}
+
+	private static boolean hasContents(File file, byte[] bytes) {
+		byte[] buffer = new byte[Math.min(bytes.length, 8192)];
+		try (FileInputStream input = new FileInputStream(file)) {
+			int offset = 0;
+			while (offset < bytes.length) {
+				int read = input.read(buffer, 0, Math.min(buffer.length, bytes.length - offset));
+				if (read == -1 || !Arrays.equals(buffer, 0, read, bytes, offset, offset + read))
+					return false;
+				offset += read;
+			}
+			return input.read() == -1;
+		} catch (IOException e) {
+			return false; // written again
+		}
+	}
+
+	/**
+	 * Wait until all the class files are written and stop the writer threads.
+	 * Answer the class files which could not be written, in the order they were submitted.
+	 */
+	List<Write> finish() {
+		List<Write> failed = new ArrayList<>();
+		try {
+			for (Write write : this.writes) {
+				try {
+					write.future.get();
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if (cause instanceof IOException) {
+						write.exception = (IOException) cause;
+						failed.add(write);
+					} else if (cause instanceof RuntimeException) {
+						throw (RuntimeException) cause;
+					} else if (cause instanceof Error) {
+						throw (Error) cause;
+					} else {
+						throw new IllegalStateException(cause);
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IllegalStateException(e);
+				}
+			}
+		} finally {
+			this.writes.clear();
+			this.executor.shutdownNow();
+		}
+		return failed;
+	}
+}
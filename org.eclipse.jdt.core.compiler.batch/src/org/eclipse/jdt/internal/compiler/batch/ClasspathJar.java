@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2023 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -53,6 +53,8 @@ protected ZipFile annotationZipFile;
 protected boolean closeZipFileAtEnd;
 protected Set<String> packageCache;
 protected List<String> annotationPaths;
+ClasspathJarCache jarCache; // opens and owns the zip file when not null, see Main#jarCache
+int packageIndexCacheHits, packageIndexCacheMisses;
 
 public ClasspathJar(File file, boolean closeZipFileAtEnd,
 		AccessRuleSet accessRuleSet, String destinationPath) {
@@ -201,7 +203,11 @@ public char[][][] findTypeNames(final String qualifiedPackageName, String module
 @Override
 public void initialize() throws IOException {
 	if (this.zipFile == null) {
-		this.zipFile = new ZipFile(this.file);
+		if (this.jarCache != null) {
+			this.zipFile = this.jarCache.open(this.file, getPath());
+		} else {
+			this.zipFile = new ZipFile(this.file);
+		}
 	}
 }
 void acceptModule(ClassFileReader reader) {
@@ -238,13 +244,29 @@ public synchronized char[][] getModulesDeclaringPackage(String qualifiedPackageN
 	if (this.packageCache != null)
 		return singletonModuleNameIf(this.packageCache.contains(qualifiedPackageName));
 
+	if (this.jarCache != null) {
+		this.packageCache = this.jarCache.getPackageNames(this.file, getPath());
+		if (this.packageCache != null)
+			return singletonModuleNameIf(this.packageCache.contains(qualifiedPackageName));
+	}
 	this.packageCache = new HashSet<>(41);
 	this.packageCache.add(Util.EMPTY_STRING);
 
+	PackageIndexCache indexCache = PackageIndexCache.getDefault();
+	if (indexCache != null && indexCache.read(this.file, this.packageCache)) {
+		this.packageIndexCacheHits++;
+		return singletonModuleNameIf(this.packageCache.contains(qualifiedPackageName));
+	}
 	for (Enumeration e = this.zipFile.entries(); e.hasMoreElements(); ) {
 		String fileName = ((ZipEntry) e.nextElement()).getName();
 		addToPackageCache(fileName, false);
 	}
+	if (indexCache != null) {
+		this.packageIndexCacheMisses++;
+		indexCache.write(this.file, this.packageCache);
+	}
+	if (this.jarCache != null)
+		this.jarCache.putPackageNames(this.file, getPath(), this.packageCache);
 	return singletonModuleNameIf(this.packageCache.contains(qualifiedPackageName));
 }
 @Override
@@ -279,7 +301,10 @@ public char[][] listPackages() {
 public void reset() {
 	super.reset();
 	if (this.closeZipFileAtEnd) {
-		if (this.zipFile != null) {
+		if (this.jarCache != null) {
+			this.zipFile = null; // left open for the next compilation
+			this.jarCache = null;
+		} else if (this.zipFile != null) {
 			try {
 				this.zipFile.close();
 			} catch(IOException e) {
@@ -298,6 +323,8 @@ public void reset() {
 	}
 	this.packageCache = null;
 	this.annotationPaths = null;
+	this.packageIndexCacheHits = 0;
+	this.packageIndexCacheMisses = 0;
 }
 @Override
 public String toString() {
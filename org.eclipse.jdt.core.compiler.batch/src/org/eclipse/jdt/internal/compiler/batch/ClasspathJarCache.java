@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.compiler.batch;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipFile;
+
+/**
+ * Jar files kept open between the compilations of a {@link CompilerDaemon}, with the packages they declare.
+ * The daemon hands its cache to the {@link Main} of each compilation, which hands it to its {@link ClasspathJar}s.
+ * <p>
+ * An entry is keyed by the canonical path of the jar and is only answered while the size and the modification
+ * time of the jar are unchanged; a jar changed on disk is opened again and its packages are read again.
+ * The zip files answered are owned by the cache, {@link ClasspathJar#reset()} does not close them. The zip file of
+ * a changed jar may still be read by the classpath entries which opened it, it is only closed by
+ * {@link #compilationFinished()}.
+ * </p>
+ */
+public class ClasspathJarCache {
+
+	private static final class Entry {
+		final ZipFile zipFile;
+		final long length;
+		final long lastModified;
+		Set<String> packageNames;
+
+		Entry(ZipFile zipFile, long length, long lastModified) {
+			this.zipFile = zipFile;
+			this.length = length;
+			this.lastModified = lastModified;
+		}
+	}
+
+	private final Map<String, Entry> entries = new HashMap<>();
+	// zip files of changed jars, left open until the compilation is finished
+	private final List<ZipFile> replaced = new ArrayList<>();
+
+/**
+ * Answer the open zip file of the given jar, opening it again if the jar changed since it was last opened.
+ */
+synchronized ZipFile open(File jar, String jarPath) throws IOException {
+	Entry entry = getEntry(jar, jarPath);
+	if (entry != null)
+		return entry.zipFile;
+	entry = new Entry(new ZipFile(jar), jar.length(), jar.lastModified());
+	this.entries.put(jarPath, entry);
+	return entry.zipFile;
+}
+
+/**
+ * Answer the packages recorded for the given jar, or null if none were recorded since it was last opened.
+ * The answered set must not be modified.
+ */
+synchronized Set<String> getPackageNames(File jar, String jarPath) {
+	Entry entry = getEntry(jar, jarPath);
+	return entry == null ? null : entry.packageNames;
+}
+
+/**
+ * Record the packages of the given jar, if it is still open.
+ */
+synchronized void putPackageNames(File jar, String jarPath, Set<String> packageNames) {
+	Entry entry = getEntry(jar, jarPath);
+	if (entry != null)
+		entry.packageNames = packageNames;
+}
+
+private Entry getEntry(File jar, String jarPath) {
+	Entry entry = this.entries.get(jarPath);
+	if (entry == null)
+		return null;
+	if (entry.length == jar.length() && entry.lastModified == jar.lastModified())
+		return entry;
+	// stale, but the classpath entries of the current compilation may still read it
+	this.entries.remove(jarPath);
+	this.replaced.add(entry.zipFile);
+	return null;
+}
+
+/**
+ * Close the jars changed during the compilation which just finished.
+ */
+public synchronized void compilationFinished() {
+	for (ZipFile zipFile : this.replaced)
+		close(zipFile);
+	this.replaced.clear();
+}
+
+/**
+ * Close all the jars.
+ */
+public synchronized void close() {
+	compilationFinished();
+	for (Entry entry : this.entries.values())
+		close(entry.zipFile);
+	this.entries.clear();
+}
+
+private static void close(ZipFile zipFile) {
+	try {
+		zipFile.close();
+	} catch (IOException e) {
+		// ignore
+	}
+}
+}
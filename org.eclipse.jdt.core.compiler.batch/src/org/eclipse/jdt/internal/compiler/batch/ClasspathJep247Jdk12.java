@@ -38,6 +38,7 @@ import org.eclipse.jdt.internal.compiler.env.IModule;
 import org.eclipse.jdt.internal.compiler.env.NameEnvironmentAnswer;
 import org.eclipse.jdt.internal.compiler.util.CtSym;
 import org.eclipse.jdt.internal.compiler.util.JRTUtil;
+import org.eclipse.jdt.internal.compiler.util.JrtBinaryTypeCache;
 import org.eclipse.jdt.internal.compiler.util.Util;
 
 public class ClasspathJep247Jdk12 extends ClasspathJep247 {
@@ -61,47 +62,53 @@ public class ClasspathJep247Jdk12 extends ClasspathJep247 {
 		if (!isPackage(qualifiedPackageName, moduleName))
 			return null; // most common case
 
+		String signatureFileName = qualifiedBinaryFileName.replace(".class", ".sig"); //$NON-NLS-1$ //$NON-NLS-2$
 		try {
-			ClassFileReader reader = null;
-			byte[] content = null;
-			char[] foundModName = null;
-			qualifiedBinaryFileName = qualifiedBinaryFileName.replace(".class", ".sig"); //$NON-NLS-1$ //$NON-NLS-2$
-			if (this.subReleases != null && this.subReleases.length > 0) {
-				done: for (String rel : this.subReleases) {
-					if (moduleName == null) {
-						Path p = this.fs.getPath(rel);
-						try (DirectoryStream<java.nio.file.Path> stream = Files.newDirectoryStream(p)) {
-							for (final java.nio.file.Path subdir: stream) {
-								Path f = this.fs.getPath(rel, JRTUtil.sanitizedFileName(subdir), qualifiedBinaryFileName);
-								if (Files.exists(f)) {
-									content = JRTUtil.safeReadBytes(f);
-									foundModName = JRTUtil.sanitizedFileName(subdir).toCharArray();
-									if (content != null)
-										break done;
-								}
+			ClassFileReader reader = JrtBinaryTypeCache.getClassfile(this.file.getPath() + '|' + this.releaseInHex, signatureFileName,
+					moduleName, null, () -> readSignatureFile(signatureFileName, moduleName));
+			if (reader != null) {
+				return new NameEnvironmentAnswer(reader, fetchAccessRestriction(signatureFileName), reader.moduleName);
+			}
+		} catch (ClassFormatException | IOException e) {
+			// continue
+		}
+		return null;
+	}
+	private ClassFileReader readSignatureFile(String qualifiedBinaryFileName, String moduleName) throws IOException, ClassFormatException {
+		byte[] content = null;
+		char[] foundModName = null;
+		if (this.subReleases != null && this.subReleases.length > 0) {
+			done: for (String rel : this.subReleases) {
+				if (moduleName == null) {
+					Path p = this.fs.getPath(rel);
+					try (DirectoryStream<java.nio.file.Path> stream = Files.newDirectoryStream(p)) {
+						for (final java.nio.file.Path subdir: stream) {
+							Path f = this.fs.getPath(rel, JRTUtil.sanitizedFileName(subdir), qualifiedBinaryFileName);
+							if (Files.exists(f)) {
+								content = JRTUtil.safeReadBytes(f);
+								foundModName = JRTUtil.sanitizedFileName(subdir).toCharArray();
+								if (content != null)
+									break done;
 							}
 						}
-					} else {
-						Path p = this.fs.getPath(rel, moduleName, qualifiedBinaryFileName);
-						if (Files.exists(p)) {
-							content = JRTUtil.safeReadBytes(p);
-							if (content != null)
-								break;
-						}
+					}
+				} else {
+					Path p = this.fs.getPath(rel, moduleName, qualifiedBinaryFileName);
+					if (Files.exists(p)) {
+						content = JRTUtil.safeReadBytes(p);
+						if (content != null)
+							break;
 					}
 				}
-			} else {
-				content = JRTUtil.safeReadBytes(this.fs.getPath(this.releaseInHex, qualifiedBinaryFileName));
-			}
-			if (content != null) {
-				reader = new ClassFileReader(content, qualifiedBinaryFileName.toCharArray());
-				char[] modName = moduleName != null ? moduleName.toCharArray() : foundModName;
-				return new NameEnvironmentAnswer(reader, fetchAccessRestriction(qualifiedBinaryFileName), modName);
 			}
-		} catch (ClassFormatException | IOException e) {
-			// continue
+		} else {
+			content = JRTUtil.safeReadBytes(this.fs.getPath(this.releaseInHex, qualifiedBinaryFileName));
 		}
-		return null;
+		if (content == null)
+			return null;
+		ClassFileReader reader = new ClassFileReader(content, qualifiedBinaryFileName.toCharArray());
+		reader.moduleName = moduleName != null ? moduleName.toCharArray() : foundModName;
+		return reader;
 	}
 
 	@Override
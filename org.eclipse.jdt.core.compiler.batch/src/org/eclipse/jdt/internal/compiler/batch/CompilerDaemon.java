@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.compiler.batch;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.Reader;
+
+import org.eclipse.jdt.internal.compiler.util.JrtBinaryTypeCache;
+
+/**
+ * Long-lived entry point for the batch compiler, serving several compilations from the same VM.
+ * <p>
+ * Each line read from the input is a complete command line, as it would be passed to {@link Main}
+ * (<code>@file</code> arguments are expanded as usual). The compiler output is followed by a line made of
+ * {@link #EXIT_MARKER} and the exit code of the compilation (0 on success, -1 on failure).
+ * An empty line is ignored, {@link #QUIT} or the end of the input stops the daemon.
+ * </p><p>
+ * Successive compilations share the JIT compiled code, the parser tables and the caches that
+ * are kept across {@link Main} instances, like the module and package tables of the JRT image,
+ * so that repeated small compilations do not pay for a cold start. The jar files of the classpath
+ * are kept open with the packages they declare by a {@link ClasspathJarCache}, until their size or
+ * modification time changes. When started through {@link #main(String[])}, the class files read
+ * from JDK images are shared as well, see {@link JrtBinaryTypeCache}.
+ * </p><p>
+ * Each request still gets its own name environment and lookup environment: every command line
+ * may bring a different classpath and different options, so bindings are not shared.
+ * </p>
+ */
+public class CompilerDaemon {
+
+	public static final String EXIT_MARKER = "#exit "; //$NON-NLS-1$
+	public static final String QUIT = "quit"; //$NON-NLS-1$
+
+	private final BufferedReader in;
+	private final PrintWriter out;
+	private final PrintWriter err;
+
+public CompilerDaemon(Reader in, PrintWriter out, PrintWriter err) {
+	this.in = new BufferedReader(in);
+	this.out = out;
+	this.err = err;
+}
+
+/**
+ * Serve compilation requests until {@link #QUIT} is read or the input is exhausted.
+ *
+ * @return the number of compilations performed
+ * @throws IOException if reading the input failed
+ */
+public int serve() throws IOException {
+	ClasspathJarCache jarCache = new ClasspathJarCache();
+	try {
+		return serveRequests(jarCache);
+	} finally {
+		jarCache.close();
+	}
+}
+
+private int serveRequests(ClasspathJarCache jarCache) throws IOException {
+	int count = 0;
+	String line;
+	while ((line = this.in.readLine()) != null) {
+		line = line.trim();
+		if (line.isEmpty())
+			continue;
+		if (QUIT.equals(line))
+			break;
+		boolean succeeded;
+		try {
+			Main compiler = new Main(this.out, this.err, false /* systemExit */, null /* options */, null /* progress */);
+			compiler.jarCache = jarCache;
+			succeeded = compiler.compile(Main.tokenize(line));
+		} catch (RuntimeException e) {
+			// a failing request must not bring the daemon down
+			e.printStackTrace(this.err);
+			succeeded = false;
+		} finally {
+			jarCache.compilationFinished();
+		}
+		count++;
+		this.err.flush();
+		this.out.println(EXIT_MARKER + (succeeded ? 0 : -1));
+		this.out.flush();
+	}
+	return count;
+}
+
+public static void main(String[] argv) throws IOException {
+	if (System.getProperty(JrtBinaryTypeCache.ENABLED_PROPERTY) == null)
+		System.setProperty(JrtBinaryTypeCache.ENABLED_PROPERTY, "true"); //$NON-NLS-1$
+	new CompilerDaemon(new InputStreamReader(System.in), new PrintWriter(System.out), new PrintWriter(System.err)).serve();
+}
+}
@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.compiler.batch;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.internal.compiler.ICompilerStatsListener;
+import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.jdt.internal.compiler.batch.FileSystem.Classpath;
+
+/**
+ * Collects the per unit and per classpath entry statistics of a batch compilation (<code>-statsLog</code>),
+ * and writes them as CSV records:
+ * <pre>
+ * kind,name,count,parse_ns,resolve_ns,analyze_ns,generate_ns,class_file_bytes
+ * unit,"/src/p/X.java",1,120000,840000,90000,210000,1532
+ * binary,"/lib/rt.jar",412,,,,,
+ * </pre>
+ * Units are listed in the order they were processed, classpath entries in the order of their first binary type.
+ * The per entry counts come from the {@link FileSystem} of the compilation, see {@link #recordBinaryTypes(FileSystem)}.
+ */
+public class CompilerStatsLog implements ICompilerStatsListener {
+
+	private static final String HEADER = "kind,name,count,parse_ns,resolve_ns,analyze_ns,generate_ns,class_file_bytes"; //$NON-NLS-1$
+
+	private final List<String> unitRecords = new ArrayList<>();
+	private final Map<String, int[]> binaryTypeCounts = new LinkedHashMap<>();
+
+@Override
+public synchronized void unitProcessed(CompilationUnitDeclaration unit, long parseTime, long resolveTime, long analyzeTime, long generateTime, int classFileBytes) {
+	StringBuilder record = new StringBuilder("unit,"); //$NON-NLS-1$
+	appendQuoted(record, new String(unit.getFileName()));
+	record.append(",1,") //$NON-NLS-1$
+		.append(parseTime).append(',')
+		.append(resolveTime).append(',')
+		.append(analyzeTime).append(',')
+		.append(generateTime).append(',')
+		.append(classFileBytes);
+	this.unitRecords.add(record.toString());
+}
+
+/**
+ * Start counting the binary types read from each classpath entry of the given environment.
+ */
+public void recordBinaryTypes(FileSystem environment) {
+	environment.binaryTypeCounts = new LinkedHashMap<>();
+}
+
+/**
+ * Collect the binary types counts of the given environment, once its compilation is done.
+ */
+public synchronized void collectBinaryTypes(FileSystem environment) {
+	if (environment.binaryTypeCounts == null)
+		return;
+	for (Map.Entry<Classpath, int[]> entry : environment.binaryTypeCounts.entrySet())
+		this.binaryTypeCounts.computeIfAbsent(entry.getKey().getPath(), k -> new int[1])[0] += entry.getValue()[0];
+}
+
+private static void appendQuoted(StringBuilder buffer, String value) {
+	buffer.append('"').append(value.replace("\"", "\"\"")).append('"'); //$NON-NLS-1$ //$NON-NLS-2$
+}
+
+/**
+ * Write the collected statistics to the given file.
+ * @throws IOException if the file could not be written
+ */
+public synchronized void write(String fileName) throws IOException {
+	try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(fileName), StandardCharsets.UTF_8))) {
+		writer.write(HEADER);
+		writer.write('\n');
+		for (String record : this.unitRecords) {
+			writer.write(record);
+			writer.write('\n');
+		}
+		for (Map.Entry<String, int[]> entry : this.binaryTypeCounts.entrySet()) {
+			StringBuilder record = new StringBuilder("binary,"); //$NON-NLS-1$
+			appendQuoted(record, entry.getKey());
+			record.append(',').append(entry.getValue()[0]).append(",,,,,"); //$NON-NLS-1$
+			writer.write(record.toString());
+			writer.write('\n');
+		}
+	}
+}
+}
@@ -169,6 +169,7 @@ public class FileSystem implements IModuleAwareNameEnvironment, SuffixConstants
 	protected boolean annotationsFromClasspath; // should annotation files be read from the classpath (vs. explicit separate path)?
 	private static HashMap<File, Classpath> JRT_CLASSPATH_CACHE = null;
 	protected Map<String,Classpath> moduleLocations = new HashMap<>();
+	Map<Classpath, int[]> binaryTypeCounts; // number of binary types read from each classpath entry, only recorded when not null
 
 	/** Tasks resulting from --add-reads or --add-exports command line options. */
 	Map<String,UpdatesByKind> moduleUpdates = new HashMap<>();
@@ -479,7 +480,7 @@ private NameEnvironmentAnswer internalFindClass(String qualifiedTypeName, char[]
 			String moduleNameString = String.valueOf(moduleName);
 			Classpath classpath = this.moduleLocations.get(moduleNameString);
 			if (classpath != null) {
-				return classpath.findClass(typeName, qualifiedPackageName, moduleNameString, qualifiedBinaryFileName);
+				return recordBinaryType(classpath, classpath.findClass(typeName, qualifiedPackageName, moduleNameString, qualifiedBinaryFileName));
 			}
 		}
 		return null;
@@ -490,7 +491,7 @@ private NameEnvironmentAnswer internalFindClass(String qualifiedTypeName, char[]
 		for (int i = 0, length = this.classpaths.length; i < length; i++) {
 			if (!strategy.matches(this.classpaths[i], Classpath::hasModule))
 				continue;
-			NameEnvironmentAnswer answer = this.classpaths[i].findClass(typeName, qualifiedPackageName, null, qualifiedBinaryFileName, asBinaryOnly);
+			NameEnvironmentAnswer answer = recordBinaryType(this.classpaths[i], this.classpaths[i].findClass(typeName, qualifiedPackageName, null, qualifiedBinaryFileName, asBinaryOnly));
 			if (answer != null) {
 				if (answer.moduleName() != null && !this.moduleLocations.containsKey(String.valueOf(answer.moduleName())))
 					continue; // type belongs to an unobservable module
@@ -508,9 +509,9 @@ private NameEnvironmentAnswer internalFindClass(String qualifiedTypeName, char[]
 			Classpath p = this.classpaths[i];
 			if (!strategy.matches(p, Classpath::hasModule))
 				continue;
-			NameEnvironmentAnswer answer = !(p instanceof ClasspathDirectory)
+			NameEnvironmentAnswer answer = recordBinaryType(p, !(p instanceof ClasspathDirectory)
 				? p.findClass(typeName, qualifiedPackageName, null, qualifiedBinaryFileName, asBinaryOnly)
-				: p.findClass(typeName, qp2, null, qb2, asBinaryOnly);
+				: p.findClass(typeName, qp2, null, qb2, asBinaryOnly));
 			if (answer != null) {
 				if (answer.moduleName() != null && !this.moduleLocations.containsKey(String.valueOf(answer.moduleName())))
 					continue; // type belongs to an unobservable module
@@ -525,6 +526,14 @@ private NameEnvironmentAnswer internalFindClass(String qualifiedTypeName, char[]
 	}
 	return suggestedAnswer;
 }
+private NameEnvironmentAnswer recordBinaryType(Classpath classpath, NameEnvironmentAnswer answer) {
+	if (answer != null && answer.isBinaryType() && this.binaryTypeCounts != null) {
+		synchronized (this.binaryTypeCounts) {
+			this.binaryTypeCounts.computeIfAbsent(classpath, c -> new int[1])[0]++;
+		}
+	}
+	return answer;
+}
 
 @Override
 public NameEnvironmentAnswer findType(char[][] compoundName, char[] moduleName) {
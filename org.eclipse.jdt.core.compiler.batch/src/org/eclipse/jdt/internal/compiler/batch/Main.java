@@ -740,6 +740,15 @@ public class Main implements ProblemSeverities, SuffixConstants {
 				}));
 		}
 
+		public void logNoStatsLogCreated(String statsLogFileName, IOException e) {
+			if ((this.tagBits & Logger.XML) != 0) {
+				HashMap<String, Object> parameters = new HashMap<>();
+				parameters.put(Logger.MESSAGE, this.main.bind("output.noStatsLogCreated", statsLogFileName, e.getMessage())); //$NON-NLS-1$
+				printTag(Logger.ERROR_TAG, parameters, true, true);
+			}
+			this.printlnErr(this.main.bind("output.noStatsLogCreated", statsLogFileName, e.getMessage())); //$NON-NLS-1$
+		}
+
 		/**
 		 * @param exportedClassFilesCounter
 		 */
@@ -1060,6 +1069,18 @@ public class Main implements ProblemSeverities, SuffixConstants {
 								String.valueOf(compilerStats.generateTime),
 								String.valueOf(((int) (compilerStats.generateTime * 1000.0 / time)) / 10.0),
 							}));
+				if (compilerStats.packageIndexCacheHits + compilerStats.packageIndexCacheMisses != 0) {
+					printlnOut(
+						this.main.bind("compile.packageIndexCache", //$NON-NLS-1$
+							String.valueOf(compilerStats.packageIndexCacheHits),
+							String.valueOf(compilerStats.packageIndexCacheMisses)));
+				}
+				if (compilerStats.inferenceCacheHits + compilerStats.inferenceCacheMisses != 0) {
+					printlnOut(
+						this.main.bind("compile.inferenceCache", //$NON-NLS-1$
+							String.valueOf(compilerStats.inferenceCacheHits),
+							String.valueOf(compilerStats.inferenceCacheMisses)));
+				}
 			}
 		}
 
@@ -1392,6 +1413,8 @@ public class Main implements ProblemSeverities, SuffixConstants {
 	/* Bundle containing messages */
 	public ResourceBundle bundle;
 	protected FileSystem.Classpath[] checkedClasspaths;
+	// the jars kept open by the daemon running this compiler, null if none
+	ClasspathJarCache jarCache;
 	// For single module mode
 	protected IModule module;
 	private String moduleVersion;
@@ -1423,6 +1446,7 @@ public class Main implements ProblemSeverities, SuffixConstants {
 	private boolean didSpecifyTarget;
 	public String[] encodings;
 	public int exportedClassFilesCounter;
+	private ClassFileWriter classFileWriter;
 	public String[] filenames;
 	public String[] modNames;
 	public String[] classNames;
@@ -1440,6 +1464,7 @@ public class Main implements ProblemSeverities, SuffixConstants {
 	public long lineCount0;
 
 	public String log;
+	public String statsLog;
 
 	public Logger logger;
 	public int maxProblems;
@@ -1452,6 +1477,7 @@ public class Main implements ProblemSeverities, SuffixConstants {
 	public boolean failOnWarning = false;
 	public boolean produceRefInfo = false;
 	public int currentRepetition, maxRepetition;
+	public int parsingThreads;
 	public boolean showProgress = false;
 	public long startTime;
 	public ArrayList<String> pendingErrors;
@@ -1877,6 +1903,8 @@ public void configure(String[] argv) {
 	final int INSIDE_RELEASE = 30;
 	final int INSIDE_LIMIT_MODULES = 31;
 	final int INSIDE_MODULE_VERSION = 32;
+	final int INSIDE_THREADS = 33;
+	final int INSIDE_STATS_LOG = 34;
 
 	final int DEFAULT = 0;
 	ArrayList<String> bootclasspaths = new ArrayList<>(DEFAULT_SIZE_CLASSPATH);
@@ -1896,6 +1924,7 @@ public void configure(String[] argv) {
 	int argCount = argv.length;
 	int mode = DEFAULT;
 	this.maxRepetition = 0;
+	this.parsingThreads = 0;
 	boolean printUsageRequired = false;
 	String usageSection = null;
 	boolean printVersionRequired = false;
@@ -2078,6 +2107,13 @@ public void configure(String[] argv) {
 					mode = INSIDE_LOG;
 					continue;
 				}
+				if (currentArg.equals("-statsLog")) { //$NON-NLS-1$
+					if (this.statsLog != null)
+						throw new IllegalArgumentException(
+							this.bind("configure.duplicateStatsLog", currentArg)); //$NON-NLS-1$
+					mode = INSIDE_STATS_LOG;
+					continue;
+				}
 				if (currentArg.equals("-repeat")) { //$NON-NLS-1$
 					if (this.maxRepetition > 0)
 						throw new IllegalArgumentException(
@@ -2085,6 +2121,13 @@ public void configure(String[] argv) {
 					mode = INSIDE_REPETITION;
 					continue;
 				}
+				if (currentArg.equals("-threads")) { //$NON-NLS-1$
+					if (this.parsingThreads > 0)
+						throw new IllegalArgumentException(
+							this.bind("configure.duplicateThreads", currentArg)); //$NON-NLS-1$
+					mode = INSIDE_THREADS;
+					continue;
+				}
 				if (currentArg.equals("-maxProblems")) { //$NON-NLS-1$
 					if (this.maxProblems > 0)
 						throw new IllegalArgumentException(
@@ -2674,6 +2717,10 @@ public void configure(String[] argv) {
 				this.log = currentArg;
 				mode = DEFAULT;
 				continue;
+			case INSIDE_STATS_LOG :
+				this.statsLog = currentArg;
+				mode = DEFAULT;
+				continue;
 			case INSIDE_REPETITION :
 				try {
 					this.maxRepetition = Integer.parseInt(currentArg);
@@ -2685,6 +2732,17 @@ public void configure(String[] argv) {
 				}
 				mode = DEFAULT;
 				continue;
+			case INSIDE_THREADS :
+				try {
+					this.parsingThreads = Integer.parseInt(currentArg);
+					if (this.parsingThreads <= 0) {
+						throw new IllegalArgumentException(this.bind("configure.threads", currentArg)); //$NON-NLS-1$
+					}
+				} catch (NumberFormatException e) {
+					throw new IllegalArgumentException(this.bind("configure.threads", currentArg), e); //$NON-NLS-1$
+				}
+				mode = DEFAULT;
+				continue;
 			case INSIDE_MAX_PROBLEMS :
 				try {
 					this.maxProblems = Integer.parseInt(currentArg);
@@ -3495,6 +3553,10 @@ public File getJavaHome() {
 }
 
 public FileSystem getLibraryAccess() {
+	if (this.jarCache != null) {
+		for (Classpath classpath : this.checkedClasspaths)
+			useJarCache(classpath);
+	}
 	FileSystem nameEnvironment = new FileSystem(this.checkedClasspaths, this.filenames,
 					this.annotationsFromClasspath && CompilerOptions.ENABLED.equals(this.options.get(CompilerOptions.OPTION_AnnotationBasedNullAnalysis)),
 					this.limitedModules);
@@ -3665,6 +3727,16 @@ private void handleSingleModuleCompilation() {
 		this.module = singleMod;
 	}
 }
+/*
+ * Let the given classpath entry open its jar from the jar cache, unless it is not a jar or already opened it.
+ */
+private void useJarCache(Classpath classpath) {
+	if (this.jarCache != null && classpath instanceof ClasspathJar) {
+		ClasspathJar jar = (ClasspathJar) classpath;
+		if (jar.zipFile == null)
+			jar.jarCache = this.jarCache;
+	}
+}
 /*
  * External API
  */
@@ -3717,6 +3789,7 @@ protected ArrayList<FileSystem.Classpath> handleClasspath(ArrayList<String> clas
 		if (knownNames.get(currentPath) == null) {
 			knownNames.put(currentPath, current);
 			result.add(current);
+			useJarCache(current);
 			List<Classpath> linkedJars = current.fetchLinkedJars(problemReporter);
 			if (linkedJars != null) {
 				initial.addAll(0, linkedJars);
@@ -4717,11 +4790,16 @@ public void outputClassFiles(CompilationResult unitResult) {
 									String.valueOf(this.exportedClassFilesCounter+1),
 									relativeStringName
 								}));
-					Util.writeToDisk(
-						generateClasspathStructure,
-						currentDestinationPath,
-						relativeStringName,
-						classFile);
+					if (this.classFileWriter != null) {
+						// the class file is released below, and its contents reused
+						this.classFileWriter.write(generateClasspathStructure, currentDestinationPath, relativeStringName, classFile.getBytes());
+					} else {
+						Util.writeToDisk(
+							generateClasspathStructure,
+							currentDestinationPath,
+							relativeStringName,
+							classFile);
+					}
 					this.logger.logClassFile(
 						generateClasspathStructure,
 						currentDestinationPath,
@@ -4759,6 +4837,12 @@ public void performCompilation() {
 		// temporary code to allow the compiler to revert to a single thread
 		String setting = System.getProperty("jdt.compiler.useSingleThread"); //$NON-NLS-1$
 		this.batchCompiler.useSingleThread = setting != null && setting.equals("true"); //$NON-NLS-1$
+		this.batchCompiler.parsingThreads = this.parsingThreads;
+		CompilerStatsLog compilerStatsLog = null;
+		if (this.statsLog != null) {
+			this.batchCompiler.statsListener = compilerStatsLog = new CompilerStatsLog();
+			compilerStatsLog.recordBinaryTypes(environment);
+		}
 
 		if (this.compilerOptions.complianceLevel >= ClassFileConstants.JDK1_6
 				&& this.compilerOptions.processAnnotations) {
@@ -4779,10 +4863,19 @@ public void performCompilation() {
 		// set the non-externally configurable options.
 		this.compilerOptions.verbose = this.verbose;
 		this.compilerOptions.produceReferenceInfo = this.produceRefInfo;
+		// class files are written on other threads, unless the compiler is asked to use a single thread
+		this.classFileWriter = this.batchCompiler.useSingleThread ? null : new ClassFileWriter();
 		try {
 			this.logger.startLoggingSources();
 			this.batchCompiler.compile(getCompilationUnits());
 		} finally {
+			if (this.classFileWriter != null) {
+				for (ClassFileWriter.Write write : this.classFileWriter.finish()) {
+					this.logger.logNoClassFileCreated(write.outputPath, write.relativeFileName, write.exception);
+					this.exportedClassFilesCounter--;
+				}
+				this.classFileWriter = null;
+			}
 			this.logger.endLoggingSources();
 		}
 
@@ -4790,6 +4883,20 @@ public void performCompilation() {
 			loggingExtraProblems();
 			this.extraProblems = null;
 		}
+		if (compilerStatsLog != null) {
+			compilerStatsLog.collectBinaryTypes(environment);
+			try {
+				compilerStatsLog.write(this.statsLog);
+			} catch (IOException e) {
+				this.logger.logNoStatsLogCreated(this.statsLog, e);
+			}
+		}
+		for (Classpath classpath : environment.classpaths) {
+			if (classpath instanceof ClasspathJar) {
+				this.batchCompiler.stats.packageIndexCacheHits += ((ClasspathJar) classpath).packageIndexCacheHits;
+				this.batchCompiler.stats.packageIndexCacheMisses += ((ClasspathJar) classpath).packageIndexCacheMisses;
+			}
+		}
 		if (this.compilerStats != null) {
 			this.compilerStats[this.currentRepetition] = this.batchCompiler.stats;
 		}
@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.compiler.batch;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Set;
+
+/**
+ * On-disk cache of the packages declared by jar files, shared by successive batch compiler runs.
+ * <p>
+ * The cache is opt-in: it is only used when the system property {@value #CACHE_DIRECTORY_PROPERTY}
+ * names a directory. An entry is keyed by the canonical path of the jar and is only answered
+ * while the size and the modification time of the jar are unchanged. Entries are named after a
+ * digest of that path, and each entry records the path it was written for.
+ * </p>
+ */
+public class PackageIndexCache {
+
+	public static final String CACHE_DIRECTORY_PROPERTY = "jdt.compiler.packageIndexCache"; //$NON-NLS-1$
+	private static final int VERSION = 1;
+	private static final String EXTENSION = ".pkgs"; //$NON-NLS-1$
+
+	private static PackageIndexCache defaultCache;
+
+	private final File directory;
+
+public PackageIndexCache(File directory) {
+	this.directory = directory;
+}
+
+/**
+ * Answer the cache configured through {@value #CACHE_DIRECTORY_PROPERTY}, or null if none.
+ */
+public static synchronized PackageIndexCache getDefault() {
+	String location = System.getProperty(CACHE_DIRECTORY_PROPERTY);
+	if (location == null || location.isEmpty())
+		return null;
+	if (defaultCache == null || !defaultCache.directory.getPath().equals(location))
+		defaultCache = new PackageIndexCache(new File(location));
+	return defaultCache;
+}
+
+private static String getCanonicalPath(File jar) {
+	try {
+		return jar.getCanonicalPath();
+	} catch (IOException e) {
+		return jar.getAbsolutePath();
+	}
+}
+
+private File getEntry(String jarPath) {
+	StringBuilder name = new StringBuilder(40 + EXTENSION.length());
+	try {
+		for (byte b : MessageDigest.getInstance("SHA-1").digest(jarPath.getBytes(StandardCharsets.UTF_8))) //$NON-NLS-1$
+			name.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+	} catch (NoSuchAlgorithmException e) {
+		// every Java platform supports SHA-1, the recorded path still tells colliding entries apart
+		name.append(Integer.toHexString(jarPath.hashCode()));
+	}
+	return new File(this.directory, name.append(EXTENSION).toString());
+}
+
+/**
+ * Add the cached package names of the given jar to the given set.
+ *
+ * @return whether a valid entry was found for the jar
+ */
+public boolean read(File jar, Set<String> packageNames) {
+	String jarPath = getCanonicalPath(jar);
+	File entry = getEntry(jarPath);
+	if (!entry.isFile())
+		return false;
+	try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(entry)))) {
+		if (in.readInt() != VERSION
+				|| !jarPath.equals(in.readUTF())
+				|| in.readLong() != jar.length()
+				|| in.readLong() != jar.lastModified())
+			return false; // stale or colliding entry
+		String[] names = new String[in.readInt()];
+		for (int i = 0; i < names.length; i++)
+			names[i] = in.readUTF();
+		for (String name : names)
+			packageNames.add(name);
+		return true;
+	} catch (IOException e) {
+		// treat a corrupted entry as missing
+		return false;
+	}
+}
+
+/**
+ * Record the package names of the given jar. Failures are ignored, the cache is best effort only.
+ */
+public void write(File jar, Set<String> packageNames) {
+	String jarPath = getCanonicalPath(jar);
+	File entry = getEntry(jarPath);
+	File temp = null;
+	try {
+		this.directory.mkdirs();
+		// write to a temporary file first, concurrent compiler runs must never see a partial entry
+		temp = File.createTempFile("index", EXTENSION, this.directory); //$NON-NLS-1$
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+			out.writeInt(VERSION);
+			out.writeUTF(jarPath);
+			out.writeLong(jar.length());
+			out.writeLong(jar.lastModified());
+			out.writeInt(packageNames.size());
+			for (String name : packageNames)
+				out.writeUTF(name);
+		}
+		try {
+			Files.move(temp.toPath(), entry.toPath(), StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temp.toPath(), entry.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		temp = null;
+	} catch (IOException | SecurityException e) {
+		// ignore
+	} finally {
+		if (temp != null)
+			temp.delete();
+	}
+}
+}
@@ -51,6 +51,16 @@ import org.eclipse.jdt.internal.compiler.util.Util;
 
 public class ClassFileReader extends ClassFileStruct implements IBinaryType {
 
+	// only consider a portion of the tagbits which indicate a structural change for dependents
+	// e.g. @Override change has no influence outside
+	private static final long OnlyStructuralTagBits = TagBits.AnnotationTargetMASK // different @Target status ?
+		| TagBits.AnnotationDeprecated // different @Deprecated status ?
+		| TagBits.AnnotationRetentionMASK // different @Retention status ?
+		| TagBits.HierarchyHasProblems; // different hierarchy status ?
+	// 64-bit FNV-1a parameters, see getStructuralHash()
+	private static final long HASH_SEED = 0xcbf29ce484222325L;
+	private static final long HASH_PRIME = 0x100000001b3L;
+
 	private int accessFlags;
 	private char[] classFileName;
 	private char[] className;
@@ -1034,13 +1044,6 @@ public boolean hasStructuralChanges(byte[] newBytes, boolean orderRequired, bool
 		if (getModifiers() != newClassFile.getModifiers())
 			return true;
 
-		// only consider a portion of the tagbits which indicate a structural change for dependents
-		// e.g. @Override change has no influence outside
-		long OnlyStructuralTagBits = TagBits.AnnotationTargetMASK // different @Target status ?
-			| TagBits.AnnotationDeprecated // different @Deprecated status ?
-			| TagBits.AnnotationRetentionMASK // different @Retention status ?
-			| TagBits.HierarchyHasProblems; // different hierarchy status ?
-
 		// meta-annotations
 		if ((getTagBits() & OnlyStructuralTagBits) != (newClassFile.getTagBits() & OnlyStructuralTagBits))
 			return true;
@@ -1354,6 +1357,150 @@ private boolean hasStructuralTypeAnnotationChanges(IBinaryTypeAnnotation[] curre
 	return false;
 }
 
+/**
+ * Answer a hash of the structure of the receiver, made of what {@link #hasStructuralChanges(byte[])} compares:
+ * when the hashes of two versions of a class file differ, the new version has structural changes.
+ * When they are equal, it has none, barring a collision of the hashes.
+ * Like {@link #hasStructuralChanges(byte[])}, members are hashed in sorted order and synthetic members are ignored.
+ */
+public long getStructuralHash() {
+	long hash = HASH_SEED;
+	hash = mix(hash, getModifiers());
+	hash = mix(hash, getTagBits() & OnlyStructuralTagBits);
+	hash = mixAnnotations(hash, getAnnotations());
+	if (this.version >= ClassFileConstants.JDK1_8)
+		hash = mixTypeAnnotations(hash, getTypeAnnotations());
+	hash = mix(hash, getGenericSignature());
+	hash = mix(hash, getSuperclassName());
+	hash = mix(hash, getInterfaceNames());
+	hash = mix(hash, getPermittedSubtypeNames());
+	IBinaryNestedType[] memberTypes = getMemberTypes();
+	int length = memberTypes == null ? 0 : memberTypes.length;
+	hash = mix(hash, length);
+	for (int i = 0; i < length; i++) {
+		hash = mix(hash, memberTypes[i].getName());
+		hash = mix(hash, memberTypes[i].getModifiers());
+	}
+	if (this.fieldsCount != 0) {
+		FieldInfo[] sortedFields = this.fields.clone();
+		Arrays.sort(sortedFields);
+		for (FieldInfo field : sortedFields) {
+			if (field.isSynthetic()) continue;
+			hash = mix(hash, field.getGenericSignature());
+			hash = mix(hash, field.getModifiers());
+			hash = mix(hash, field.getTagBits() & TagBits.AnnotationDeprecated);
+			hash = mixAnnotations(hash, field.getAnnotations());
+			if (this.version >= ClassFileConstants.JDK1_8)
+				hash = mixTypeAnnotations(hash, field.getTypeAnnotations());
+			hash = mix(hash, field.getName());
+			hash = mix(hash, field.getTypeName());
+			hash = mix(hash, field.hasConstant() ? mixValue(HASH_SEED, field.getConstant()) : 0);
+		}
+	}
+	hash = mix(hash, -1); // end of the fields
+	if (this.methodsCount != 0) {
+		MethodInfo[] sortedMethods = this.methods.clone();
+		Arrays.sort(sortedMethods);
+		for (MethodInfo method : sortedMethods) {
+			if (method.isSynthetic()) continue;
+			hash = mix(hash, method.getGenericSignature());
+			hash = mix(hash, method.getModifiers());
+			hash = mix(hash, method.getTagBits() & TagBits.AnnotationDeprecated);
+			hash = mixAnnotations(hash, method.getAnnotations());
+			int annotatedParametersCount = method.getAnnotatedParametersCount();
+			hash = mix(hash, annotatedParametersCount);
+			for (int i = 0; i < annotatedParametersCount; i++)
+				hash = mixAnnotations(hash, method.getParameterAnnotations(i, this.classFileName));
+			if (this.version >= ClassFileConstants.JDK1_8)
+				hash = mixTypeAnnotations(hash, method.getTypeAnnotations());
+			hash = mix(hash, method.getSelector());
+			hash = mix(hash, method.getMethodDescriptor());
+			hash = mix(hash, method.getExceptionTypeNames());
+		}
+	}
+	hash = mix(hash, -1); // end of the methods
+	char[][][] missingTypes = getMissingTypeNames();
+	if (missingTypes == null) {
+		hash = mix(hash, -1);
+	} else {
+		hash = mix(hash, missingTypes.length);
+		for (char[][] missingType : missingTypes)
+			hash = mix(hash, missingType);
+	}
+	return hash;
+}
+
+private static long mix(long hash, long value) {
+	return (hash ^ value) * HASH_PRIME;
+}
+
+private static long mix(long hash, char[] value) {
+	if (value == null)
+		return mix(hash, -1);
+	hash = mix(hash, value.length);
+	for (char c : value)
+		hash = mix(hash, c);
+	return hash;
+}
+
+private static long mix(long hash, char[][] value) {
+	if (value == null)
+		return mix(hash, 0); // same as no names, see TypeConstants.NoSuperInterfaces
+	hash = mix(hash, value.length);
+	for (char[] name : value)
+		hash = mix(hash, name);
+	return hash;
+}
+
+private static long mixAnnotations(long hash, IBinaryAnnotation[] annotations) {
+	int length = annotations == null ? 0 : annotations.length;
+	hash = mix(hash, length);
+	for (int i = 0; i < length; i++)
+		hash = mixValue(hash, annotations[i]);
+	return hash;
+}
+
+private long mixTypeAnnotations(long hash, IBinaryTypeAnnotation[] typeAnnotations) {
+	// the order of type annotations does not matter, see hasStructuralTypeAnnotationChanges()
+	long sum = 0;
+	if (typeAnnotations != null) {
+		for (IBinaryTypeAnnotation typeAnnotation : typeAnnotations) {
+			if (affectsSignature(typeAnnotation))
+				sum += mixValue(HASH_SEED, typeAnnotation.getAnnotation());
+		}
+	}
+	return mix(hash, sum);
+}
+
+private static long mixValue(long hash, Object value) {
+	if (value instanceof IBinaryAnnotation) {
+		IBinaryAnnotation annotation = (IBinaryAnnotation) value;
+		hash = mix(hash, annotation.getTypeName());
+		IBinaryElementValuePair[] pairs = annotation.getElementValuePairs();
+		int length = pairs == null ? 0 : pairs.length;
+		hash = mix(hash, length);
+		for (int i = 0; i < length; i++) {
+			hash = mix(hash, pairs[i].getName());
+			hash = mixValue(hash, pairs[i].getValue());
+		}
+		return hash;
+	}
+	if (value instanceof Object[]) {
+		Object[] values = (Object[]) value;
+		hash = mix(hash, values.length);
+		for (Object element : values)
+			hash = mixValue(hash, element);
+		return hash;
+	}
+	if (value instanceof Constant) {
+		Constant constant = (Constant) value;
+		hash = mix(hash, constant.typeID());
+		hash = mix(hash, constant.getClass().getName().toCharArray());
+		return mix(hash, constant.stringValue().toCharArray());
+	}
+	return mix(hash, value == null ? null : value.toString().toCharArray()); // class and enum constant signatures
+}
+
 private boolean affectsSignature(IBinaryTypeAnnotation typeAnnotation) {
 	if (typeAnnotation == null) return false;
 	int targetType = typeAnnotation.getTargetType();
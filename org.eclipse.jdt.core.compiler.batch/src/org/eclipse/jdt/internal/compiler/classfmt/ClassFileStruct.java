@@ -58,6 +58,12 @@ public long u4At(int relativeOffset) {
 	int position = relativeOffset + this.structOffset;
 	return (((this.reference[position++] & 0xFFL) << 24) | ((this.reference[position++] & 0xFF) << 16) | ((this.reference[position++] & 0xFF) << 8) | (this.reference[position] & 0xFF));
 }
+/**
+ * Answer the bytes the receiver is read from, or null once they were released.
+ */
+public byte[] getReferenceBytes() {
+	return this.reference;
+}
 public char[] utf8At(int relativeOffset, int bytesAvailable) {
 	int length = bytesAvailable;
 	char outputBuf[] = new char[bytesAvailable];
@@ -28,6 +28,14 @@ public class CompilerStats implements Comparable {
 	public long analyzeTime;
 	public long generateTime;
 
+	// classpath
+	public long packageIndexCacheHits;
+	public long packageIndexCacheMisses;
+
+	// type inference
+	public long inferenceCacheHits;
+	public long inferenceCacheMisses;
+
 /**
  * Returns the total elapsed time (between start and end)
  * @return the time spent between start and end
@@ -57,7 +57,7 @@ import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
 import org.eclipse.jdt.internal.compiler.impl.JavaFeature;
 import org.eclipse.jdt.internal.compiler.problem.AbortCompilation;
 import org.eclipse.jdt.internal.compiler.problem.ProblemReporter;
-import org.eclipse.jdt.internal.compiler.util.HashtableOfObject;
+import org.eclipse.jdt.internal.compiler.util.CharDelegateMap;
 
 @SuppressWarnings({"rawtypes"})
 public class ClassScope extends Scope {
@@ -180,7 +180,7 @@ public class ClassScope extends Scope {
 
 		// iterate the field declarations to create the bindings, lose all duplicates
 		RecordComponentBinding[] componentBindings = new RecordComponentBinding[count];
-		HashtableOfObject knownComponentNames = new HashtableOfObject(count);
+		CharDelegateMap<RecordComponentBinding> knownComponentNames = new CharDelegateMap<>(count);
 		count = 0;
 		for (int i = 0; i < size; i++) {
 			RecordComponent recComp = recComps[i];
@@ -190,7 +190,7 @@ public class ClassScope extends Scope {
 			checkAndSetModifiersForComponents(compBinding, recComp);
 
 			if (knownComponentNames.containsKey(recComp.name)) {
-				RecordComponentBinding previousBinding = (RecordComponentBinding) knownComponentNames.get(recComp.name);
+				RecordComponentBinding previousBinding = knownComponentNames.get(recComp.name);
 				if (previousBinding != null) {
 					for (int f = 0; f < i; f++) {
 						RecordComponent previousComponent = recComps[f];
@@ -247,7 +247,7 @@ public class ClassScope extends Scope {
 
 		// iterate the field declarations to create the bindings, lose all duplicates
 		FieldBinding[] fieldBindings = new FieldBinding[count];
-		HashtableOfObject knownFieldNames = new HashtableOfObject(count);
+		CharDelegateMap<FieldBinding> knownFieldNames = new CharDelegateMap<>(count);
 		count = 0;
 		for (int i = 0; i < size; i++) {
 			FieldDeclaration field = fields[i];
@@ -261,7 +261,7 @@ public class ClassScope extends Scope {
 				checkAndSetModifiersForField(fieldBinding, field);
 
 				if (knownFieldNames.containsKey(field.name)) {
-					FieldBinding previousBinding = (FieldBinding) knownFieldNames.get(field.name);
+					FieldBinding previousBinding = knownFieldNames.get(field.name);
 					if (previousBinding != null) {
 						for (int f = 0; f < i; f++) {
 							FieldDeclaration previousField = fields[f];
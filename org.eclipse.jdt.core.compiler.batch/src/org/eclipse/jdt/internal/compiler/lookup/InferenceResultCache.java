@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.compiler.lookup;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded memory of the outcome of invocation type inference (JLS 18.5.1 and 18.5.2) for standalone invocations.
+ * <p>
+ * An entry is keyed by the generic method, the argument types (not boxed, since boxing decides between strict and
+ * loose inference) and the target type, all compared by identity.
+ * Only invocations whose inference cannot be influenced by anything else are recorded, see
+ * {@link ParameterizedGenericMethodBinding#computeCompatibleMethod18(MethodBinding, TypeBinding[], Scope, InvocationSite)}:
+ * no poly expression is involved among the arguments, the invocation itself is either standalone or has its final target type
+ * from an assignment context, no outer inference is active and no unchecked conversion was needed.
+ * </p>
+ */
+public class InferenceResultCache {
+
+	static final int MAX_ENTRIES = 4096;
+
+	static class Key {
+		final MethodBinding method;
+		final TypeBinding[] arguments;
+		final TypeBinding targetType;
+		final int hashCode;
+
+		Key(MethodBinding method, TypeBinding[] arguments, TypeBinding targetType) {
+			this.method = method;
+			this.arguments = arguments.clone(); // inference may update the given arguments
+			this.targetType = targetType;
+			int hash = 31 * System.identityHashCode(method) + System.identityHashCode(targetType);
+			for (TypeBinding argument : arguments)
+				hash = 31 * hash + System.identityHashCode(argument);
+			this.hashCode = hash;
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			if (this.hashCode != other.hashCode
+					|| this.method != other.method
+					|| this.targetType != other.targetType //$IDENTITY-COMPARISON$
+					|| this.arguments.length != other.arguments.length)
+				return false;
+			for (int i = 0; i < this.arguments.length; i++)
+				if (this.arguments[i] != other.arguments[i]) //$IDENTITY-COMPARISON$
+					return false;
+			return true;
+		}
+	}
+
+	static class Result {
+		final TypeBinding[] solutions;
+		final int inferenceKind;
+
+		Result(TypeBinding[] solutions, int inferenceKind) {
+			this.solutions = solutions;
+			this.inferenceKind = inferenceKind;
+		}
+	}
+
+	private final Map<Key, Result> results = new LinkedHashMap<Key, Result>(64, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, Result> eldest) {
+			return size() > MAX_ENTRIES;
+		}
+	};
+
+	public long hits;
+	public long misses;
+
+	Result get(Key key) {
+		Result result = this.results.get(key);
+		if (result != null)
+			this.hits++;
+		else
+			this.misses++;
+		return result;
+	}
+
+	void put(Key key, TypeBinding[] solutions, int inferenceKind) {
+		for (TypeBinding solution : solutions) {
+			// solutions mentioning a capture are specific to the position of the invocation
+			if (!solution.isProperType(true) || mentionsCapture(solution))
+				return;
+		}
+		this.results.put(key, new Result(solutions, inferenceKind));
+	}
+
+	private static boolean mentionsCapture(TypeBinding type) {
+		final boolean[] found = new boolean[1];
+		TypeBindingVisitor.visit(new TypeBindingVisitor() {
+			@Override
+			public boolean visit(TypeVariableBinding typeVariable) {
+				if (typeVariable.isCapture())
+					found[0] = true;
+				return super.visit(typeVariable);
+			}
+		}, type);
+		return found[0];
+	}
+
+	public void reset() {
+		this.results.clear();
+	}
+}
@@ -137,6 +137,9 @@ public class LookupEnvironment implements ProblemReasons, TypeConstants {
 	/** Global access to the outermost active inference context as the universe for inference variable interning. */
 	InferenceContext18 currentInferenceContext;
 
+	/** Outcomes of standalone invocation type inference, reused for identical invocations. */
+	public final InferenceResultCache inferenceResultCache;	// SHARED
+
 	/**
 	 * Flag that should be set during annotation traversal or similar runs
 	 * to prevent caching of failures regarding imports of yet to be generated classes.
@@ -177,6 +180,7 @@ public LookupEnvironment(ITypeRequestor typeRequestor, CompilerOptions globalOpt
 	this.typesBeingConnected = new LinkedHashSet<>();
 	this.deferredEnumMethods = new ArrayList<>();
 	this.typeSystem = this.globalOptions.sourceLevel >= ClassFileConstants.JDK1_8 && this.globalOptions.storeAnnotations ? new AnnotatableTypeSystem(this) : new TypeSystem(this);
+	this.inferenceResultCache = new InferenceResultCache();
 	this.knownModules = new HashtableOfModule();
 	this.useModuleSystem = nameEnvironment instanceof IModuleAwareNameEnvironment && globalOptions.complianceLevel >= ClassFileConstants.JDK9;
 	this.resolutionListeners = new IQualifiedTypeResolutionListener[0];
@@ -202,6 +206,7 @@ LookupEnvironment(LookupEnvironment rootEnv, ModuleBinding module) {
 	this.typesBeingConnected = rootEnv.typesBeingConnected;
 	this.deferredEnumMethods = rootEnv.deferredEnumMethods;
 	this.typeSystem = rootEnv.typeSystem;
+	this.inferenceResultCache = rootEnv.inferenceResultCache;
 	// knownModules is unused in specific LookupEnvironments
 	this.useModuleSystem = rootEnv.useModuleSystem;
 }
@@ -2194,6 +2199,7 @@ public void reset() {
 
 	this.classFilePool.reset();
 	this.typeSystem.reset();
+	this.inferenceResultCache.reset();
 	// name environment has a longer life cycle, and must be reset in
 	// the code which created it.
 }
@@ -99,7 +99,7 @@ void addType(ReferenceBinding element) {
 	if (this.knownTypes == null)
 		this.knownTypes = new HashtableOfType(25);
 	char [] name = element.compoundName[element.compoundName.length - 1];
-	ReferenceBinding priorType = this.knownTypes.getput(name, element);
+	ReferenceBinding priorType = this.knownTypes.put(name, element);
 	if (priorType != null && priorType.isUnresolvedType() && !element.isUnresolvedType()) {
 		((UnresolvedReferenceBinding) priorType).setResolvedType(element, this.environment);
 	}
@@ -477,7 +477,7 @@ public abstract PlainPackageBinding getIncarnation(ModuleBinding moduleBinding);
 
 public boolean hasCompilationUnit(boolean checkCUs) {
 	if (this.knownTypes != null) {
-		for (ReferenceBinding knownType : this.knownTypes.valueTable) {
+		for (ReferenceBinding knownType : this.knownTypes.values()) {
 			if (knownType != null && knownType != LookupEnvironment.TheNotFoundType && !knownType.isUnresolvedType())
 				return true;
 		}
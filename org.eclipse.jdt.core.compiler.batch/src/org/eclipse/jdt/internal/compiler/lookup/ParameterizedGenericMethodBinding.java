@@ -31,6 +31,7 @@ package org.eclipse.jdt.internal.compiler.lookup;
 
 import org.eclipse.jdt.internal.compiler.ast.ASTNode;
 import org.eclipse.jdt.internal.compiler.ast.Expression;
+import org.eclipse.jdt.internal.compiler.ast.ExpressionContext;
 import org.eclipse.jdt.internal.compiler.ast.Invocation;
 import org.eclipse.jdt.internal.compiler.ast.NullAnnotationMatching;
 import org.eclipse.jdt.internal.compiler.ast.ReferenceExpression;
@@ -218,6 +219,7 @@ public class ParameterizedGenericMethodBinding extends ParameterizedMethodBindin
 		boolean allArgumentsAreProper = true;
 
 		// See if we should start in loose inference mode.
+		TypeBinding[] invocationArguments = arguments; // before boxing, which decides between strict and loose inference
 		TypeBinding [] argumentsCopy = new TypeBinding[arguments.length];
 		for (int i = 0, length = arguments.length, parametersLength = parameters.length ; i < length; i++) {
 			TypeBinding parameter = i < parametersLength ? parameters[i] : parameters[parametersLength - 1];
@@ -243,6 +245,28 @@ public class ParameterizedGenericMethodBinding extends ParameterizedMethodBindin
 			final boolean isPolyExpression = invocationSite instanceof Expression &&   ((Expression) invocationSite).isTrulyExpression() &&
 					((Expression)invocationSite).isPolyExpression(originalMethod);
 			boolean isDiamond = isPolyExpression && originalMethod.isConstructor();
+			InferenceResultCache.Key cacheKey = null;
+			if (!isDiamond && previousContext == null && allArgumentsAreProper && isStandaloneInvocation(invocationSite, infCtx18, compilerOptions)) {
+				TypeBinding expectedType = invocationSite.invocationTargetType();
+				// a poly invocation qualifies once its assignment context supplies the final target type
+				if (isPolyExpression
+						? expectedType != null && expectedType.isProperType(true) && invocationSite.getExpressionContext() == ExpressionContext.ASSIGNMENT_CONTEXT
+						: expectedType == null || expectedType.isProperType(true)) {
+					cacheKey = new InferenceResultCache.Key(originalMethod, invocationArguments, expectedType);
+					InferenceResultCache.Result cached = environment.inferenceResultCache.get(cacheKey);
+					if (cached != null) {
+						// same method, argument types and target type: reuse the solutions of the previous inference
+						infCtx18.inferenceKind = cached.inferenceKind;
+						infCtx18.stepCompleted = InferenceContext18.TYPE_INFERRED_FINAL;
+						methodSubstitute = environment.createParameterizedGenericMethod(originalMethod, cached.solutions, false, false, expectedType);
+						if (expectedType != null)
+							((Invocation) invocationSite).registerResult(expectedType, methodSubstitute);
+						MethodBinding problemMethod = methodSubstitute.boundCheck18(scope, arguments, invocationSite);
+						((Invocation) invocationSite).registerInferenceContext(methodSubstitute, infCtx18); // keep context so we can finish later
+						return problemMethod != null ? problemMethod : methodSubstitute;
+					}
+				}
+			}
 			if (arguments.length == parameters.length) {
 				infCtx18.inferenceKind = requireBoxing ? InferenceContext18.CHECK_LOOSE : InferenceContext18.CHECK_STRICT; // engine may still slip into loose mode and adjust level.
 				infCtx18.inferInvocationApplicability(originalMethod, arguments, isDiamond);
@@ -278,6 +302,8 @@ public class ParameterizedGenericMethodBinding extends ParameterizedMethodBindin
 				// assemble the solution etc:
 				TypeBinding[] solutions = infCtx18.getSolutions(typeVariables, invocationSite, result);
 				if (solutions != null) {
+					if (cacheKey != null && invocationTypeInferred && !hasReturnProblem && !infCtx18.usesUncheckedConversion)
+						environment.inferenceResultCache.put(cacheKey, solutions, infCtx18.inferenceKind);
 					methodSubstitute = scope.environment().createParameterizedGenericMethod(originalMethod, solutions, infCtx18.usesUncheckedConversion, hasReturnProblem, expectedType);
 					if (invocationSite instanceof Invocation && allArgumentsAreProper && (expectedType == null || expectedType.isProperType(true)))
 						infCtx18.forwardResults(result, (Invocation) invocationSite, methodSubstitute, expectedType);
@@ -319,6 +345,29 @@ public class ParameterizedGenericMethodBinding extends ParameterizedMethodBindin
 		}
 	}
 
+	/**
+	 * Answer whether inference for the given site only depends on the method, the argument types and the target type,
+	 * so that its outcome can be shared through {@link LookupEnvironment#inferenceResultCache}.
+	 */
+	private static boolean isStandaloneInvocation(InvocationSite invocationSite, InferenceContext18 infCtx18, CompilerOptions compilerOptions) {
+		if (!(invocationSite instanceof Invocation) || infCtx18.outerContext != null)
+			return false;
+		if (compilerOptions.isAnnotationBasedNullAnalysisEnabled)
+			return false;
+		Expression[] invocationArguments = ((Invocation) invocationSite).arguments();
+		if (invocationArguments != null) {
+			for (Expression argument : invocationArguments) {
+				try {
+					if (argument.getPolyExpressions().length > 0)
+						return false;
+				} catch (UnsupportedOperationException e) {
+					return false; // not yet resolved
+				}
+			}
+		}
+		return true;
+	}
+
 	MethodBinding boundCheck18(Scope scope, TypeBinding[] arguments, InvocationSite site) {
 		Substitution substitution = this;
 		ParameterizedGenericMethodBinding methodSubstitute = this;
@@ -473,6 +473,8 @@ public char[] getCurrentIdentifierSource() {
 	}
 	int length = this.currentPosition - this.startPosition;
 	if (length == this.eofPosition) return this.source;
+	if (length > CharDeduplication.OPTIMIZED_LENGTH)
+		return CharDeduplication.intern(this.source, this.startPosition, this.currentPosition);
 	return this.deduplication.sharedCopyOfRange(this.source, this.startPosition, this.currentPosition);
 }
 
@@ -15,54 +15,156 @@ package org.eclipse.jdt.internal.compiler.util;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.stream.Collectors;
+import java.util.List;
 
+/**
+ * Open addressing hash map specialized to char[] keys.
+ * <p>
+ * Keys, their hash codes and values are kept in parallel arrays whose length is a power of two, collisions are
+ * resolved by linear probing. The hash code of each key is computed once and cached, so that probing only compares
+ * the characters of keys with the same hash code and growing the table never rehashes a key.
+ * </p><p>
+ * Lookups do not modify the map: once it is no longer written to, it can be shared with concurrent readers provided
+ * it was safely published. This class is not thread safe otherwise, callers are responsible for thread safety.
+ * </p>
+ */
 public final class CharArrayHashMap<V> implements CharArrayMapper<V>, Serializable {
-	private static final long serialVersionUID = -4247853285180184851L;
+	private static final long serialVersionUID = 5180539364406346373L;
 
-	// Constructing the intermediate CharArray is little overhead on each get().
-	// Would be slightly better to have a HashMap specialization to char[] keys.
-	// However this implementation is only used for large maps where algorithmic overhead dominates.
-	private final HashMap<CharArray, V> map;
+	private static final int MINIMUM_CAPACITY = 8;
+	private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+	private char[] keyTable[];
+	private int hashTable[];
+	private V valueTable[];
+
+	/**
+	 * The number of key-value mappings contained in this map.
+	 */
+	private int size;
+	/**
+	 * The size above which the tables are grown, half of their length.
+	 */
+	private int threshold;
 
 	public CharArrayHashMap(int initialCapacity) {
-		this.map = new HashMap<>(initialCapacity);
+		int capacity = MINIMUM_CAPACITY;
+		while (capacity < MAXIMUM_CAPACITY && capacity / 2 < initialCapacity) {
+			capacity <<= 1;
+		}
+		allocate(capacity);
+	}
+
+	private void allocate(int capacity) {
+		this.keyTable = new char[capacity][];
+		this.hashTable = new int[capacity];
+		@SuppressWarnings("unchecked")
+		V[] x = (V[]) new Object[capacity];
+		this.valueTable = x;
+		this.threshold = capacity / 2;
+	}
+
+	private static int hash(char[] key) {
+		int h = Arrays.hashCode(key);
+		return h ^ (h >>> 16); // spread the high bits, the table index only uses the low ones
+	}
+
+	/**
+	 * @return the slot holding the given key, or the empty slot where it would be inserted
+	 */
+	private int indexOf(char[] key, int hash) {
+		char[][] keys = this.keyTable;
+		int mask = keys.length - 1;
+		int index = hash & mask;
+		char[] currentKey;
+		while ((currentKey = keys[index]) != null) {
+			if (this.hashTable[index] == hash && Arrays.equals(currentKey, key))
+				return index;
+			index = (index + 1) & mask;
+		}
+		return index;
 	}
 
 	@Override
 	public Collection<V> values() {
-		return new ArrayList<>(this.map.values());
+		List<V> values = new ArrayList<>(this.size);
+		for (int i = 0; i < this.keyTable.length; i++) {
+			if (this.keyTable[i] != null)
+				values.add(this.valueTable[i]);
+		}
+		return values;
 	}
 
 	@Override
 	public Collection<char[]> keys() {
-		return this.map.keySet().stream().map(s -> s.getKey()).collect(Collectors.toList());
+		List<char[]> keys = new ArrayList<>(this.size);
+		for (char[] key : this.keyTable) {
+			if (key != null)
+				keys.add(key);
+		}
+		return keys;
 	}
 
 	@Override
 	public boolean containsKey(char[] key) {
-		return this.map.containsKey(new CharArray(key));
+		return this.keyTable[indexOf(key, hash(key))] != null;
 	}
 
 	@Override
 	public V get(char[] key) {
-		return this.map.get(new CharArray(key));
+		return this.valueTable[indexOf(key, hash(key))];
 	}
 
 	@Override
 	public V put(char[] key, V value) {
-		return this.map.put(new CharArray(key), value);
+		int hash = hash(key);
+		int index = indexOf(key, hash);
+		if (this.keyTable[index] != null) {
+			V previous = this.valueTable[index];
+			this.valueTable[index] = value;
+			return previous;
+		}
+		this.keyTable[index] = key;
+		this.hashTable[index] = hash;
+		this.valueTable[index] = value;
+		if (++this.size > this.threshold)
+			grow();
+		return null;
+	}
+
+	private void grow() {
+		char[][] oldKeys = this.keyTable;
+		int[] oldHashes = this.hashTable;
+		V[] oldValues = this.valueTable;
+		if (oldKeys.length >= MAXIMUM_CAPACITY) {
+			this.threshold = MAXIMUM_CAPACITY - 1; // keep at least one empty slot to end probing
+			return;
+		}
+		allocate(oldKeys.length << 1);
+		int mask = this.keyTable.length - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			char[] key = oldKeys[i];
+			if (key == null)
+				continue;
+			int index = oldHashes[i] & mask;
+			while (this.keyTable[index] != null) {
+				index = (index + 1) & mask;
+			}
+			this.keyTable[index] = key;
+			this.hashTable[index] = oldHashes[i];
+			this.valueTable[index] = oldValues[i];
+		}
 	}
 
 	@Override
 	public int size() {
-		return this.map.size();
+		return this.size;
 	}
 
 	@Override
 	public String toString() {
 		return CharArrayMapper.toString(this);
 	}
-}
\ No newline at end of file
+}
@@ -17,6 +17,7 @@ package org.eclipse.jdt.internal.compiler.util;
 
 import java.lang.ref.SoftReference;
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Supplier;
 
 public class CharDeduplication {
@@ -73,6 +74,118 @@ public class CharDeduplication {
 		return mutableCache.get().get();
 	}
 
+	// ----- global part (thread safe): ----
+
+	/**
+	 * System property giving the number of entries of the global tier, see {@link #intern(char[], int, int)}.
+	 * The value is rounded up to a power of two, 0 disables the global tier.
+	 */
+	public static final String GLOBAL_TABLE_SIZE_PROPERTY = "jdt.compiler.charDeduplication.globalTableSize"; //$NON-NLS-1$
+	public static final int DEFAULT_GLOBAL_TABLE_SIZE = 8192;
+	/** longer arrays are not worth the hashing, they are rarely repeated **/
+	public static final int GLOBAL_MAX_LENGTH = 64;
+
+	private static final AtomicReferenceArray<char[]> globalTable = newGlobalTable(
+			Integer.getInteger(GLOBAL_TABLE_SIZE_PROPERTY, DEFAULT_GLOBAL_TABLE_SIZE).intValue());
+
+	static AtomicReferenceArray<char[]> newGlobalTable(int size) {
+		if (size <= 0)
+			return null;
+		int capacity = 2; // entries go by pairs
+		while (capacity < size && capacity < (1 << 24))
+			capacity <<= 1;
+		return new AtomicReferenceArray<>(capacity);
+	}
+
+	/**
+	 * like Arrays.copyOfRange(source, from, to) but returns an instance shared by all threads if available.
+	 * <p>
+	 * Unlike {@link #sharedCopyOfRange(char[], int, int)} this is not limited to short arrays: the global tier is a
+	 * fixed size table of {@link #GLOBAL_MAX_LENGTH} long arrays at most, where an entry only competes with the
+	 * one other entry of its pair. Lookups take no lock, an evicted entry is simply forgotten.
+	 * </p>
+	 *
+	 * @param from
+	 *                 start index (inclusive)
+	 * @param to
+	 *                 end index (exclusive)
+	 * @return source[from..to-1]
+	 * @see java.util.Arrays#copyOfRange(char[], int, int)
+	 **/
+	public static char[] intern(char[] source, int from, int to) {
+		AtomicReferenceArray<char[]> table = globalTable;
+		if (table == null || to - from > GLOBAL_MAX_LENGTH)
+			return Arrays.copyOfRange(source, from, to);
+		int index = globalIndex(table, source, from, to);
+		char[] shared = sharedAt(table, index, source, from, to);
+		if (shared != null)
+			return shared;
+		return put(table, index, Arrays.copyOfRange(source, from, to));
+	}
+
+	/**
+	 * @return an instance equal to the given array shared by all threads, the given array itself becomes the shared
+	 *         instance if there was none
+	 * @see #intern(char[], int, int)
+	 **/
+	public static char[] intern(char[] array) {
+		AtomicReferenceArray<char[]> table = globalTable;
+		if (table == null || array.length > GLOBAL_MAX_LENGTH)
+			return array;
+		int index = globalIndex(table, array, 0, array.length);
+		char[] shared = sharedAt(table, index, array, 0, array.length);
+		if (shared != null)
+			return shared;
+		return put(table, index, array);
+	}
+
+	/**
+	 * @return the instance equal to the given array shared by all threads, or null if none
+	 * @see #intern(char[], int, int)
+	 **/
+	public static char[] getShared(char[] array) {
+		AtomicReferenceArray<char[]> table = globalTable;
+		if (table == null || array.length > GLOBAL_MAX_LENGTH)
+			return null;
+		return sharedAt(table, globalIndex(table, array, 0, array.length), array, 0, array.length);
+	}
+
+	private static int globalIndex(AtomicReferenceArray<char[]> table, char[] source, int from, int to) {
+		int hash = 1;
+		for (int i = from; i < to; i++)
+			hash = 31 * hash + source[i];
+		hash ^= hash >>> 16;
+		return hash & (table.length() - 2); // the first entry of the pair
+	}
+
+	private static char[] sharedAt(AtomicReferenceArray<char[]> table, int index, char[] source, int from, int to) {
+		char[] entry = table.get(index);
+		if (entry != null && Arrays.equals(entry, 0, entry.length, source, from, to))
+			return entry;
+		entry = table.get(index + 1);
+		if (entry != null && Arrays.equals(entry, 0, entry.length, source, from, to))
+			return entry;
+		return null;
+	}
+
+	private static char[] put(AtomicReferenceArray<char[]> table, int index, char[] array) {
+		// the newest entry comes first, the former first entry replaces the second one.
+		// Concurrent puts may lose entries, which only costs a later copy
+		table.lazySet(index + 1, table.get(index));
+		table.lazySet(index, array);
+		return array;
+	}
+
+	/** public for test purpose only **/
+	@Deprecated
+	public static void resetGlobal() {
+		AtomicReferenceArray<char[]> table = globalTable;
+		if (table != null) {
+			for (int i = 0; i < table.length(); i++)
+				table.set(i, null);
+		}
+	}
+
 	// ----- mutable non-static part (not thread safe!): ----
 
 	/** single threaded only **/
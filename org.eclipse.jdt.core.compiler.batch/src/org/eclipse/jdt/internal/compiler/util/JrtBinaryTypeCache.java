@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.compiler.util;
+
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import org.eclipse.jdt.core.compiler.CharOperation;
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFileReader;
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFormatException;
+
+/**
+ * VM wide tier of the class files of JDK images, shared by all the name environments reading from the same image
+ * and <code>--release</code> combination.
+ * <p>
+ * The cache is opt-in: it is only used when the system property {@value #ENABLED_PROPERTY} is <code>true</code>.
+ * It keeps the bytes of the class files read from an image and the module declaring them, so that the name
+ * environments do not look up and read <code>java.lang.Object</code> and friends again from the image or from
+ * <code>ct.sym</code>. Readers are not shared: clients modify the names answered by a reader in place, so each
+ * request is answered by a new reader of the cached bytes.
+ * </p><p>
+ * The class files of an image are kept in a least recently used cache of at most {@value #SIZE_PROPERTY} entries
+ * (default {@value #DEFAULT_SIZE}), itself only softly reachable so that it is dropped when memory runs low.
+ * </p><p>
+ * An entry is keyed by the class file name only: a JDK image never declares the same package in two modules.
+ * An entry whose module is not the one asked for, or not accepted by the module filter of the caller, is answered
+ * by the caller's own lookup instead.
+ * </p>
+ */
+public final class JrtBinaryTypeCache {
+
+	public static final String ENABLED_PROPERTY = "jdt.compiler.sharedJrtTypes"; //$NON-NLS-1$
+	public static final String SIZE_PROPERTY = "jdt.compiler.sharedJrtTypes.size"; //$NON-NLS-1$
+	public static final int DEFAULT_SIZE = 4096;
+
+	/**
+	 * Reads a class file from an image, answers null if it does not exist.
+	 */
+	public interface Loader {
+		ClassFileReader load() throws IOException, ClassFormatException;
+	}
+
+	private static final class Entry {
+		final byte[] bytes;
+		final char[] fileName;
+		final char[] moduleName;
+
+		Entry(byte[] bytes, char[] fileName, char[] moduleName) {
+			this.bytes = bytes;
+			this.fileName = fileName;
+			this.moduleName = moduleName;
+		}
+	}
+
+	private static final class ImageCache extends LinkedHashMap<String, Entry> {
+		private static final long serialVersionUID = 1L;
+		private final int size;
+
+		ImageCache(int size) {
+			super(16, 0.75f, true /* access order */);
+			this.size = size;
+		}
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+			return size() > this.size;
+		}
+	}
+
+	private static final JrtBinaryTypeCache SHARED = Boolean.getBoolean(ENABLED_PROPERTY)
+			? new JrtBinaryTypeCache(Math.max(1, Integer.getInteger(SIZE_PROPERTY, DEFAULT_SIZE).intValue()))
+			: null;
+
+	private final int imageSize;
+	private final Map<String, SoftReference<ImageCache>> images = new ConcurrentHashMap<>();
+
+	/**
+	 * Create a cache keeping at most the given number of class files per image.
+	 */
+	public JrtBinaryTypeCache(int imageSize) {
+		this.imageSize = imageSize;
+	}
+
+	/**
+	 * Answer a reader of the given class file from the shared cache, reading it with the given loader if it is not
+	 * cached. When the cache is disabled, this is the same as calling the loader.
+	 *
+	 * @param image identifies the image and the release the class file is read from
+	 * @param fileName the qualified binary file name of the class
+	 * @param moduleName the module expected to declare the class, or null if any
+	 * @param moduleNameFilter the modules the caller can read from when <code>moduleName</code> is null, or null if all
+	 * @param loader reads the class file when the cache can not answer it
+	 */
+	public static ClassFileReader getClassfile(String image, String fileName, String moduleName, Predicate<String> moduleNameFilter,
+			Loader loader) throws IOException, ClassFormatException {
+		if (SHARED == null)
+			return loader.load();
+		return SHARED.getReader(image, fileName, moduleName, moduleNameFilter, loader);
+	}
+
+	/**
+	 * Answer a new reader of the given class file, reading it with the given loader if it is not cached.
+	 *
+	 * @see #getClassfile(String, String, String, Predicate, Loader)
+	 */
+	public ClassFileReader getReader(String image, String fileName, String moduleName, Predicate<String> moduleNameFilter,
+			Loader loader) throws IOException, ClassFormatException {
+		ImageCache cache = getImageCache(image);
+		Entry entry;
+		synchronized (cache) {
+			entry = cache.get(fileName);
+		}
+		if (entry != null) {
+			if (!accepts(entry.moduleName, moduleName, moduleNameFilter))
+				return loader.load();
+			ClassFileReader reader = new ClassFileReader(entry.bytes, entry.fileName.clone());
+			reader.moduleName = entry.moduleName == null ? null : entry.moduleName.clone();
+			return reader;
+		}
+		ClassFileReader reader = loader.load();
+		byte[] bytes = reader == null ? null : reader.getReferenceBytes();
+		if (bytes == null)
+			return reader;
+		entry = new Entry(bytes, reader.getFileName().clone(), reader.moduleName == null ? null : reader.moduleName.clone());
+		synchronized (cache) {
+			cache.putIfAbsent(fileName, entry);
+		}
+		return reader;
+	}
+
+	private ImageCache getImageCache(String image) {
+		SoftReference<ImageCache> reference = this.images.get(image);
+		ImageCache cache = reference == null ? null : reference.get();
+		if (cache == null) {
+			synchronized (this.images) {
+				reference = this.images.get(image);
+				cache = reference == null ? null : reference.get();
+				if (cache == null) {
+					cache = new ImageCache(this.imageSize);
+					this.images.put(image, new SoftReference<>(cache));
+				}
+			}
+		}
+		return cache;
+	}
+
+	private static boolean accepts(char[] readerModule, String moduleName, Predicate<String> moduleNameFilter) {
+		if (moduleName != null)
+			return readerModule != null && CharOperation.equals(readerModule, moduleName.toCharArray());
+		return moduleNameFilter == null || (readerModule != null && moduleNameFilter.test(String.valueOf(readerModule)));
+	}
+
+	/**
+	 * Answer the number of class files cached for the given image.
+	 */
+	public int size(String image) {
+		SoftReference<ImageCache> reference = this.images.get(image);
+		ImageCache cache = reference == null ? null : reference.get();
+		if (cache == null)
+			return 0;
+		synchronized (cache) {
+			return cache.size();
+		}
+	}
+
+	/**
+	 * Forget all the cached class files.
+	 */
+	public void clear() {
+		this.images.clear();
+	}
+
+	/**
+	 * Forget all the shared class files, for instance after a JDK was updated in place.
+	 */
+	public static void reset() {
+		if (SHARED != null)
+			SHARED.clear();
+	}
+}
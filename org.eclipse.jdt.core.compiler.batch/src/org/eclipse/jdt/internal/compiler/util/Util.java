@@ -985,6 +985,14 @@ public class Util implements SuffixConstants {
 			throw e;
 		}
 	}
+	/**
+	 * Writes the given class file bytes to disk, see {@link #writeToDisk(boolean, String, String, ClassFile)}.
+	 */
+	public static void writeToDisk(boolean generatePackagesStructure, String outputPath, String relativeFileName, byte[] bytes) throws IOException {
+		try (FileOutputStream output = getFileOutputStream(generatePackagesStructure, outputPath, relativeFileName)) {
+			output.write(bytes);
+		}
+	}
 	@SuppressWarnings({ "rawtypes", "unchecked" })
 	public static void recordNestedType(ClassFile classFile, TypeBinding typeBinding) {
 		if (classFile.visitedTypes == null) {
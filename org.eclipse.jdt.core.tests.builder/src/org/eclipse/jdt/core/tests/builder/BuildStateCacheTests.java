@@ -0,0 +1,191 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.core.tests.builder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import junit.framework.Test;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.tests.util.Util;
+
+/**
+ * Full builds seeded from the build state cache enabled by <code>org.eclipse.jdt.core.builder.stateCache</code>.
+ */
+public class BuildStateCacheTests extends BuilderTests {
+
+	private static final String DIRECTORY_PROPERTY = "org.eclipse.jdt.core.builder.stateCache";
+
+	private File cacheDirectory;
+	private String previousDirectory;
+
+	public BuildStateCacheTests(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return buildTestSuite(BuildStateCacheTests.class);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		this.cacheDirectory = Files.createTempDirectory("BuildStateCacheTests").toFile();
+		this.previousDirectory = System.setProperty(DIRECTORY_PROPERTY, this.cacheDirectory.getPath());
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		if (this.previousDirectory == null)
+			System.clearProperty(DIRECTORY_PROPERTY);
+		else
+			System.setProperty(DIRECTORY_PROPERTY, this.previousDirectory);
+		Util.delete(this.cacheDirectory);
+		super.tearDown();
+	}
+
+	private int cacheEntries() {
+		int count = 0;
+		for (File entry : this.cacheDirectory.listFiles())
+			if (entry.isDirectory() && !entry.getName().endsWith(".tmp"))
+				count++;
+		return count;
+	}
+
+	private IPath addProject() throws CoreException {
+		IPath projectPath = env.addProject("Project");
+		env.addExternalJars(projectPath, Util.getJavaClassLibs());
+		env.removePackageFragmentRoot(projectPath, "");
+		IPath root = env.addPackageFragmentRoot(projectPath, "src");
+		env.setOutputFolder(projectPath, "bin");
+		addX(root, "1");
+		env.addClass(root, "p", "Y",
+			"package p;\n" +
+			"public class Y {\n" +
+			"	int bar() { return new X().foo(); }\n" +
+			"}\n");
+		return projectPath;
+	}
+
+	private void addX(IPath root, String value) {
+		env.addClass(root, "p", "X",
+			"package p;\n" +
+			"public class X {\n" +
+			"	public int foo() { return " + value + "; }\n" +
+			"}\n");
+	}
+
+	private void createLib(IPath projectPath, String contents) throws IOException, CoreException {
+		String libPath = env.getProject(projectPath).getLocation().toOSString() + File.separator + "lib.jar";
+		File lib = new File(libPath);
+		long lastModified = lib.lastModified();
+		Util.createJar(
+			new String[] {
+				"q/Z.java",
+				"package q;\n" +
+				"public class Z {\n" +
+				contents +
+				"}\n"
+			},
+			libPath,
+			"1.4");
+		if (lastModified != 0)
+			lib.setLastModified(lastModified + 2000); // seen as changed even on a file system with a coarse timestamp
+		env.getProject(projectPath).refreshLocal(IResource.DEPTH_INFINITE, null);
+	}
+
+	/*
+	 * A full build of the same sources and classpath imports the cached entry instead of compiling.
+	 */
+	public void testKeyStability() throws CoreException {
+		IPath projectPath = addProject();
+		fullBuild(projectPath);
+		expectingNoProblems();
+		expectingCompiledClasses(new String[] {"p.X", "p.Y"});
+		assertEquals("Wrong number of entries", 1, cacheEntries());
+
+		fullBuild(projectPath);
+		expectingNoProblems();
+		expectingCompiledClasses(new String[] {});
+		expectingPresenceOf(new IPath[] {projectPath.append("bin/p/X.class"), projectPath.append("bin/p/Y.class")});
+		assertEquals("Wrong number of entries", 1, cacheEntries());
+		env.removeProject(projectPath);
+	}
+
+	public void testSourceChange() throws CoreException {
+		IPath projectPath = addProject();
+		IPath root = projectPath.append("src");
+		fullBuild(projectPath);
+		expectingCompiledClasses(new String[] {"p.X", "p.Y"});
+
+		addX(root, "2");
+		fullBuild(projectPath);
+		expectingNoProblems();
+		expectingCompiledClasses(new String[] {"p.X", "p.Y"});
+		assertEquals("Wrong number of entries", 2, cacheEntries());
+
+		// back to the sources of the first entry
+		addX(root, "1");
+		fullBuild(projectPath);
+		expectingNoProblems();
+		expectingCompiledClasses(new String[] {});
+		assertEquals("Wrong number of entries", 2, cacheEntries());
+		env.removeProject(projectPath);
+	}
+
+	public void testJarChange() throws CoreException, IOException {
+		IPath projectPath = addProject();
+		createLib(projectPath, "");
+		env.addEntry(projectPath, JavaCore.newLibraryEntry(new Path("/Project/lib.jar"), null, null));
+		fullBuild(projectPath);
+		expectingNoProblems();
+		expectingCompiledClasses(new String[] {"p.X", "p.Y"});
+		assertEquals("Wrong number of entries", 1, cacheEntries());
+
+		createLib(projectPath, "	public void foo() {}\n");
+		fullBuild(projectPath);
+		expectingNoProblems();
+		expectingCompiledClasses(new String[] {"p.X", "p.Y"});
+		assertEquals("Wrong number of entries", 2, cacheEntries());
+		env.removeProject(projectPath);
+	}
+
+	/*
+	 * A fresh project with the same layout and sources starts from the cached entry, then builds incrementally.
+	 */
+	public void testImport() throws CoreException {
+		IPath projectPath = addProject();
+		fullBuild(projectPath);
+		expectingCompiledClasses(new String[] {"p.X", "p.Y"});
+		env.removeProject(projectPath);
+
+		projectPath = addProject();
+		fullBuild(projectPath);
+		expectingNoProblems();
+		expectingCompiledClasses(new String[] {});
+		expectingPresenceOf(new IPath[] {projectPath.append("bin/p/X.class"), projectPath.append("bin/p/Y.class")});
+
+		addX(projectPath.append("src"), "2");
+		incrementalBuild(projectPath);
+		expectingNoProblems();
+		expectingCompiledClasses(new String[] {"p.X"});
+		env.removeProject(projectPath);
+	}
+}
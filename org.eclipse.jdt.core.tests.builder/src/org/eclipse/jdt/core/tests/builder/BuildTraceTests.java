@@ -0,0 +1,258 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.core.tests.builder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import junit.framework.Test;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.tests.util.Util;
+import org.eclipse.jdt.internal.core.builder.JavaBuilder;
+
+/**
+ * The timeline of the phases of a project build, written when <code>org.eclipse.jdt.core/debug/builder/trace</code>
+ * is set.
+ */
+public class BuildTraceTests extends BuilderTests {
+
+	private static final Pattern PROCESS_NAME = Pattern.compile(
+			"\\{\"name\":\"process_name\",\"ph\":\"M\",\"pid\":(\\d+),\"args\":\\{\"name\":\"([^\"]*)\"\\}\\},");
+	private static final Pattern EVENT = Pattern.compile(
+			"\\{\"name\":\"([^\"]*)\",\"cat\":\"([^\"]*)\",\"ph\":\"X\",\"pid\":(\\d+),\"tid\":\\d+,\"ts\":(-?\\d+),\"dur\":(\\d+)(?:,\"args\":\\{(.*)\\})?\\},?");
+
+	private boolean trace;
+
+	static class Event {
+		final String name;
+		final String category;
+		final int process;
+		final long start;
+		final long end;
+		final String arguments;
+
+		Event(Matcher matcher) {
+			this.name = matcher.group(1);
+			this.category = matcher.group(2);
+			this.process = Integer.parseInt(matcher.group(3));
+			this.start = Long.parseLong(matcher.group(4));
+			this.end = this.start + Long.parseLong(matcher.group(5));
+			this.arguments = matcher.group(6) == null ? "" : matcher.group(6);
+		}
+
+		// times are truncated to microseconds, so the end of an event is known to 2 microseconds
+		boolean contains(Event event) {
+			return this.start <= event.start && event.end <= this.end + 2;
+		}
+
+		boolean before(Event event) {
+			return this.end <= event.start + 1;
+		}
+	}
+
+	public BuildTraceTests(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return buildTestSuite(BuildTraceTests.class);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		this.trace = JavaBuilder.TRACE;
+		JavaBuilder.TRACE = true;
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		JavaBuilder.TRACE = this.trace;
+		super.tearDown();
+	}
+
+	private File traceFile(IPath projectPath) {
+		return env.getProject(projectPath).getWorkingLocation(JavaCore.PLUGIN_ID).append("build-trace.json").toFile();
+	}
+
+	/*
+	 * Answers the events of the trace of the given project, all in the process named after the project.
+	 */
+	private List<Event> readTrace(IPath projectPath) throws IOException {
+		File file = traceFile(projectPath);
+		assertTrue("Missing trace", file.exists());
+		List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+		assertEquals("Wrong start", "{\"traceEvents\":[", lines.get(0));
+		Matcher processName = PROCESS_NAME.matcher(lines.get(1));
+		assertTrue("Unexpected process name " + lines.get(1), processName.matches());
+		assertEquals("Wrong process name", projectPath.lastSegment(), processName.group(2));
+		int process = Integer.parseInt(processName.group(1));
+		assertEquals("Wrong end", "]}", lines.get(lines.size() - 1));
+		List<Event> events = new ArrayList<>();
+		for (String line : lines.subList(2, lines.size() - 1)) {
+			Matcher matcher = EVENT.matcher(line);
+			assertTrue("Unexpected event " + line, matcher.matches());
+			Event event = new Event(matcher);
+			assertEquals("Wrong process of " + event.name, process, event.process);
+			events.add(event);
+		}
+		return events;
+	}
+
+	private static List<Event> events(List<Event> events, String name) {
+		List<Event> result = new ArrayList<>();
+		for (Event event : events)
+			if (event.name.equals(name))
+				result.add(event);
+		return result;
+	}
+
+	private static Event event(List<Event> events, String name) {
+		List<Event> result = events(events, name);
+		assertEquals("Wrong number of " + name + " events", 1, result.size());
+		return result.get(0);
+	}
+
+	private IPath addProject() {
+		return addProject("Project");
+	}
+
+	private IPath addProject(String projectName) {
+		IPath projectPath = env.addProject(projectName);
+		env.addExternalJars(projectPath, Util.getJavaClassLibs());
+		env.removePackageFragmentRoot(projectPath, "");
+		IPath root = env.addPackageFragmentRoot(projectPath, "src");
+		env.setOutputFolder(projectPath, "bin");
+		env.addClass(root, "p", "X",
+			"package p;\n" +
+			"public class X {\n" +
+			"	class Inner {}\n" +
+			"}\n");
+		env.addClass(root, "p", "Y",
+			"package p;\n" +
+			"public class Y {\n" +
+			"	X x;\n" +
+			"}\n");
+		return projectPath;
+	}
+
+	/*
+	 * The phases of a full build, with the phases of each unit nested in the compile phase which produced it.
+	 */
+	public void testFullBuild() throws IOException {
+		IPath projectPath = addProject();
+		fullBuild(projectPath);
+		expectingNoProblems();
+
+		List<Event> events = readTrace(projectPath);
+		Event build = event(events, "build");
+		assertEquals("Wrong category", "builder", build.category);
+		for (Event event : events)
+			assertTrue(event.name + " not within the build", build.contains(event));
+		Event initialize = event(events, "initialize");
+		Event fullBuild = event(events, "fullBuild");
+		assertTrue("Build initialized after the full build", initialize.before(fullBuild));
+		assertEquals("Wrong arguments", "\"group\":\"MAIN\"", fullBuild.arguments);
+		assertEquals("Unexpected incremental build", 0, events(events, "incrementalBuild").size());
+
+		Event compile = event(events, "compile");
+		assertTrue("Compile not within the full build", fullBuild.contains(compile));
+		assertEquals("Wrong arguments", "\"units\":2,\"firstGroup\":true", compile.arguments);
+		List<Event> updateProblems = events(events, "updateProblems");
+		List<Event> writeClassFiles = events(events, "writeClassFiles");
+		assertEquals("Wrong number of units", 2, updateProblems.size());
+		assertEquals("Wrong number of units", 2, writeClassFiles.size());
+		for (Event event : writeClassFiles) {
+			assertTrue("Unit not within the compile", compile.contains(event));
+			assertEquals("Wrong category", "unit", event.category);
+		}
+		List<String> arguments = new ArrayList<>();
+		for (Event event : writeClassFiles)
+			arguments.add(event.arguments);
+		assertTrue("Missing X: " + arguments, arguments.contains("\"unit\":\"src/p/X.java\",\"classFiles\":2"));
+		assertTrue("Missing Y: " + arguments, arguments.contains("\"unit\":\"src/p/Y.java\",\"classFiles\":1"));
+		env.removeProject(projectPath);
+	}
+
+	/*
+	 * An incremental build replaces the trace of the previous build.
+	 */
+	public void testIncrementalBuild() throws IOException {
+		IPath projectPath = addProject();
+		fullBuild(projectPath);
+		expectingNoProblems();
+
+		env.addClass(projectPath.append("src"), "p", "Y",
+			"package p;\n" +
+			"public class Y {\n" +
+			"	X x;\n" +
+			"	int i;\n" +
+			"}\n");
+		incrementalBuild(projectPath);
+		expectingNoProblems();
+		List<Event> events = readTrace(projectPath);
+		Event findDeltas = event(events, "findDeltas");
+		Event incrementalBuild = event(events, "incrementalBuild");
+		assertTrue("Deltas found after the incremental build", findDeltas.before(incrementalBuild));
+		assertEquals("Wrong arguments", "\"deltas\":1", incrementalBuild.arguments);
+		assertEquals("Unexpected full build", 0, events(events, "fullBuild").size());
+		assertTrue("Compile not within the incremental build", incrementalBuild.contains(event(events, "compile")));
+		assertEquals("Wrong arguments", "\"unit\":\"src/p/Y.java\",\"classFiles\":1", event(events, "writeClassFiles").arguments);
+		env.removeProject(projectPath);
+	}
+
+	/*
+	 * The projects of one build are in separate processes, each kept by the later builds of its project.
+	 */
+	public void testProjects() throws IOException {
+		IPath first = addProject("First");
+		IPath second = addProject("Second");
+		fullBuild();
+		expectingNoProblems();
+		int firstProcess = event(readTrace(first), "build").process;
+		int secondProcess = event(readTrace(second), "build").process;
+		assertTrue("Projects in the same process", firstProcess != secondProcess);
+
+		env.addClass(first.append("src"), "p", "Y",
+			"package p;\n" +
+			"public class Y {\n" +
+			"	int i;\n" +
+			"}\n");
+		incrementalBuild(first);
+		expectingNoProblems();
+		assertEquals("Wrong process", firstProcess, event(readTrace(first), "build").process);
+		env.removeProject(first);
+		env.removeProject(second);
+	}
+
+	/*
+	 * No trace is written unless the option is set.
+	 */
+	public void testNoTrace() {
+		JavaBuilder.TRACE = false;
+		IPath projectPath = addProject();
+		fullBuild(projectPath);
+		expectingNoProblems();
+		assertFalse("Unexpected trace", traceFile(projectPath).exists());
+		env.removeProject(projectPath);
+	}
+}
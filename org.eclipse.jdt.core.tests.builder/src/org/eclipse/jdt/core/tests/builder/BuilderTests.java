@@ -538,6 +538,10 @@ public class BuilderTests extends TestCase {
 			ReferenceCollectionTest.class,
 			StateTest.class,
 			CompressedWriterTest.class,
+			CompileBatchSizerTest.class,
+			BuildStateCacheTests.class,
+			ParallelBuildTests.class,
+			BuildTraceTests.class,
 			TestAttributeBuilderTests.class,
 			Bug530366Test.class,
 			Bug531382Test.class,
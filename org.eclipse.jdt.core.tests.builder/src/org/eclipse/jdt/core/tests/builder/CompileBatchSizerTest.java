@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.core.tests.builder;
+
+import static org.eclipse.jdt.internal.core.builder.CompileBatchSizer.INITIAL_UNIT_FOOTPRINT;
+import static org.eclipse.jdt.internal.core.builder.CompileBatchSizer.MIN_AT_ONCE;
+import static org.eclipse.jdt.internal.core.builder.CompileBatchSizer.MIN_MEASURED_UNITS;
+import static org.eclipse.jdt.internal.core.builder.CompileBatchSizer.averageFootprint;
+import static org.eclipse.jdt.internal.core.builder.CompileBatchSizer.batchSize;
+import static org.eclipse.jdt.internal.core.builder.CompileBatchSizer.footprintSample;
+import static org.eclipse.jdt.internal.core.builder.CompileBatchSizer.headroom;
+
+import junit.framework.Test;
+
+public class CompileBatchSizerTest extends BuilderTests {
+
+	private static final long MB = 1024 * 1024;
+
+	public CompileBatchSizerTest(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return buildTestSuite(CompileBatchSizerTest.class);
+	}
+
+	public void testBatchSize() {
+		// half of the heap left is used
+		assertEquals(2000, batchSize(1024 * MB, INITIAL_UNIT_FOOTPRINT, 2000, 5000));
+		assertEquals(1000, batchSize(500 * MB, INITIAL_UNIT_FOOTPRINT, 2000, 5000));
+		assertEquals(500, batchSize(500 * MB, 2 * INITIAL_UNIT_FOOTPRINT, 2000, 5000));
+		// never more than the units left
+		assertEquals(300, batchSize(1024 * MB, INITIAL_UNIT_FOOTPRINT, 2000, 300));
+	}
+
+	public void testBatchSizeLimits() {
+		// no fewer than MIN_AT_ONCE, even when the heap is short
+		assertEquals(MIN_AT_ONCE, batchSize(MB, INITIAL_UNIT_FOOTPRINT, 2000, 5000));
+		assertEquals(MIN_AT_ONCE, batchSize(-MB, INITIAL_UNIT_FOOTPRINT, 2000, 5000));
+		// unless MAX_AT_ONCE is lower
+		assertEquals(10, batchSize(MB, INITIAL_UNIT_FOOTPRINT, 10, 5000));
+		assertEquals(10, batchSize(1024 * MB, INITIAL_UNIT_FOOTPRINT, 10, 5000));
+		// 0 means no limit
+		assertEquals(5000, batchSize(MB, INITIAL_UNIT_FOOTPRINT, 0, 5000));
+		// a footprint of 0 does not divide by 0
+		assertEquals(2000, batchSize(MB, 0, 2000, 5000));
+	}
+
+	public void testHeadroom() {
+		// the garbage waiting to be collected is not counted
+		assertEquals(768 * MB, headroom(1024 * MB, 256 * MB, 900 * MB));
+		assertEquals(1024 * MB, headroom(1024 * MB, 0, 900 * MB)); // before the first collection
+		// the heap in use is only counted when the retained heap is not known
+		assertEquals(124 * MB, headroom(1024 * MB, -1, 900 * MB));
+	}
+
+	public void testFootprintSample() {
+		assertEquals(MB, footprintSample(100 * MB, 300 * MB, 200));
+		// the heap retained may shrink while a group is compiled
+		assertEquals(0, footprintSample(300 * MB, 100 * MB, 200));
+		// small groups are not measured
+		assertEquals(-1, footprintSample(100 * MB, 300 * MB, MIN_MEASURED_UNITS - 1));
+		assertEquals(4 * MB, footprintSample(100 * MB, 300 * MB, MIN_MEASURED_UNITS));
+		// nor are groups when the retained heap is not known
+		assertEquals(-1, footprintSample(-1, 300 * MB, 200));
+		assertEquals(-1, footprintSample(100 * MB, -1, 200));
+	}
+
+	public void testAverageFootprint() {
+		assertEquals(INITIAL_UNIT_FOOTPRINT, averageFootprint(INITIAL_UNIT_FOOTPRINT, INITIAL_UNIT_FOOTPRINT));
+		assertEquals(3 * MB / 4, averageFootprint(MB, 0));
+		assertEquals(5 * MB / 4, averageFootprint(MB, 2 * MB));
+		// one sample at most doubles it
+		assertEquals(2 * MB, averageFootprint(MB, 100 * MB));
+		assertEquals(1, averageFootprint(1, 0));
+	}
+
+	/**
+	 * One group retaining a lot of heap must not make the groups of the later builds small for long.
+	 */
+	public void testAverageFootprintRecovers() {
+		long shared = averageFootprint(INITIAL_UNIT_FOOTPRINT, 1024 * MB);
+		assertEquals(2 * INITIAL_UNIT_FOOTPRINT, shared);
+		assertEquals(1024, batchSize(1024 * MB, shared, 2000, 5000));
+		for (int i = 0; i < 4; i++)
+			shared = averageFootprint(shared, INITIAL_UNIT_FOOTPRINT);
+		assertEquals(1555, batchSize(1024 * MB, shared, 2000, 5000));
+		for (int i = 0; i < 10; i++)
+			shared = averageFootprint(shared, INITIAL_UNIT_FOOTPRINT);
+		assertEquals(2000, batchSize(1024 * MB, shared, 2000, 5000));
+	}
+}
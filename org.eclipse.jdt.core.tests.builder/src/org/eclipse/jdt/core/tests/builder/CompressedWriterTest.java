@@ -111,6 +111,11 @@ public class CompressedWriterTest extends BuilderTests {
 		assertSame(chars, (w, v) -> w.writeChars(v), r -> r.readChars());
 		assertSame(chars, (w, v) -> w.writeCharsUsingLast(v), r -> r.readCharsUsingLast());
 		assertSame(strings, (w, v) -> w.writeStringUsingLast(v), r -> r.readStringUsingLast());
+
+		byte[][] bytes = new byte[][] { {}, { 0 }, { 1, -1, Byte.MAX_VALUE, Byte.MIN_VALUE }, new byte[70000] };
+		for (byte[] b : bytes) {
+			assertEquals(b, (w, v) -> w.writeBytes(v), r -> r.readBytes(b.length));
+		}
 	}
 
 	@FunctionalInterface
@@ -143,6 +148,8 @@ public class CompressedWriterTest extends BuilderTests {
 	}
 
 	private Object charToStringOrSame(Object v) {
+		if (v instanceof byte[])
+			return Arrays.toString((byte[]) v);
 		return (v instanceof char[]) ? new String((char[]) v) : v;
 	}
 }
\ No newline at end of file
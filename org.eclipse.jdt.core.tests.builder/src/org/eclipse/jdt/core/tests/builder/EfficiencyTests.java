@@ -13,7 +13,13 @@
  *******************************************************************************/
 package org.eclipse.jdt.core.tests.builder;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+
 import junit.framework.*;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.tests.util.Util;
@@ -412,4 +418,118 @@ public class EfficiencyTests extends BuilderTests {
 		expectingCompilingOrder(
 				new String[] { "/Project/src/p2/Z.java", "/Project/src/p2/Y.java", "/Project/src/p1/X.java" });
 	}
+
+	private IPath addClassFileHashesProject() throws JavaModelException {
+		IPath projectPath = env.addProject("Project");
+		env.addExternalJars(projectPath, Util.getJavaClassLibs());
+		env.removePackageFragmentRoot(projectPath, "");
+		IPath root = env.addPackageFragmentRoot(projectPath, "src");
+		env.setOutputFolder(projectPath, "bin");
+		env.addClass(root, "p1", "X",
+			"package p1;\n" +
+			"public class X {\n" +
+			"	public int foo() { return 1; }\n" +
+			"}\n"
+			);
+		env.addClass(root, "p2", "Y",
+			"package p2;\n" +
+			"public class Y {\n" +
+			"	int bar() { return new p1.X().foo(); }\n" +
+			"}\n"
+			);
+		fullBuild(projectPath);
+		expectingNoProblems();
+		return projectPath;
+	}
+
+	private void changeX(IPath projectPath, String members) {
+		env.addClass(projectPath.append("src"), "p1", "X",
+			"package p1;\n" +
+			"public class X {\n" +
+			members +
+			"}\n"
+			);
+		incrementalBuild(projectPath);
+		expectingNoProblems();
+	}
+
+	/*
+	 * The class files written again by an incremental build are compared to the hashes recorded for them, or to the
+	 * previous class file the first time.
+	 */
+	public void testClassFileHashes() throws JavaModelException {
+		IPath projectPath = addClassFileHashesProject();
+		IFile classFile = env.getWorkspace().getRoot().getFile(projectPath.append("bin/p1/X.class"));
+
+		// no hashes are recorded by full builds
+		changeX(projectPath, "	public int foo() { return 2; }\n");
+		expectingCompiledClasses(new String[] {"p1.X"});
+
+		long stamp = classFile.getModificationStamp();
+		changeX(projectPath, "	public int foo() { return 3; }\n");
+		expectingCompiledClasses(new String[] {"p1.X"});
+		assertTrue("Changed class file not written", classFile.getModificationStamp() != stamp);
+
+		stamp = classFile.getModificationStamp();
+		changeX(projectPath, "	public int foo() { return 3; }\n	public void baz() {}\n");
+		expectingCompiledClasses(new String[] {"p1.X", "p2.Y"});
+		assertTrue("Changed class file not written", classFile.getModificationStamp() != stamp);
+
+		stamp = classFile.getModificationStamp();
+		changeX(projectPath, "	public int foo() { return 3; }\n");
+		expectingCompiledClasses(new String[] {"p1.X", "p2.Y"});
+		assertTrue("Changed class file not written", classFile.getModificationStamp() != stamp);
+		env.removeProject(projectPath);
+	}
+
+	public void testClassFileHashesUnchangedClassFile() throws JavaModelException {
+		IPath projectPath = addClassFileHashesProject();
+		IFile classFile = env.getWorkspace().getRoot().getFile(projectPath.append("bin/p1/X.class"));
+
+		long stamp = classFile.getModificationStamp();
+		changeX(projectPath, "	public int foo() { return 1; } // compiled to the same class file\n");
+		expectingCompiledClasses(new String[] {"p1.X"});
+		assertEquals("Unchanged class file written", stamp, classFile.getModificationStamp());
+
+		// the second time, still compared to the previous class file since no hashes were recorded for it
+		changeX(projectPath, "	public int foo() { return 1; } // still the same class file\n");
+		expectingCompiledClasses(new String[] {"p1.X"});
+		assertEquals("Unchanged class file written", stamp, classFile.getModificationStamp());
+		env.removeProject(projectPath);
+	}
+
+	/*
+	 * A class file whose hashes are recorded is not read back: its structure is known from its structural hash.
+	 */
+	public void testClassFileHashesNotReadBack() throws IOException, JavaModelException {
+		IPath projectPath = addClassFileHashesProject();
+		IFile classFile = env.getWorkspace().getRoot().getFile(projectPath.append("bin/p1/X.class"));
+
+		changeX(projectPath, "	public int foo() { return 2; }\n"); // the hashes are recorded
+		expectingCompiledClasses(new String[] {"p1.X"});
+
+		// out of sync with the workspace, reading the class file back fails and counts as a structural change
+		Files.write(classFile.getLocation().toFile().toPath(), new byte[] {0});
+		changeX(projectPath, "	public int foo() { return 3; }\n");
+		expectingCompiledClasses(new String[] {"p1.X"});
+		env.removeProject(projectPath);
+	}
+
+	/*
+	 * A class file changed since the builder wrote it is compared to the new one, not to the hashes recorded for it.
+	 */
+	public void testClassFileHashesChangedClassFile() throws CoreException {
+		IPath projectPath = addClassFileHashesProject();
+		IFile classFile = env.getWorkspace().getRoot().getFile(projectPath.append("bin/p1/X.class"));
+		byte[] bytes = org.eclipse.jdt.internal.core.util.Util.getResourceContentsAsByteArray(classFile);
+
+		changeX(projectPath, "	public int foo() { return 1; }\n	public void baz() {}\n");
+		expectingCompiledClasses(new String[] {"p1.X", "p2.Y"});
+
+		// back to the class file without baz(), unknown to the builder
+		classFile.setContents(new ByteArrayInputStream(bytes), true, false, null);
+		changeX(projectPath, "	public int foo() { return 2; }\n	public void baz() {}\n");
+		expectingCompiledClasses(new String[] {"p1.X", "p2.Y"});
+		env.removeProject(projectPath);
+	}
 }
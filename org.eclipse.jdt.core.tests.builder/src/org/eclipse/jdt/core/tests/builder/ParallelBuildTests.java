@@ -0,0 +1,215 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.core.tests.builder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.IntFunction;
+
+import junit.framework.Test;
+
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceDescription;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jdt.core.tests.util.Util;
+import org.eclipse.jdt.internal.core.builder.BuildNotifier;
+import org.eclipse.jdt.internal.core.builder.JavaBuilder;
+import org.eclipse.jdt.internal.core.builder.NameSet;
+import org.eclipse.jdt.internal.core.builder.QualifiedNameSet;
+
+/**
+ * Builds of independent projects at the same time, enabled by <code>org.eclipse.jdt.core.builder.parallel</code>,
+ * and the state they share.
+ */
+public class ParallelBuildTests extends BuilderTests {
+
+	private static final int THREADS = 8;
+	private static final int NAMES = 2000;
+
+	public ParallelBuildTests(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return buildTestSuite(ParallelBuildTests.class);
+	}
+
+	static class TestNotifier extends BuildNotifier {
+		TestNotifier() {
+			super(new NullProgressMonitor(), JavaBuilder.FULL_BUILD, () -> false);
+		}
+		void addProblems(int newErrors, int fixedErrors, int newWarnings, int fixedWarnings) {
+			this.newErrorCount += newErrors;
+			this.fixedErrorCount += fixedErrors;
+			this.newWarningCount += newWarnings;
+			this.fixedWarningCount += fixedWarnings;
+		}
+	}
+
+	/*
+	 * Runs the given task on several threads at once, answering what each thread answered.
+	 */
+	private static <T> List<T> runConcurrently(IntFunction<T> task) throws InterruptedException {
+		CountDownLatch start = new CountDownLatch(1);
+		List<T> results = new ArrayList<>();
+		List<Throwable> failures = new ArrayList<>();
+		Thread[] threads = new Thread[THREADS];
+		for (int i = 0; i < THREADS; i++) {
+			int index = i;
+			threads[i] = new Thread(() -> {
+				try {
+					start.await();
+					T result = task.apply(index);
+					synchronized (results) {
+						results.add(result);
+					}
+				} catch (Throwable e) {
+					synchronized (failures) {
+						failures.add(e);
+					}
+				}
+			});
+			threads[i].start();
+		}
+		start.countDown();
+		for (Thread thread : threads)
+			thread.join();
+		if (!failures.isEmpty())
+			throw new AssertionError(failures.get(0));
+		return results;
+	}
+
+	/*
+	 * Names added at once by several threads are interned to a single instance.
+	 */
+	public void testConcurrentInterning() throws InterruptedException {
+		NameSet simpleNames = new NameSet(3); // grown while the names are added
+		QualifiedNameSet qualifiedNames = new QualifiedNameSet(3);
+		List<Object[]> interned = runConcurrently(index -> {
+			Object[] names = new Object[NAMES * 2];
+			for (int i = 0; i < NAMES; i++) {
+				int n = index % 2 == 0 ? i : NAMES - 1 - i; // half of the threads add the names backwards
+				names[n] = simpleNames.add(("Name" + n).toCharArray());
+				names[NAMES + n] = qualifiedNames.add(new char[][] {"p".toCharArray(), ("Name" + n).toCharArray()});
+			}
+			return names;
+		});
+		Object[] first = interned.get(0);
+		for (Object[] names : interned)
+			for (int i = 0; i < names.length; i++)
+				assertSame("Name " + i + " interned twice", first[i], names[i]);
+		assertEquals("Wrong number of names", NAMES, simpleNames.elementSize);
+		assertEquals("Wrong number of qualified names", NAMES, qualifiedNames.elementSize);
+	}
+
+	/*
+	 * The problems counted by the builds of several projects at once add up.
+	 */
+	public void testProblemCounters() {
+		BuildNotifier.resetProblemCounters();
+		try {
+			TestNotifier first = new TestNotifier();
+			TestNotifier second = new TestNotifier(); // created before the first build is done
+			first.addProblems(2, 1, 3, 0);
+			second.addProblems(1, 0, 2, 4);
+			first.done();
+			second.done();
+			assertEquals("Wrong new errors", 3, BuildNotifier.NewErrorCount);
+			assertEquals("Wrong fixed errors", 1, BuildNotifier.FixedErrorCount);
+			assertEquals("Wrong new warnings", 5, BuildNotifier.NewWarningCount);
+			assertEquals("Wrong fixed warnings", 4, BuildNotifier.FixedWarningCount);
+
+			// a later build of the cycle starts from the counts of the builds done
+			TestNotifier third = new TestNotifier();
+			third.addProblems(1, 0, 0, 0);
+			third.done();
+			assertEquals("Wrong new errors", 4, BuildNotifier.NewErrorCount);
+		} finally {
+			BuildNotifier.resetProblemCounters();
+		}
+	}
+
+	/*
+	 * Independent projects built at once, and a project requiring them built after them.
+	 */
+	public void testIndependentProjects() throws CoreException {
+		IWorkspace workspace = ResourcesPlugin.getWorkspace();
+		IWorkspaceDescription description = workspace.getDescription();
+		int maxConcurrentBuilds = description.getMaxConcurrentBuilds();
+		boolean parallelBuilds = JavaBuilder.PARALLEL_BUILDS;
+		IPath[] projectPaths = new IPath[4];
+		try {
+			description.setMaxConcurrentBuilds(4);
+			workspace.setDescription(description);
+			JavaBuilder.PARALLEL_BUILDS = true;
+
+			IPath[] roots = new IPath[projectPaths.length];
+			for (int i = 0; i < projectPaths.length; i++) {
+				projectPaths[i] = env.addProject("Project" + i);
+				env.addExternalJars(projectPaths[i], Util.getJavaClassLibs());
+				env.removePackageFragmentRoot(projectPaths[i], "");
+				roots[i] = env.addPackageFragmentRoot(projectPaths[i], "src");
+				env.setOutputFolder(projectPaths[i], "bin");
+			}
+			env.addClass(roots[0], "p0", "A",
+				"package p0;\n" +
+				"public class A {\n" +
+				"}\n");
+			IPath b = env.addClass(roots[1], "p1", "B",
+				"package p1;\n" +
+				"public class B {\n" +
+				"	Missing missing;\n" +
+				"}\n");
+			env.addClass(roots[2], "p2", "C",
+				"package p2;\n" +
+				"public class C {\n" +
+				"}\n");
+			for (int i = 0; i < 3; i++)
+				env.addRequiredProject(projectPaths[3], projectPaths[i]);
+			env.addClass(roots[3], "p3", "D",
+				"package p3;\n" +
+				"public class D {\n" +
+				"	p0.A a;\n" +
+				"	p2.C c;\n" +
+				"}\n");
+			fullBuild();
+			expectingOnlyProblemsFor(b);
+			expectingPresenceOf(new IPath[] {
+				projectPaths[0].append("bin/p0/A.class"),
+				projectPaths[2].append("bin/p2/C.class"),
+				projectPaths[3].append("bin/p3/D.class"),
+			});
+
+			// fixing the error does not affect the classes of the other projects
+			env.addClass(roots[1], "p1", "B",
+				"package p1;\n" +
+				"public class B {\n" +
+				"}\n");
+			incrementalBuild();
+			expectingNoProblems();
+			expectingCompiledClasses(new String[] {"p1.B"});
+		} finally {
+			JavaBuilder.PARALLEL_BUILDS = parallelBuilds;
+			description.setMaxConcurrentBuilds(maxConcurrentBuilds);
+			workspace.setDescription(description);
+			for (IPath projectPath : projectPaths)
+				if (projectPath != null)
+					env.removeProject(projectPath);
+		}
+	}
+}
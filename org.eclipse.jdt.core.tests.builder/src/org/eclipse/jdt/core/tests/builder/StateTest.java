@@ -21,9 +21,13 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Predicate;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
@@ -100,6 +104,287 @@ public class StateTest extends BuilderTests {
 	}
 
 
+	/*
+	 * The collections of a read state, which are still encoded, include the same names as the collections they
+	 * were written from, including the qualified names of one segment found among the simple names.
+	 */
+	@SuppressWarnings("unchecked")
+	public void testEncodedIncludes() throws JavaModelException, Exception {
+		IPath projectPath = env.addProject("Encoded"); //$NON-NLS-1$
+		env.addExternalJars(projectPath, Util.getJavaClassLibs());
+		env.addClass(projectPath, "", "A",
+			"public class A {\n" +
+			"	B b;\n" +
+			"	p.X x;\n" +
+			"}\n");
+		env.addClass(projectPath, "", "B",
+			"public class B {\n" +
+			"	java.io.File file;\n" +
+			"}\n");
+		env.addClass(projectPath, "p", "X",
+			"package p;\n" +
+			"public class X {\n" +
+			"	q.Y y;\n" +
+			"	java.util.List<String> list;\n" +
+			"}\n");
+		env.addClass(projectPath, "q", "Y",
+			"package q;\n" +
+			"public class Y extends Z {\n" +
+			"}\n" +
+			"class Z {\n" +
+			"	p.X x;\n" +
+			"}\n");
+		fullBuild();
+		expectingNoProblems();
+
+		IProject project = env.getProject(projectPath);
+		State savedState = (State) JavaModelManager.getJavaModelManager().getPerProjectInfoCheckExistence(project).savedState;
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		JavaBuilder.writeState(savedState, new DataOutputStream(outputStream));
+		State readState = JavaBuilder.readState(project, new DataInputStream(new ByteArrayInputStream(outputStream.toByteArray())));
+		Map<String, ReferenceCollection> readReferences = readState.getReferences();
+		Method includes = readReferences.getClass().getDeclaredMethod("includes", char[][][].class, char[][].class, char[][].class);
+		includes.setAccessible(true);
+
+		String[][] qualifiedQueries = {
+			{"p/X"}, {"q/Y"}, {"q/Z"}, {"q"}, {"B"}, {"A", "B"}, {"X"}, {"java/io/File"}, {"p/X", "B"}, {"r/Missing"}, {"Missing"}, {}
+		};
+		String[][] simpleQueries = { {"X"}, {"Y"}, {"Z"}, {"B"}, {"A"}, {"File"}, {"X", "B"}, {"Missing"}, {} };
+		String[][] rootQueries = { {"p"}, {"q"}, {"java"}, {"B"}, {"Missing"} };
+		int checked = 0;
+		boolean singleSegmentIncluded = false;
+		for (String typeLocator : savedState.getReferences().keySet()) {
+			ReferenceCollection saved = savedState.getReferences().get(typeLocator);
+			for (int q = -1; q < qualifiedQueries.length; q++) {
+				char[][][] qualified = q == -1 ? null : ReferenceCollection.internQualifiedNames(new HashSet<>(Arrays.asList(qualifiedQueries[q])));
+				for (int s = -1; s < simpleQueries.length; s++) {
+					char[][] simple = s == -1 ? null : ReferenceCollection.internSimpleNames(new HashSet<>(Arrays.asList(simpleQueries[s])), false);
+					for (int r = -1; r < rootQueries.length; r++) {
+						char[][] root = r == -1 ? null : ReferenceCollection.internSimpleNames(new HashSet<>(Arrays.asList(rootQueries[r])), false);
+						boolean expected = saved.includes(qualified, simple, root);
+						boolean actual = ((Predicate<String>) includes.invoke(readReferences, qualified, simple, root)).test(typeLocator);
+						assertEquals("Wrong answer for " + typeLocator + " including " + (q == -1 ? null : Arrays.asList(qualifiedQueries[q]))
+								+ ", " + (s == -1 ? null : Arrays.asList(simpleQueries[s])) + ", " + (r == -1 ? null : Arrays.asList(rootQueries[r])),
+								expected, actual);
+						checked++;
+						if (expected && q == 4 && s == -1 && r == -1)
+							singleSegmentIncluded = true; // B in the default package
+					}
+				}
+			}
+		}
+		assertTrue("No collection checked", checked > 0);
+		assertTrue("Single segment name not included", singleSegmentIncluded);
+		// the encoded collections are still compared to their decoded form
+		assertEquals(readState, savedState);
+		env.removeProject(projectPath);
+	}
+
+	/*
+	 * The collections of a read state are only decoded when asked for, with the names interned by
+	 * ReferenceCollection, which are the same instances as the ones of the state written.
+	 */
+	@SuppressWarnings("unchecked")
+	public void testLazilyDecodedState() throws JavaModelException, Exception {
+		IPath projectPath = env.addProject("Lazy"); //$NON-NLS-1$
+		env.addExternalJars(projectPath, Util.getJavaClassLibs());
+		env.addClass(projectPath, "p", "A",
+			"package p;\n" +
+			"public class A {\n" +
+			"	q.X x;\n" +
+			"	java.util.List<String> list;\n" +
+			"}\n");
+		env.addClass(projectPath, "p", "B",
+			"package p;\n" +
+			"public class B {\n" +
+			"	q.X x;\n" +
+			"}\n");
+		env.addClass(projectPath, "q", "X",
+			"package q;\n" +
+			"public class X {\n" +
+			"}\n");
+		fullBuild();
+		expectingNoProblems();
+
+		IProject project = env.getProject(projectPath);
+		State savedState = (State) JavaModelManager.getJavaModelManager().getPerProjectInfoCheckExistence(project).savedState;
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		JavaBuilder.writeState(savedState, new DataOutputStream(outputStream));
+		State readState = JavaBuilder.readState(project, new DataInputStream(new ByteArrayInputStream(outputStream.toByteArray())));
+		Map<String, ReferenceCollection> readReferences = readState.getReferences();
+		Field entriesField = readReferences.getClass().getDeclaredField("entries");
+		entriesField.setAccessible(true);
+		Map<String, Object> entries = (Map<String, Object>) entriesField.get(readReferences);
+		assertEquals("Wrong number of collections", 3, entries.size());
+		for (Object value : entries.values())
+			assertTrue("Collection decoded when read", value instanceof Integer);
+
+		// answering the type locators referencing a name does not decode the collections either
+		Method typeLocatorsReferencing = State.class.getDeclaredMethod("getTypeLocatorsReferencing", char[][].class);
+		typeLocatorsReferencing.setAccessible(true);
+		char[][] simpleNames = ReferenceCollection.internSimpleNames(new HashSet<>(Arrays.asList("X")), false);
+		assertEquals("Wrong number of type locators", 2, ((List<String>) typeLocatorsReferencing.invoke(readState, (Object) simpleNames)).size());
+		for (Object value : entries.values())
+			assertTrue("Collection decoded by the reference index", value instanceof Integer);
+
+		String typeLocatorA = null, typeLocatorB = null;
+		for (String typeLocator : entries.keySet()) {
+			if (typeLocator.endsWith("A.java"))
+				typeLocatorA = typeLocator;
+			else if (typeLocator.endsWith("B.java"))
+				typeLocatorB = typeLocator;
+		}
+		ReferenceCollection a = readReferences.get(typeLocatorA);
+		assertSame("Decoded collection not kept", a, entries.get(typeLocatorA));
+		assertSame("Collection decoded again", a, readReferences.get(typeLocatorA));
+		assertTrue("Other collection decoded", entries.get(typeLocatorB) instanceof Integer);
+		assertEqualReferenceCollections(savedState.getReferences().get(typeLocatorA), a);
+
+		// the names of the decoded collections are the interned ones
+		ReferenceCollection b = readReferences.get(typeLocatorB);
+		for (ReferenceCollection collection : new ReferenceCollection[] {a, b}) {
+			for (char[] name : getSimpleNameReferences(collection))
+				assertSame("Simple name " + String.valueOf(name) + " not interned",
+						ReferenceCollection.internSimpleNames(new char[][] {name.clone()}, false)[0], name);
+			for (char[] name : getRootReferences(collection))
+				assertSame("Root name " + String.valueOf(name) + " not interned",
+						ReferenceCollection.internSimpleNames(new char[][] {name.clone()}, false)[0], name);
+			for (char[][] name : getQualifiedNameReferences(collection))
+				assertSame("Qualified name " + CharOperation.toString(name) + " not interned",
+						ReferenceCollection.internQualifiedNames(new char[][][] {name.clone()}, true)[0], name);
+		}
+		char[][] savedSimpleNames = getSimpleNameReferences(savedState.getReferences().get(typeLocatorB));
+		char[] savedX = savedSimpleNames[Arrays.asList(toStringArray(savedSimpleNames)).indexOf("X")];
+		char[][] readSimpleNames = getSimpleNameReferences(b);
+		assertSame("Name not shared with the state written", savedX, readSimpleNames[Arrays.asList(toStringArray(readSimpleNames)).indexOf("X")]);
+		env.removeProject(projectPath);
+	}
+
+	/*
+	 * Writing a read state copies the collections which were not decoded as they are, and the names they refer to
+	 * keep their numbers, so the collections are encoded as in the state first written.
+	 */
+	public void testCopiedEncodedCollections() throws JavaModelException, Exception {
+		IPath projectPath = env.addProject("Copied"); //$NON-NLS-1$
+		env.addExternalJars(projectPath, Util.getJavaClassLibs());
+		env.addClass(projectPath, "p", "A",
+			"package p;\n" +
+			"public class A {\n" +
+			"	q.X x;\n" +
+			"	java.util.List<String> list;\n" +
+			"}\n");
+		env.addClass(projectPath, "p", "B",
+			"package p;\n" +
+			"public class B {\n" +
+			"	q.X x;\n" +
+			"	class Inner {}\n" +
+			"}\n");
+		env.addClass(projectPath, "q", "X",
+			"package q;\n" +
+			"public class X {\n" +
+			"}\n");
+		fullBuild();
+		expectingNoProblems();
+
+		IProject project = env.getProject(projectPath);
+		State savedState = (State) JavaModelManager.getJavaModelManager().getPerProjectInfoCheckExistence(project).savedState;
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		JavaBuilder.writeState(savedState, new DataOutputStream(outputStream));
+		State readState = JavaBuilder.readState(project, new DataInputStream(new ByteArrayInputStream(outputStream.toByteArray())));
+		for (String typeLocator : readState.getReferences().keySet())
+			if (typeLocator.endsWith("A.java"))
+				readState.getReferences().get(typeLocator); // decoded, the other collections are copied
+
+		outputStream = new ByteArrayOutputStream();
+		JavaBuilder.writeState(readState, new DataOutputStream(outputStream));
+		State stateReadAgain = JavaBuilder.readState(project, new DataInputStream(new ByteArrayInputStream(outputStream.toByteArray())));
+		assertEqualLookupTables(savedState.getReferences(), stateReadAgain.getReferences());
+		assertTrue("Collections not encoded as first written",
+				Arrays.equals(getEncodedBytes(readState), getEncodedBytes(stateReadAgain)));
+		env.removeProject(projectPath);
+	}
+
+	private static byte[] getEncodedBytes(State state) throws ReflectiveOperationException {
+		Map<String, ReferenceCollection> references = state.getReferences();
+		Field encodingField = references.getClass().getDeclaredField("encoding");
+		encodingField.setAccessible(true);
+		Object encoding = encodingField.get(references);
+		Field bytesField = encoding.getClass().getDeclaredField("bytes");
+		bytesField.setAccessible(true);
+		return (byte[]) bytesField.get(encoding);
+	}
+
+	/*
+	 * The type locators answered by the reference index of a state are the ones whose collection includes one of
+	 * the simple names, in a built state as in a read state, and an incremental build still finds the affected
+	 * source files once the index holds outdated entries.
+	 */
+	@SuppressWarnings("unchecked")
+	public void testTypeLocatorsReferencing() throws JavaModelException, Exception {
+		IPath projectPath = env.addProject("Index"); //$NON-NLS-1$
+		env.addExternalJars(projectPath, Util.getJavaClassLibs());
+		env.addClass(projectPath, "", "A",
+			"public class A {\n" +
+			"	X x;\n" +
+			"}\n");
+		env.addClass(projectPath, "", "B",
+			"public class B {\n" +
+			"	X x;\n" +
+			"	Y y;\n" +
+			"}\n");
+		env.addClass(projectPath, "", "X",
+			"public class X {\n" +
+			"}\n");
+		env.addClass(projectPath, "", "Y",
+			"public class Y {\n" +
+			"}\n");
+		fullBuild();
+		expectingNoProblems();
+
+		IProject project = env.getProject(projectPath);
+		State savedState = (State) JavaModelManager.getJavaModelManager().getPerProjectInfoCheckExistence(project).savedState;
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		JavaBuilder.writeState(savedState, new DataOutputStream(outputStream));
+		State readState = JavaBuilder.readState(project, new DataInputStream(new ByteArrayInputStream(outputStream.toByteArray())));
+		Method typeLocatorsReferencing = State.class.getDeclaredMethod("getTypeLocatorsReferencing", char[][].class);
+		typeLocatorsReferencing.setAccessible(true);
+
+		String[][] simpleQueries = { {"X"}, {"Y"}, {"X", "Y"}, {"A"}, {"Missing"}, {} };
+		for (String[] query : simpleQueries) {
+			char[][] simpleNames = ReferenceCollection.internSimpleNames(new HashSet<>(Arrays.asList(query)), false);
+			Set<String> expected = new HashSet<>();
+			for (Map.Entry<String, ReferenceCollection> entry : savedState.getReferences().entrySet())
+				if (entry.getValue().includes(null, simpleNames, null))
+					expected.add(entry.getKey());
+			assertEquals("Wrong type locators referencing " + Arrays.asList(query),
+					expected, new HashSet<>((List<String>) typeLocatorsReferencing.invoke(savedState, (Object) simpleNames)));
+			assertEquals("Wrong type locators of the read state referencing " + Arrays.asList(query),
+					expected, new HashSet<>((List<String>) typeLocatorsReferencing.invoke(readState, (Object) simpleNames)));
+		}
+
+		// A no longer references X, which the index still answers, and C is indexed by the incremental build
+		env.addClass(projectPath, "", "A",
+			"public class A {\n" +
+			"	Y y;\n" +
+			"}\n");
+		env.addClass(projectPath, "", "C",
+			"public class C {\n" +
+			"	X x;\n" +
+			"}\n");
+		incrementalBuild(projectPath);
+		expectingNoProblems();
+		expectingCompiledClasses(new String[] {"A", "C"});
+
+		env.addClass(projectPath, "", "X",
+			"public class X {\n" +
+			"	public void foo() {}\n" +
+			"}\n");
+		incrementalBuild(projectPath);
+		expectingNoProblems();
+		expectingCompiledClasses(new String[] {"B", "C", "X"});
+		env.removeProject(projectPath);
+	}
+
 	public void testBug563546() throws JavaModelException, Exception {
 		IPath project = env.addProject("Bug563546"); //$NON-NLS-1$
 		env.addExternalJars(project, Util.getJavaClassLibs());
@@ -13,10 +13,12 @@
  *******************************************************************************/
 package org.eclipse.jdt.core.tests.compiler;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -108,6 +110,53 @@ public class CharDeduplicationTest extends TestCase {
 		}
 	}
 
+	@SuppressWarnings("deprecation")
+	public void testGlobalIntern() {
+		CharDeduplication.resetGlobal();
+		String text = "org.eclipse.jdt.internal.compiler.util.CharDeduplication";
+		char[] source = ("(" + text + ")").toCharArray();
+		char[] expected = CharDeduplication.intern(source, 1, text.length() + 1);
+		assertEquals(text, String.valueOf(expected));
+		assertSame(expected, CharDeduplication.intern(text.toCharArray(), 0, text.length()));
+		assertSame(expected, CharDeduplication.intern(text.toCharArray()));
+		assertSame(expected, CharDeduplication.getShared(text.toCharArray()));
+
+		char[] other = "getCurrentIdentifierSource".toCharArray();
+		assertNull(CharDeduplication.getShared(other));
+		assertSame(other, CharDeduplication.intern(other));
+		assertSame(other, CharDeduplication.getShared(String.valueOf(other).toCharArray()));
+
+		char[] tooLong = new char[CharDeduplication.GLOBAL_MAX_LENGTH + 1];
+		Arrays.fill(tooLong, 'x');
+		char[] copy = CharDeduplication.intern(tooLong, 0, tooLong.length);
+		assertNotSame(copy, CharDeduplication.intern(tooLong, 0, tooLong.length));
+		assertNull(CharDeduplication.getShared(copy));
+	}
+
+	public void testGlobalInternMultithreaded() throws Exception {
+		int nThreads = 8;
+		List<String> names = IntStream.range(0, 1000).mapToObj(i -> "identifier" + i).collect(Collectors.toList());
+		ExecutorService executor = Executors.newFixedThreadPool(nThreads);
+		try {
+			List<Future<char[][]>> results = IntStream.range(0, nThreads).mapToObj(t -> executor.submit(() -> {
+				char[][] interned = new char[names.size()][];
+				for (int i = 0; i < interned.length; i++) {
+					char[] name = names.get(i).toCharArray();
+					interned[i] = CharDeduplication.intern(name, 0, name.length);
+				}
+				return interned;
+			})).collect(Collectors.toList());
+			for (Future<char[][]> result : results) {
+				char[][] interned = result.get();
+				for (int i = 0; i < interned.length; i++) {
+					assertEquals(names.get(i), String.valueOf(interned[i]));
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
 	public static void main(String[] args) {
 		CharDeduplicationTest test=new CharDeduplicationTest("");
 		System.out.println("min= ~"+ LongStream.range(0, 100).map(t->test.runPerformanceTest()).min());
@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.core.tests.compiler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.core.compiler.CharOperation;
+import org.eclipse.jdt.core.tests.junit.extension.TestCase;
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFileReader;
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFormatException;
+import org.eclipse.jdt.internal.compiler.util.JrtBinaryTypeCache;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+public class JrtBinaryTypeCacheTest extends TestCase {
+
+	private static final String IMAGE = "jdk|0B";
+
+	public JrtBinaryTypeCacheTest(String testName) {
+		super(testName);
+	}
+
+	public static Test suite() {
+		TestSuite suite = new TestSuite(JrtBinaryTypeCacheTest.class.getPackageName());
+		suite.addTest(new TestSuite(JrtBinaryTypeCacheTest.class));
+		return suite;
+	}
+
+	private static byte[] classFileBytes() throws IOException {
+		try (InputStream stream = JrtBinaryTypeCacheTest.class.getResourceAsStream("JrtBinaryTypeCacheTest.class")) {
+			return stream.readAllBytes();
+		}
+	}
+
+	private static JrtBinaryTypeCache.Loader loader(String fileName, String moduleName, AtomicInteger loads) {
+		return () -> {
+			loads.incrementAndGet();
+			ClassFileReader reader = new ClassFileReader(classFileBytes(), fileName.toCharArray());
+			reader.moduleName = moduleName.toCharArray();
+			return reader;
+		};
+	}
+
+	public void testReadersAreNotShared() throws IOException, ClassFormatException {
+		JrtBinaryTypeCache cache = new JrtBinaryTypeCache(10);
+		AtomicInteger loads = new AtomicInteger();
+		String fileName = "p/X.class";
+		ClassFileReader first = cache.getReader(IMAGE, fileName, "m", null, loader(fileName, "m", loads));
+		ClassFileReader second = cache.getReader(IMAGE, fileName, "m", null, loader(fileName, "m", loads));
+		assertEquals("Class file read again", 1, loads.get());
+		assertNotSame("Reader is shared", first, second);
+		assertEquals("Wrong module", "m", new String(second.moduleName));
+
+		// clients modify the names of their reader in place
+		CharOperation.replace(first.getName(), '/', '.');
+		CharOperation.replace(first.getSuperclassName(), '/', '.');
+		CharOperation.replace(first.getFileName(), '/', '.');
+		ClassFileReader third = cache.getReader(IMAGE, fileName, "m", null, loader(fileName, "m", loads));
+		assertEquals("Wrong name", "org/eclipse/jdt/core/tests/compiler/JrtBinaryTypeCacheTest", new String(second.getName()));
+		assertEquals("Wrong superclass", "org/eclipse/jdt/core/tests/junit/extension/TestCase", new String(third.getSuperclassName()));
+		assertEquals("Wrong file name", fileName, new String(third.getFileName()));
+	}
+
+	public void testOtherModule() throws IOException, ClassFormatException {
+		JrtBinaryTypeCache cache = new JrtBinaryTypeCache(10);
+		AtomicInteger loads = new AtomicInteger();
+		String fileName = "p/X.class";
+		cache.getReader(IMAGE, fileName, null, null, loader(fileName, "m1", loads));
+		cache.getReader(IMAGE, fileName, "m2", null, loader(fileName, "m2", loads));
+		assertEquals("Cached class file of another module answered", 2, loads.get());
+		cache.getReader(IMAGE, fileName, null, "m2"::equals, loader(fileName, "m2", loads));
+		assertEquals("Cached class file of a filtered module answered", 3, loads.get());
+		cache.getReader(IMAGE, fileName, null, "m1"::equals, loader(fileName, "m1", loads));
+		assertEquals("Class file read again", 3, loads.get());
+	}
+
+	public void testBoundedPerImage() throws IOException, ClassFormatException {
+		JrtBinaryTypeCache cache = new JrtBinaryTypeCache(2);
+		AtomicInteger loads = new AtomicInteger();
+		for (String fileName : new String[] { "p/X.class", "p/Y.class", "p/X.class", "p/Z.class" })
+			cache.getReader(IMAGE, fileName, null, null, loader(fileName, "m", loads));
+		assertEquals("Wrong number of reads", 3, loads.get());
+		assertEquals("Wrong size", 2, cache.size(IMAGE));
+
+		// p/Y.class is the least recently used class file
+		cache.getReader(IMAGE, "p/X.class", null, null, loader("p/X.class", "m", loads));
+		assertEquals("Recently used class file evicted", 3, loads.get());
+		cache.getReader(IMAGE, "p/Y.class", null, null, loader("p/Y.class", "m", loads));
+		assertEquals("Least recently used class file not evicted", 4, loads.get());
+
+		// images are cached separately
+		cache.getReader("other", "p/X.class", null, null, loader("p/X.class", "m", loads));
+		assertEquals("Class file of another image answered", 5, loads.get());
+		assertEquals("Wrong size", 2, cache.size(IMAGE));
+		assertEquals("Wrong size", 1, cache.size("other"));
+	}
+}
@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.core.tests.compiler;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.eclipse.jdt.core.tests.junit.extension.TestCase;
+import org.eclipse.jdt.internal.compiler.batch.PackageIndexCache;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+public class PackageIndexCacheTest extends TestCase {
+
+	private File root;
+
+	public PackageIndexCacheTest(String testName) {
+		super(testName);
+	}
+
+	public static Test suite() {
+		TestSuite suite = new TestSuite(PackageIndexCacheTest.class.getPackageName());
+		suite.addTest(new TestSuite(PackageIndexCacheTest.class));
+		return suite;
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		this.root = Files.createTempDirectory("PackageIndexCacheTest").toFile();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		delete(this.root);
+		super.tearDown();
+	}
+
+	private static void delete(File file) {
+		File[] children = file.listFiles();
+		if (children != null)
+			for (File child : children)
+				delete(child);
+		file.delete();
+	}
+
+	private File createJar(String name, String contents) throws IOException {
+		File jar = new File(this.root, name);
+		Files.write(jar.toPath(), contents.getBytes());
+		return jar;
+	}
+
+	private static Set<String> packages(String... names) {
+		return new HashSet<>(Arrays.asList(names));
+	}
+
+	private static void assertPackages(String message, Set<String> expected, PackageIndexCache cache, File jar) {
+		Set<String> actual = new HashSet<>();
+		assertTrue(message + ": missing entry", cache.read(jar, actual));
+		assertEquals(message, new TreeSet<>(expected).toString(), new TreeSet<>(actual).toString());
+	}
+
+	public void testRoundTrip() throws IOException {
+		PackageIndexCache cache = new PackageIndexCache(new File(this.root, "cache"));
+		File jar = createJar("lib.jar", "contents");
+		assertFalse("Unexpected entry", cache.read(jar, new HashSet<>()));
+		cache.write(jar, packages("", "p", "p/q"));
+		assertPackages("Wrong packages", packages("", "p", "p/q"), cache, jar);
+
+		// entries are written for the next compiler runs
+		assertPackages("Wrong packages", packages("", "p", "p/q"), new PackageIndexCache(new File(this.root, "cache")), jar);
+	}
+
+	public void testCanonicalPath() throws IOException {
+		PackageIndexCache cache = new PackageIndexCache(new File(this.root, "cache"));
+		File jar = createJar("lib.jar", "contents");
+		new File(this.root, "dir").mkdir();
+		cache.write(new File(this.root, "dir" + File.separator + ".." + File.separator + "lib.jar"), packages("", "p"));
+		assertPackages("Wrong packages", packages("", "p"), cache, jar);
+	}
+
+	public void testChangedJar() throws IOException {
+		PackageIndexCache cache = new PackageIndexCache(new File(this.root, "cache"));
+		File jar = createJar("lib.jar", "contents");
+		cache.write(jar, packages("", "p"));
+		assertTrue(jar.setLastModified(jar.lastModified() + 2000));
+		assertFalse("Entry of a modified jar answered", cache.read(jar, new HashSet<>()));
+
+		cache.write(jar, packages("", "p"));
+		long lastModified = jar.lastModified();
+		createJar("lib.jar", "other contents");
+		assertTrue(jar.setLastModified(lastModified));
+		assertFalse("Entry of a resized jar answered", cache.read(jar, new HashSet<>()));
+	}
+
+	public void testCollidingPaths() throws IOException {
+		// the paths of these jars have the same String hash code
+		File jar1 = createJar("Aa.jar", "contents");
+		File jar2 = createJar("BB.jar", "contents");
+		assertEquals(jar1.getCanonicalPath().hashCode(), jar2.getCanonicalPath().hashCode());
+		PackageIndexCache cache = new PackageIndexCache(new File(this.root, "cache"));
+		cache.write(jar1, packages("", "p1"));
+		cache.write(jar2, packages("", "p2"));
+		assertPackages("Wrong packages", packages("", "p1"), cache, jar1);
+		assertPackages("Wrong packages", packages("", "p2"), cache, jar2);
+	}
+
+	public void testDefault() {
+		String location = System.getProperty(PackageIndexCache.CACHE_DIRECTORY_PROPERTY);
+		try {
+			System.clearProperty(PackageIndexCache.CACHE_DIRECTORY_PROPERTY);
+			assertNull("Unexpected cache", PackageIndexCache.getDefault());
+			System.setProperty(PackageIndexCache.CACHE_DIRECTORY_PROPERTY, new File(this.root, "cache").getPath());
+			PackageIndexCache cache = PackageIndexCache.getDefault();
+			assertNotNull("Missing cache", cache);
+			assertSame("Cache created again", cache, PackageIndexCache.getDefault());
+			System.setProperty(PackageIndexCache.CACHE_DIRECTORY_PROPERTY, new File(this.root, "other").getPath());
+			assertNotSame("Cache of another directory answered", cache, PackageIndexCache.getDefault());
+		} finally {
+			if (location == null)
+				System.clearProperty(PackageIndexCache.CACHE_DIRECTORY_PROPERTY);
+			else
+				System.setProperty(PackageIndexCache.CACHE_DIRECTORY_PROPERTY, location);
+		}
+	}
+}
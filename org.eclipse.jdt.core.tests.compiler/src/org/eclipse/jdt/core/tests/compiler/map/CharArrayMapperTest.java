@@ -127,6 +127,18 @@ public class CharArrayMapperTest extends TestCase {
 		testColliding(new CharArrayHashMap<>(4));
 	}
 
+	public void testCharArrayHashMapNullValue() {
+		CharArrayHashMap<String> map = new CharArrayHashMap<>(0);
+		for (int i = 0; i < 20; i++) {
+			testPutNew(map, "" + i);
+		}
+		assertEquals("put", "_7_", map.put("7".toCharArray(), null));
+		assertEquals("size", 20, map.size());
+		assertTrue("containsKey", map.containsKey("7".toCharArray()));
+		assertNull("get", map.get("7".toCharArray()));
+		assertEquals("values", 20, map.values().size());
+	}
+
 	public void testCharArrayMap() {
 		testIntList(new CharArrayMap<>());
 		testColliding(new CharArrayMap<>());
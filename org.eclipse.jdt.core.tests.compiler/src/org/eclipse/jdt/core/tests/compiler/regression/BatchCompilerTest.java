@@ -44,7 +44,9 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintWriter;
+import java.nio.file.Files;
 import java.text.MessageFormat;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 
@@ -56,8 +58,10 @@ import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.compiler.CharOperation;
 import org.eclipse.jdt.core.tests.util.AbstractCompilerTest;
 import org.eclipse.jdt.core.tests.util.Util;
+import org.eclipse.jdt.internal.compiler.ProcessTaskManager;
 import org.eclipse.jdt.internal.compiler.batch.ClasspathDirectory;
 import org.eclipse.jdt.internal.compiler.batch.ClasspathJar;
+import org.eclipse.jdt.internal.compiler.batch.CompilerDaemon;
 import org.eclipse.jdt.internal.compiler.batch.FileSystem;
 import org.eclipse.jdt.internal.compiler.batch.Main;
 import org.eclipse.jdt.internal.compiler.classfmt.ClassFileConstants;
@@ -765,9 +769,12 @@ public void test012(){
         "    -referenceInfo     compute reference info\n" +
         "    -progress          show progress (only in -log mode)\n" +
         "    -time              display speed information \n" +
+        "    -statsLog <file>   log per unit times and per classpath entry binary type\n" +
+        "                       loads to a CSV file\n" +
         "    -noExit            do not call System.exit(n) at end of compilation (n==0\n" +
         "                       if no error)\n" +
         "    -repeat <n>        repeat compilation process <n> times for perf analysis\n" +
+        "    -threads <n>       parse source files on <n> threads\n" +
         "    -inlineJSR         inline JSR bytecode (implicit if target >= 1.5)\n" +
         "    -enableJavadoc     consider references in javadoc\n" +
         "    -parameters        generate method parameters attribute (for target >= 1.8)\n" +
@@ -13468,4 +13475,211 @@ public void testIssue89_5() {
 				"error: warnings found and -failOnWarning specified\n",
 				true);
 }
+public void testThreads_1() {
+	String[] files = new String[22];
+	for (int i = 0; i < 10; i++) {
+		files[2 * i] = "X" + i + ".java";
+		files[2 * i + 1] = "public class X" + i + " {\n" +
+			"	X" + (i + 1) % 10 + " next;\n" +
+			"}";
+	}
+	files[20] = "Y.java";
+	files[21] = "public class Y {\n" +
+		"	X0 x = new X9();\n" +
+		"}";
+	StringBuilder commandLine = new StringBuilder();
+	for (int i = 0; i < files.length; i += 2)
+		commandLine.append('"').append(OUTPUT_DIR).append(File.separator).append(files[i]).append("\" ");
+	commandLine.append(" -1.5 -threads 4 -proc:none -d \"").append(OUTPUT_DIR).append(File.separator).append("bin/\"");
+	this.runNegativeTest(
+		files,
+		commandLine.toString(),
+		"",
+		"----------\n" +
+		"1. ERROR in ---OUTPUT_DIR_PLACEHOLDER---/Y.java (at line 2)\n" +
+		"	X0 x = new X9();\n" +
+		"	       ^^^^^^^^\n" +
+		"Type mismatch: cannot convert from X9 to X0\n" +
+		"----------\n" +
+		"1 problem (1 error)\n",
+		true);
+}
+public void testThreads_2() {
+	this.runNegativeTest(
+		new String[] {
+			"X.java",
+			"public class X {}"
+		},
+		"\"" + OUTPUT_DIR +  File.separator + "X.java\""
+		+ " -1.5 -threads 0 -d none",
+		"",
+		"threads must be a positive integer: 0\n",
+		true);
+}
+public void testCompilerDaemon() throws IOException {
+	new File(OUTPUT_DIR).mkdirs();
+	Util.writeToFile("public class X {}\n", OUTPUT_DIR + File.separator + "X.java");
+	Util.writeToFile("public class Y { Z z; }\n", OUTPUT_DIR + File.separator + "Y.java");
+	String options = " -1.5 -proc:none -d none\n";
+	java.io.StringWriter out = new java.io.StringWriter();
+	java.io.StringWriter err = new java.io.StringWriter();
+	int count = new CompilerDaemon(
+		new java.io.StringReader(
+			"\"" + OUTPUT_DIR + File.separator + "X.java\"" + options +
+			"\n" +
+			"\"" + OUTPUT_DIR + File.separator + "Y.java\"" + options +
+			"\"" + OUTPUT_DIR + File.separator + "X.java\"" + options +
+			"quit\n" +
+			"\"" + OUTPUT_DIR + File.separator + "Y.java\"" + options),
+		new PrintWriter(out),
+		new PrintWriter(err)).serve();
+	assertEquals("Unexpected number of compilations", 3, count);
+	assertEquals("Unexpected output",
+		"#exit 0\n" +
+		"#exit -1\n" +
+		"#exit 0\n",
+		Util.convertToIndependantLineDelimiter(out.toString()));
+	assertTrue("Missing problem", err.toString().indexOf("Z cannot be resolved to a type") != -1);
+}
+// class files are only written when their contents changed, unchanged ones are touched
+public void testClassFileWriter() throws IOException {
+	String sourcePath = OUTPUT_DIR + File.separator + "src";
+	String binPath = OUTPUT_DIR + File.separator + "bin";
+	new File(sourcePath).mkdirs();
+	Util.writeToFile("public class X {}\n", sourcePath + File.separator + "X.java");
+	Util.writeToFile("public class Y { int i = 1; }\n", sourcePath + File.separator + "Y.java");
+	String commandLine = "\"" + sourcePath + File.separator + "X.java\" \"" + sourcePath + File.separator + "Y.java\""
+		+ " -1.5 -proc:none -d \"" + binPath + "\"";
+	assertTrue("Compilation failed", new Main(new PrintWriter(System.out), new PrintWriter(System.err), false, null, null).compile(Main.tokenize(commandLine)));
+	File classX = new File(binPath, "X.class");
+	File classY = new File(binPath, "Y.class");
+	long lengthY = classY.length();
+	byte[] bytesX = Files.readAllBytes(classX.toPath());
+	long past = (System.currentTimeMillis() - 3600 * 1000) / 1000 * 1000; // whole seconds, for any file system
+	assertTrue(classX.setLastModified(past));
+	assertTrue(classY.setLastModified(past));
+
+	// a class file of the same length with different contents
+	Util.writeToFile("public class Y { int i = 2; }\n", sourcePath + File.separator + "Y.java");
+	assertTrue("Compilation failed", new Main(new PrintWriter(System.out), new PrintWriter(System.err), false, null, null).compile(Main.tokenize(commandLine)));
+	assertTrue("Unchanged class file not touched", classX.lastModified() != past);
+	assertTrue("Unchanged class file changed", Arrays.equals(bytesX, Files.readAllBytes(classX.toPath())));
+	assertTrue("Changed class file not written", classY.lastModified() != past);
+	assertEquals("Unexpected length", lengthY, classY.length());
+
+	// a class file of another length
+	assertTrue(classX.setLastModified(past));
+	assertTrue(classY.setLastModified(past));
+	Util.writeToFile("public class Y { int i = 2; int j; }\n", sourcePath + File.separator + "Y.java");
+	assertTrue("Compilation failed", new Main(new PrintWriter(System.out), new PrintWriter(System.err), false, null, null).compile(Main.tokenize(commandLine)));
+	assertTrue("Unchanged class file not touched", classX.lastModified() != past);
+	assertTrue("Unchanged class file changed", Arrays.equals(bytesX, Files.readAllBytes(classX.toPath())));
+	assertTrue("Changed class file not written", classY.lastModified() != past);
+	assertTrue("Unexpected length", lengthY != classY.length());
+}
+// units read ahead and processed by worker threads, more than the processed queue holds, are all handed to the main thread
+public void testWorkerThreadsHandoff() throws IOException {
+	String setting = System.getProperty("jdt.compiler.useSingleThread");
+	try {
+		System.setProperty("jdt.compiler.useSingleThread", "false");
+		String sourcePath = OUTPUT_DIR + File.separator + "src";
+		String binPath = OUTPUT_DIR + File.separator + "bin";
+		new File(sourcePath).mkdirs();
+		int count = ProcessTaskManager.PROCESSED_QUEUE_SIZE + 50;
+		StringBuilder commandLine = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			String contents = i % 50 == 49
+				? "public class X" + i + " { Missing m; }\n"
+				: "public class X" + i + " { X" + (i + 1) % count + " next; }\n";
+			Util.writeToFile(contents, sourcePath + File.separator + "X" + i + ".java");
+			commandLine.append('"').append(sourcePath).append(File.separator).append("X").append(i).append(".java\" ");
+		}
+		commandLine.append("-1.5 -proc:none -d \"").append(binPath).append('"');
+		java.io.StringWriter err = new java.io.StringWriter();
+		assertFalse("Compilation succeeded",
+			new Main(new PrintWriter(System.out), new PrintWriter(err), false, null, null).compile(Main.tokenize(commandLine.toString())));
+		assertTrue("Wrong problems: " + err, Util.convertToIndependantLineDelimiter(err.toString()).endsWith("3 problems (3 errors)\n"));
+		for (int i = 0; i < count; i++)
+			assertEquals("Wrong class file for X" + i, i % 50 != 49, new File(binPath, "X" + i + ".class").exists());
+	} finally {
+		System.setProperty("jdt.compiler.useSingleThread", setting == null ? "false" : setting);
+	}
+}
+// the jars kept open between requests are opened again once changed
+public void testCompilerDaemon_2() throws IOException {
+	new File(OUTPUT_DIR).mkdirs();
+	String jarPath = OUTPUT_DIR + File.separator + "lib.jar";
+	Util.createJar(new String[] {
+			"p/A.java",
+			"package p;\n" +
+			"public class A {}\n" },
+		jarPath,
+		JavaCore.VERSION_1_5);
+	Util.writeToFile("public class X { p.A a; }\n", OUTPUT_DIR + File.separator + "X.java");
+	Util.writeToFile("public class Y { q.B b; }\n", OUTPUT_DIR + File.separator + "Y.java");
+	String options = " -cp \"" + jarPath + "\" -1.5 -proc:none -d none\n";
+	String[] requests = {
+		"\"" + OUTPUT_DIR + File.separator + "X.java\"" + options,
+		"\"" + OUTPUT_DIR + File.separator + "Y.java\"" + options,
+		"\"" + OUTPUT_DIR + File.separator + "Y.java\"" + options,
+		"\"" + OUTPUT_DIR + File.separator + "X.java\"" + options,
+	};
+	// answer one request per read, so that the jar is changed once the first two are compiled
+	java.io.Reader in = new java.io.Reader() {
+		int next;
+		@Override
+		public int read(char[] buffer, int offset, int length) throws IOException {
+			if (this.next == requests.length)
+				return -1;
+			if (this.next == 2) {
+				long lastModified = new File(jarPath).lastModified();
+				Util.createJar(new String[] {
+						"p/A.java",
+						"package p;\n" +
+						"public class A {}\n",
+						"q/B.java",
+						"package q;\n" +
+						"public class B {}\n" },
+					jarPath,
+					JavaCore.VERSION_1_5);
+				new File(jarPath).setLastModified(lastModified + 2000);
+			}
+			String request = requests[this.next++];
+			request.getChars(0, request.length(), buffer, offset);
+			return request.length();
+		}
+		@Override
+		public void close() {
+			// nothing to close
+		}
+	};
+	java.io.StringWriter out = new java.io.StringWriter();
+	java.io.StringWriter err = new java.io.StringWriter();
+	int count = new CompilerDaemon(in, new PrintWriter(out), new PrintWriter(err)).serve();
+	assertEquals("Unexpected number of compilations", 4, count);
+	assertEquals("Unexpected output",
+		"#exit 0\n" +
+		"#exit -1\n" +
+		"#exit 0\n" +
+		"#exit 0\n",
+		Util.convertToIndependantLineDelimiter(out.toString()));
+	assertTrue("Missing problem", err.toString().indexOf("q cannot be resolved to a type") != -1);
+}
+public void testStatsLog() throws IOException {
+	String statsLog = OUTPUT_DIR + File.separator + "stats.csv";
+	this.runConformTest(
+		new String[] {
+			"X.java",
+			"public class X {}"
+		},
+		"\"" + OUTPUT_DIR +  File.separator + "X.java\""
+		+ " -1.5 -proc:none -d none -statsLog \"" + statsLog + "\"",
+		"",
+		"",
+		true);
+	String[] records = Util.convertToIndependantLineDelimiter(Util.fileContent(statsLog)).split("\n");
+	assertEquals("Unexpected header", "kind,name,count,parse_ns,resolve_ns,analyze_ns,generate_ns,class_file_bytes", records[0]);
+	assertTrue("Missing unit record", records[1].startsWith("unit,\"" + OUTPUT_DIR + File.separator + "X.java\",1,"));
+	assertTrue("Missing binary type record", records[records.length - 1].startsWith("binary,"));
+}
 }
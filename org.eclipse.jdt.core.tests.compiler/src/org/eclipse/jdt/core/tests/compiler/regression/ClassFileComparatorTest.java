@@ -67,6 +67,18 @@ public class ClassFileComparatorTest extends AbstractRegressionTest {
 		BatchCompiler.compile(buffer.toString(), new PrintWriter(System.out), new PrintWriter(System.err), null/*progress*/);
 	}
 
+	private boolean haveDifferentStructuralHashes(String classFile1, String classFile2) {
+		try {
+			ClassFileReader reader1 = ClassFileReader.read(EVAL_DIRECTORY + File.separator + classFile1 + ".class");
+			ClassFileReader reader2 = ClassFileReader.read(EVAL_DIRECTORY + File.separator + classFile2 + ".class");
+			return reader1.getStructuralHash() != reader2.getStructuralHash();
+		} catch(IOException e) {
+			return true;
+		} catch(ClassFormatException e) {
+			return true;
+		}
+	}
+
 	private boolean areStructurallyDifferent(String classFile1, String classFile2, boolean orderRequired, boolean excludeSynthetic) {
 		FileInputStream stream = null;
 		try {
@@ -471,4 +483,65 @@ public class ClassFileComparatorTest extends AbstractRegressionTest {
 			removeTempClass("A016");
 		}
 	}
+
+	public void test017() {
+		try {
+			String sourceA017 =
+				"public class A017 {\n" +
+				"  public static final int C = 1;\n" +
+				"  int i;\n" +
+				"  public int foo() {\n" +
+				"    return 2;\n" +
+				"  }\n" +
+				"  /** @deprecated */\n" +
+				"  public void bar() throws Exception {\n" +
+				"  }\n" +
+				"}";
+			compileAndDeploy(sourceA017, "A017");
+			String sourceA017_2 =
+				"public class A017_2 {\n" +
+				"  /** @deprecated */\n" +
+				"  public void bar() throws Exception {\n" +
+				"    foo();\n" +
+				"  }\n" +
+				"  int i;\n" +
+				"  public int foo() {\n" +
+				"    return 3;\n" +
+				"  }\n" +
+				"  public static final int C = 1;\n" +
+				"}";
+			compileAndDeploy(sourceA017_2, "A017_2");
+			assertFalse(areStructurallyDifferent("A017", "A017_2", true, true));
+			assertFalse(haveDifferentStructuralHashes("A017", "A017_2"));
+		} finally {
+			removeTempClass("A017");
+		}
+	}
+
+	public void test018() {
+		try {
+			String sourceA018 =
+				"public class A018 {\n" +
+				"  public static final int C = 1;\n" +
+				"  /** @deprecated */\n" +
+				"  public void bar() throws Exception {\n" +
+				"  }\n" +
+				"}";
+			compileAndDeploy(sourceA018, "A018");
+			String[][] variants = {
+				{ "A018_2", "public static final int C = 2;", "/** @deprecated */ public void bar() throws Exception {}" },
+				{ "A018_3", "public static final int C = 1;", "public void bar() throws Exception {}" },
+				{ "A018_4", "public static final int C = 1;", "/** @deprecated */ public void bar() {}" },
+				{ "A018_5", "public static final int C = 1;", "/** @deprecated */ public void bar() throws Exception {} void baz() {}" },
+				{ "A018_6", "protected static final int C = 1;", "/** @deprecated */ public void bar() throws Exception {}" },
+			};
+			for (String[] variant : variants) {
+				compileAndDeploy("public class " + variant[0] + " {\n" + variant[1] + "\n" + variant[2] + "\n}", variant[0]);
+				assertTrue(variant[0], areStructurallyDifferent("A018", variant[0], true, true));
+				assertTrue(variant[0], haveDifferentStructuralHashes("A018", variant[0]));
+			}
+		} finally {
+			removeTempClass("A018");
+		}
+	}
 }
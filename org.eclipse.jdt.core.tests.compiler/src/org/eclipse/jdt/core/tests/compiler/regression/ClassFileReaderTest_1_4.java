@@ -18,6 +18,8 @@ import junit.framework.Test;
 import org.eclipse.jdt.core.compiler.CharOperation;
 import org.eclipse.jdt.core.util.ClassFileBytesDisassembler;
 import org.eclipse.jdt.internal.compiler.classfmt.ClassFileConstants;
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFileReader;
+import org.eclipse.jdt.internal.compiler.env.IBinaryField;
 import org.eclipse.jdt.internal.compiler.env.IBinaryMethod;
 
 @SuppressWarnings({ "rawtypes" })
@@ -2875,4 +2877,44 @@ public class ClassFileReaderTest_1_4 extends AbstractRegressionTest {
 		}
 	}
 
+	// names answered by a reader can be modified in place by its clients, e.g. to replace '/' with '.',
+	// this must not change the names answered by another reader of a class file using the same names
+	public void test081() throws Exception {
+		String sourceP =
+			"public class P extends java.util.ArrayList {\n" +
+			"	java.util.List list;\n" +
+			"	public java.util.List getList() { return this.list; }\n" +
+			"}";
+		String sourceQ =
+			"public class Q extends java.util.ArrayList {\n" +
+			"	java.util.List list;\n" +
+			"	public java.util.List getList() { return this.list; }\n" +
+			"}";
+		ClassFileReader readerP = getInternalClassFile("", "P", "P", sourceP);
+		ClassFileReader readerQ = getInternalClassFile("", "Q", "Q", sourceQ);
+		IBinaryField fieldP = readerP.getFields()[0];
+		IBinaryMethod methodP = null;
+		for (IBinaryMethod method : readerP.getMethods()) {
+			if (CharOperation.equals(method.getSelector(), "getList".toCharArray()))
+				methodP = method;
+		}
+		assertNotNull("No method getList", methodP);
+		CharOperation.replace(readerP.getSuperclassName(), '/', '.');
+		CharOperation.replace(fieldP.getName(), 'l', 'L');
+		CharOperation.replace(fieldP.getTypeName(), '/', '.');
+		CharOperation.replace(methodP.getSelector(), 'L', 'l');
+		CharOperation.replace(methodP.getMethodDescriptor(), '/', '.');
+
+		assertEquals("Wrong superclass", "java/util/ArrayList", new String(readerQ.getSuperclassName()));
+		IBinaryField fieldQ = readerQ.getFields()[0];
+		assertEquals("Wrong field name", "list", new String(fieldQ.getName()));
+		assertEquals("Wrong field type", "Ljava/util/List;", new String(fieldQ.getTypeName()));
+		IBinaryMethod methodQ = null;
+		for (IBinaryMethod method : readerQ.getMethods()) {
+			if (CharOperation.equals(method.getSelector(), "getList".toCharArray()))
+				methodQ = method;
+		}
+		assertNotNull("Wrong method name", methodQ);
+		assertEquals("Wrong method descriptor", "()Ljava/util/List;", new String(methodQ.getMethodDescriptor()));
+	}
 }
@@ -10379,4 +10379,72 @@ public void testBug508834_comment0() {
 				"}\n"
 			});
 	}
+	// repeated identical invocations may reuse the outcome of a previous inference
+	public void testInferenceResultCache_1() {
+		runConformTest(
+			new String[] {
+				"X.java",
+				"import java.util.*;\n" +
+				"public class X {\n" +
+				"	static <T extends Comparable<T>> T max(T a, T b) { return a.compareTo(b) > 0 ? a : b; }\n" +
+				"	static <T> List<T> listOf(T t) { return Collections.singletonList(t); }\n" +
+				"	public static void main(String... args) {\n" +
+				"		List<String> l1 = listOf(\"O\");\n" +
+				"		List<String> l2 = listOf(\"K\");\n" +
+				"		List<Integer> l3 = listOf(1);\n" +
+				"		String s1 = max(\"A\", \"B\");\n" +
+				"		String s2 = max(\"A\", \"B\");\n" +
+				"		Integer i = max(l3.get(0), 2);\n" +
+				"		System.out.print(s1 + s2 + l1.get(0) + l2.get(0) + i);\n" +
+				"	}\n" +
+				"}\n"
+			},
+			"BBOK2");
+	}
+	public void testInferenceResultCache_2() {
+		runNegativeTest(
+			new String[] {
+				"X.java",
+				"import java.util.*;\n" +
+				"public class X {\n" +
+				"	static <T> List<T> listOf(T t) { return Collections.singletonList(t); }\n" +
+				"	void test() {\n" +
+				"		List<String> l1 = listOf(\"a\");\n" +
+				"		List<Integer> l2 = listOf(\"a\");\n" +
+				"		List<String> l3 = listOf(\"a\");\n" +
+				"		List<Integer> l4 = listOf(\"a\");\n" +
+				"	}\n" +
+				"}\n"
+			},
+			"----------\n" +
+			"1. ERROR in X.java (at line 6)\n" +
+			"	List<Integer> l2 = listOf(\"a\");\n" +
+			"	                   ^^^^^^^^^^^\n" +
+			"Type mismatch: cannot convert from List<String> to List<Integer>\n" +
+			"----------\n" +
+			"2. ERROR in X.java (at line 8)\n" +
+			"	List<Integer> l4 = listOf(\"a\");\n" +
+			"	                   ^^^^^^^^^^^\n" +
+			"Type mismatch: cannot convert from List<String> to List<Integer>\n" +
+			"----------\n");
+	}
+	// an invocation needing boxing is only applicable by loose invocation, one with the boxed type by strict invocation
+	public void testInferenceResultCache_3() {
+		runConformTest(
+			new String[] {
+				"X.java",
+				"public class X {\n" +
+				"	static <T> String m(T t) { return \"generic\"; }\n" +
+				"	static String m(long l) { return \"long\"; }\n" +
+				"	public static void main(String... args) {\n" +
+				"		Integer i = 1;\n" +
+				"		String s1 = m(1);\n" +
+				"		String s2 = m(i);\n" +
+				"		String s3 = m(1);\n" +
+				"		System.out.print(s1 + \" \" + s2 + \" \" + s3);\n" +
+				"	}\n" +
+				"}\n"
+			},
+			"long generic long");
+	}
 }
@@ -19,6 +19,8 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
 import org.eclipse.jdt.core.tests.compiler.CharDeduplicationTest;
+import org.eclipse.jdt.core.tests.compiler.JrtBinaryTypeCacheTest;
+import org.eclipse.jdt.core.tests.compiler.PackageIndexCacheTest;
 import org.eclipse.jdt.core.tests.compiler.DeduplicationUtilTest;
 import org.eclipse.jdt.core.tests.compiler.map.CharArrayMapperTest;
 import org.eclipse.jdt.core.tests.junit.extension.TestCase;
@@ -234,6 +236,8 @@ private static Class[] getAllTestClasses() {
 		CharArrayMapperTest.class,
 
 		CharDeduplicationTest.class,
+		JrtBinaryTypeCacheTest.class,
+		PackageIndexCacheTest.class,
 
 		DeduplicationUtilTest.class,
 	};
@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.core.tests.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import org.eclipse.jdt.core.search.SearchPattern;
+import org.eclipse.jdt.core.tests.junit.extension.TestCase;
+import org.eclipse.jdt.internal.core.index.DiskIndex;
+import org.eclipse.jdt.internal.core.index.EntryResult;
+import org.eclipse.jdt.internal.core.index.FileIndexLocation;
+import org.eclipse.jdt.internal.core.index.Index;
+
+/**
+ * Queries of the large category tables of a {@link DiskIndex}, whose words are read by blocks or located by their
+ * n-grams, compared with the words of the table matching the same query.
+ */
+public class DiskIndexTests extends TestCase {
+
+	// as many words as a large category table of DiskIndex
+	private static final int LARGE_TABLE_SIZE = 20000;
+	private static final char[] CATEGORY = "typeDecl".toCharArray();
+	private static final String[] PARTS = { "Abstract", "Array", "Buffer", "Concurrent", "Hash", "List", "Map", "Node",
+			"Reader", "Set", "Tree", "Writer", "a", "x", "\u00e9", "_", "$" };
+
+	private File indexFile;
+	private Map<String, String> words; // word -> document
+
+	public DiskIndexTests(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return new TestSuite(DiskIndexTests.class);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		this.indexFile = File.createTempFile("DiskIndexTests", ".index");
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		this.indexFile.delete();
+		super.tearDown();
+	}
+
+	/**
+	 * Write an index with a table of the given number of words, half of them merged into the saved index.
+	 */
+	private Index writeIndex(int size) throws IOException {
+		Index index = new Index(new FileIndexLocation(this.indexFile), "container", false);
+		Random random = new Random(size);
+		this.words = new TreeMap<>();
+		while (this.words.size() < size) {
+			StringBuilder word = new StringBuilder();
+			for (int parts = 1 + random.nextInt(4); parts > 0; parts--)
+				word.append(PARTS[random.nextInt(PARTS.length)]);
+			word.append('/').append("p").append(random.nextInt(10));
+			String document = "D" + this.words.size() / 20 + ".java"; // not indexed again by the second half
+			if (this.words.putIfAbsent(word.toString(), document) != null)
+				continue;
+			index.addIndexEntry(CATEGORY, word.toString().toCharArray(), document);
+			if (this.words.size() == size / 2)
+				index.save();
+		}
+		index.save();
+		return new Index(new FileIndexLocation(this.indexFile), "container", true);
+	}
+
+	private void assertQuery(Index index, String key, int matchRule) throws IOException {
+		StringBuilder expected = new StringBuilder();
+		for (Map.Entry<String, String> entry : this.words.entrySet())
+			if (Index.isMatch(key.toCharArray(), entry.getKey().toCharArray(), matchRule))
+				expected.append(entry.getKey()).append(" in ").append(entry.getValue()).append('\n');
+		Map<String, String> results = new TreeMap<>();
+		index.startQuery();
+		try {
+			EntryResult[] entries = index.query(new char[][] { CATEGORY }, key.toCharArray(), matchRule);
+			if (entries != null)
+				for (EntryResult entry : entries)
+					results.put(new String(entry.getWord()), String.join(", ", entry.getDocumentNames(index)));
+		} finally {
+			index.stopQuery();
+		}
+		StringBuilder actual = new StringBuilder();
+		for (Map.Entry<String, String> result : results.entrySet())
+			actual.append(result.getKey()).append(" in ").append(result.getValue()).append('\n');
+		assertEquals("Unexpected words for " + key + " with rule " + matchRule, expected.toString(), actual.toString());
+	}
+
+	/**
+	 * Query the words of a large table, whose words are read from the blocks of their prefix only, with the first,
+	 * last and every 13th word, in any case, and with keys matching words of many blocks.
+	 */
+	public void testExactQueries() throws IOException {
+		Index index = writeIndex(LARGE_TABLE_SIZE);
+		String[] sorted = this.words.keySet().toArray(new String[0]);
+		for (int i = 0, l = sorted.length; i < l; i++) {
+			if (i % 13 != 0 && i != l - 1)
+				continue;
+			assertQuery(index, sorted[i], SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE);
+			if (i % 91 == 0) {
+				assertQuery(index, sorted[i].toUpperCase(), SearchPattern.R_EXACT_MATCH);
+				assertQuery(index, sorted[i].toLowerCase(), SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE);
+			}
+		}
+		assertQuery(index, "NoSuchWord/p0", SearchPattern.R_EXACT_MATCH);
+		assertQuery(index, "", SearchPattern.R_EXACT_MATCH);
+	}
+
+	public void testPrefixAndPatternQueries() throws IOException {
+		Index index = writeIndex(LARGE_TABLE_SIZE);
+		int[] rules = {
+				SearchPattern.R_EXACT_MATCH,
+				SearchPattern.R_PREFIX_MATCH,
+				SearchPattern.R_PREFIX_MATCH | SearchPattern.R_CASE_SENSITIVE,
+				SearchPattern.R_PATTERN_MATCH,
+				SearchPattern.R_PATTERN_MATCH | SearchPattern.R_CASE_SENSITIVE,
+				SearchPattern.R_CAMELCASE_MATCH,
+				SearchPattern.R_CAMELCASE_MATCH | SearchPattern.R_CASE_SENSITIVE,
+				SearchPattern.R_CAMELCASE_SAME_PART_COUNT_MATCH };
+		String[] keys = { "a", "A", "Abstract", "abstract", "AbstractHash", "ABSTRACTHASHMAP", "Hash", "Writer/",
+				"x", "$", "\u00e9", "\u00c9", "_", "Zzz", "HashMap/p1", "Hash*", "hash*map*", "*Map/p1", "A?ray*", "?x*",
+				"Abstract*Node*", "*", "AH", "HM", "AbHa", "WR", "aB" };
+		for (int rule : rules)
+			for (String key : keys)
+				assertQuery(index, key, rule);
+	}
+
+	private void assertSubstringQueries(Index index) throws IOException {
+		int[] rules = {
+				SearchPattern.R_SUBSTRING_MATCH,
+				SearchPattern.R_SUBSTRING_MATCH | SearchPattern.R_CASE_SENSITIVE,
+				SearchPattern.R_SUBSTRING_MATCH | SearchPattern.R_PREFIX_MATCH,
+				SearchPattern.R_SUBWORD_MATCH,
+				SearchPattern.R_SUBWORD_MATCH | SearchPattern.R_CASE_SENSITIVE,
+				SearchPattern.R_SUBWORD_MATCH | SearchPattern.R_PREFIX_MATCH,
+				SearchPattern.R_SUBSTRING_MATCH | SearchPattern.R_PATTERN_MATCH,
+				SearchPattern.R_SUBWORD_MATCH | SearchPattern.R_CAMELCASE_MATCH };
+		String[] keys = { "a", "X", "\u00c9", "$", "ab", "hash", "HashMap", "mapnode", "treeset/p3", "rea", "qqq",
+				"\u00e9a", "Abstract_", "a*", "map_list" };
+		for (int rule : rules)
+			for (String key : keys)
+				assertQuery(index, key, rule);
+	}
+
+	public void testSubstringQueries() throws IOException {
+		boolean ngramIndex = DiskIndex.NGRAM_INDEX;
+		DiskIndex.NGRAM_INDEX = true;
+		try {
+			assertSubstringQueries(writeIndex(LARGE_TABLE_SIZE));
+		} finally {
+			DiskIndex.NGRAM_INDEX = ngramIndex;
+		}
+	}
+
+	public void testSubstringQueriesWithoutNgrams() throws IOException {
+		boolean ngramIndex = DiskIndex.NGRAM_INDEX;
+		DiskIndex.NGRAM_INDEX = false;
+		try {
+			assertSubstringQueries(writeIndex(LARGE_TABLE_SIZE));
+		} finally {
+			DiskIndex.NGRAM_INDEX = ngramIndex;
+		}
+	}
+
+	public void testSubstringQueriesSmallTable() throws IOException {
+		boolean ngramIndex = DiskIndex.NGRAM_INDEX;
+		DiskIndex.NGRAM_INDEX = true;
+		try {
+			assertSubstringQueries(writeIndex(LARGE_TABLE_SIZE / 10));
+		} finally {
+			DiskIndex.NGRAM_INDEX = ngramIndex;
+		}
+	}
+}
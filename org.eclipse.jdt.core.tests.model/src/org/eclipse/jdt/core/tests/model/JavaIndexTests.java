@@ -18,6 +18,7 @@ import java.io.IOException;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.zip.CRC32;
 
 import junit.framework.Test;
@@ -930,4 +931,66 @@ public class JavaIndexTests extends AbstractJavaSearchTests  {
 			ClasspathEntry.setSharedIndexLocation(null, getClass());
 		}
 	}
+
+	// Test that the index of a jar is reused for a copy of this jar through the jar index cache
+	public void testJarIndexCache() throws CoreException, IOException {
+		File cacheDir = Files.createTempDirectory("jar_index_cache").toFile().getCanonicalFile();
+		IndexManager.setJarIndexCache(cacheDir.getPath(), getClass());
+		File jarsDir = Files.createTempDirectory("jars").toFile().getCanonicalFile();
+		File jar1 = new File(new File(jarsDir, "1"), "Test.jar");
+		File jar2 = new File(new File(jarsDir, "2"), "Test.jar");
+		File otherJar = new File(new File(jarsDir, "3"), "Test.jar");
+		File cachedIndexDir = new File(cacheDir, DiskIndex.INDEX_VERSION);
+		try {
+			jar1.getParentFile().mkdirs();
+			jar2.getParentFile().mkdirs();
+			otherJar.getParentFile().mkdirs();
+			createJar(new String[] {
+					"pkg/Test.java",
+					"package pkg;\n" +
+					"public class Test {\n" +
+					"  protected Test(int i) {}\n" +
+					"}"}, jar1.getPath());
+			createJar(new String[] {
+					"pkg/Other.java",
+					"package pkg;\n" +
+					"public class Other {\n" +
+					"}"}, otherJar.getPath());
+
+			IJavaProject p1 = createJavaProject("P1");
+			setClasspath(p1, new IClasspathEntry[] { JavaCore.newLibraryEntry(new Path(jar1.getPath()), null, null) });
+			waitUntilIndexesReady();
+
+			// the index of the jar was cached
+			File[] cachedIndexes = cachedIndexDir.listFiles((dir, name) -> name.endsWith(".index"));
+			assertEquals("Unexpected cached indexes", 1, cachedIndexes.length);
+			File cachedIndex = cachedIndexes[0];
+
+			// the cached index of the jar is replaced by the index of another jar, so that only a cache hit lists Other
+			IJavaProject p3 = createJavaProject("P3");
+			setClasspath(p3, new IClasspathEntry[] { JavaCore.newLibraryEntry(new Path(otherJar.getPath()), null, null) });
+			waitUntilIndexesReady();
+			cachedIndexes = cachedIndexDir.listFiles((dir, name) -> name.endsWith(".index") && !name.equals(cachedIndex.getName()));
+			assertEquals("Unexpected cached indexes", 1, cachedIndexes.length);
+			Files.copy(cachedIndexes[0].toPath(), cachedIndex.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+			// a copy of the jar at another location uses the cached index
+			Files.copy(jar1.toPath(), jar2.toPath());
+			IJavaProject p2 = createJavaProject("P2");
+			Path libPath = new Path(jar2.getPath());
+			setClasspath(p2, new IClasspathEntry[] { JavaCore.newLibraryEntry(libPath, null, null) });
+			waitUntilIndexesReady();
+
+			Index index = JavaModelManager.getIndexManager().getIndex(libPath, false, false);
+			assertNotNull("Missing index", index);
+			assertEquals("Cached index was not used", "pkg/Other.class", String.join(",", index.queryDocumentNames("")));
+		} finally {
+			deleteProject("P1");
+			deleteProject("P2");
+			deleteProject("P3");
+			IndexManager.setJarIndexCache(null, getClass());
+			Util.delete(cacheDir);
+			Util.delete(jarsDir);
+		}
+	}
 }
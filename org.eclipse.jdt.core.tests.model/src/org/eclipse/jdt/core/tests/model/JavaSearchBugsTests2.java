@@ -2890,6 +2890,63 @@ public class JavaSearchBugsTests2 extends AbstractJavaSearchTests {
 		return buffer.toByteArray();
 	}
 
+	/**
+	 * The matches of a project with more than MatchLocator.MAX_AT_ONCE possible matches, located on several threads,
+	 * are the ones located on a single thread, reported in the same order.
+	 */
+	public void testParallelMatchLocator() throws CoreException {
+		int threads = MatchLocator.LOCATE_THREADS;
+		try {
+			IJavaProject project = createJavaProject("P", new String[] {"src"}, new String[] {"JCL15_LIB"}, "bin", "1.5");
+			int count = MatchLocator.MAX_AT_ONCE * 2 + 7;
+			org.eclipse.core.resources.IWorkspaceRunnable create = monitor -> {
+				createFolder("/P/src/p");
+				createFile("/P/src/p/Base.java",
+					"package p;\n" +
+					"public class Base {\n" +
+					"	void bar(int i) {}\n" +
+					"}\n");
+				for (int i = 0; i < count; i++)
+					createFile("/P/src/p/X" + i + ".java",
+						"package p;\n" +
+						"public class X" + i + " extends Base {\n" +
+						"	void foo() {\n" +
+						"		bar(" + i + ");\n" +
+						"		new X" + (i + 1) % count + "().bar(0);\n" +
+						"	}\n" +
+						"}\n");
+			};
+			getWorkspace().run(create, null);
+			waitUntilIndexesReady();
+			IJavaSearchScope scope = SearchEngine.createJavaSearchScope(new IJavaElement[] {project});
+
+			String[] serial = new String[2];
+			for (int run = 0; run < 2; run++) {
+				MatchLocator.LOCATE_THREADS = run == 0 ? 1 : 4;
+				this.resultCollector = new TestCollector();
+				this.resultCollector.showAccuracy(true);
+				search("bar", IJavaSearchConstants.METHOD, IJavaSearchConstants.REFERENCES, scope);
+				String references = this.resultCollector.toString();
+				this.resultCollector = new TestCollector();
+				this.resultCollector.showAccuracy(true);
+				search("Base", IJavaSearchConstants.TYPE, IJavaSearchConstants.REFERENCES, scope);
+				String typeReferences = this.resultCollector.toString();
+				if (run == 0) {
+					assertEquals("Unexpected number of method references", 2 * count, references.split("\n").length);
+					assertEquals("Unexpected number of type references", count, typeReferences.split("\n").length);
+					serial[0] = references;
+					serial[1] = typeReferences;
+				} else {
+					assertEquals("Unexpected method references on 4 threads", serial[0], references);
+					assertEquals("Unexpected type references on 4 threads", serial[1], typeReferences);
+				}
+			}
+		} finally {
+			MatchLocator.LOCATE_THREADS = threads;
+			deleteProject("P");
+		}
+	}
+
 	private void assertUTF8Encoding() {
 		String fileEncodingVMProperty = System.getProperty("file.encoding");
 		Charset defaultCharset = Charset.defaultCharset();
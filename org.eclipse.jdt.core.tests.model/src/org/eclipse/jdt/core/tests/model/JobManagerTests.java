@@ -0,0 +1,215 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.core.tests.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.core.tests.junit.extension.TestCase;
+import org.eclipse.jdt.internal.core.search.processing.IJob;
+import org.eclipse.jdt.internal.core.search.processing.JobManager;
+
+/**
+ * Jobs of a {@link JobManager} run at once on several threads, see <code>org.eclipse.jdt.indexing_threads</code>.
+ */
+public class JobManagerTests extends TestCase {
+
+	private static final String THREADS_PROPERTY = "org.eclipse.jdt.indexing_threads";
+	private static final long TIMEOUT = 10000;
+
+	private JobManager jobManager;
+
+	static class TestJob implements IJob {
+		final String family;
+		final boolean concurrent;
+		final CountDownLatch started;
+		final CountDownLatch release;
+		final List<String> events;
+		volatile Thread thread;
+
+		TestJob(String family, boolean concurrent, CountDownLatch started, CountDownLatch release, List<String> events) {
+			this.family = family;
+			this.concurrent = concurrent;
+			this.started = started;
+			this.release = release;
+			this.events = events;
+		}
+		@Override
+		public boolean belongsTo(String jobFamily) {
+			return this.family.equals(jobFamily);
+		}
+		@Override
+		public void cancel() {
+			// nothing to cancel
+		}
+		@Override
+		public void ensureReadyToRun() {
+			// always ready
+		}
+		@Override
+		public boolean execute(IProgressMonitor progress) {
+			this.thread = Thread.currentThread();
+			this.events.add("start " + this.family);
+			if (this.started != null)
+				this.started.countDown();
+			try {
+				if (this.release != null)
+					this.release.await(TIMEOUT, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				// done
+			}
+			this.events.add("end " + this.family);
+			return true;
+		}
+		@Override
+		public String getJobFamily() {
+			return this.family;
+		}
+		@Override
+		public boolean canRunConcurrently() {
+			return this.concurrent;
+		}
+		@Override
+		public String toString() {
+			return this.family;
+		}
+	}
+
+	public JobManagerTests(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return new TestSuite(JobManagerTests.class);
+	}
+
+	private void startJobManager(int threads) {
+		String previous = System.setProperty(THREADS_PROPERTY, Integer.toString(threads));
+		try {
+			this.jobManager = new JobManager() {
+				@Override
+				public String processName() {
+					return "JobManagerTests";
+				}
+			};
+		} finally {
+			if (previous == null)
+				System.clearProperty(THREADS_PROPERTY);
+			else
+				System.setProperty(THREADS_PROPERTY, previous);
+		}
+		this.jobManager.reset();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		if (this.jobManager != null)
+			this.jobManager.shutdown();
+		super.tearDown();
+	}
+
+	private void waitUntilDone() throws InterruptedException {
+		long start = System.currentTimeMillis();
+		while (this.jobManager.awaitingJobsCount() > 0) {
+			assertTrue("Jobs not completed", System.currentTimeMillis() - start < TIMEOUT);
+			Thread.sleep(10);
+		}
+	}
+
+	/*
+	 * Jobs of different families run at once, jobs of a family run in order.
+	 */
+	public void testConcurrentJobs() throws InterruptedException {
+		startJobManager(3);
+		CountDownLatch started = new CountDownLatch(3);
+		CountDownLatch release = new CountDownLatch(1);
+		List<String> events = Collections.synchronizedList(new ArrayList<>());
+		TestJob[] jobs = {
+			new TestJob("a", true, started, release, events),
+			new TestJob("b", true, started, release, events),
+			new TestJob("c", true, started, release, events),
+		};
+		for (TestJob job : jobs)
+			this.jobManager.request(job);
+		this.jobManager.request(new TestJob("a", true, null, null, events));
+		assertTrue("Jobs not run at once", started.await(TIMEOUT, TimeUnit.MILLISECONDS));
+		assertNotSame("Jobs run on the same thread", jobs[0].thread, jobs[1].thread);
+		assertNotSame("Jobs run on the same thread", jobs[1].thread, jobs[2].thread);
+		release.countDown();
+		waitUntilDone();
+		assertEquals("Wrong number of events", 8, events.size());
+		assertTrue("Job of the same family run at once", events.lastIndexOf("start a") > events.indexOf("end a"));
+	}
+
+	/*
+	 * A job which can not run concurrently runs alone.
+	 */
+	public void testJobRunAlone() throws InterruptedException {
+		startJobManager(3);
+		List<String> events = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		this.jobManager.request(new TestJob("a", true, started, release, events));
+		this.jobManager.request(new TestJob("b", false, null, null, events));
+		this.jobManager.request(new TestJob("c", true, null, null, events));
+		assertTrue("Job not started", started.await(TIMEOUT, TimeUnit.MILLISECONDS));
+		release.countDown();
+		waitUntilDone();
+		int startB = events.indexOf("start b");
+		int endB = events.indexOf("end b");
+		assertEquals("Job run at once with another one", startB + 1, endB);
+		assertTrue("Jobs run out of order", events.indexOf("end a") < startB && endB < events.indexOf("start c"));
+	}
+
+	/*
+	 * While a client waits for the jobs to be done, the threads running them get the priority of the client.
+	 */
+	public void testPriorityWhileClientWaits() throws InterruptedException {
+		startJobManager(2);
+		CountDownLatch started = new CountDownLatch(2);
+		CountDownLatch release = new CountDownLatch(1);
+		List<String> events = Collections.synchronizedList(new ArrayList<>());
+		TestJob first = new TestJob("a", true, started, release, events);
+		TestJob second = new TestJob("b", true, started, release, events);
+		this.jobManager.request(first);
+		this.jobManager.request(second);
+		assertTrue("Jobs not run at once", started.await(TIMEOUT, TimeUnit.MILLISECONDS));
+		Thread poolThread = second.thread;
+		assertEquals("Wrong priority", Thread.NORM_PRIORITY - 1, poolThread.getPriority());
+
+		int clientPriority = Thread.NORM_PRIORITY + 1;
+		Thread client = new Thread(() -> this.jobManager.performConcurrentJob(
+				new TestJob("search", false, null, null, events), IJob.WaitUntilReady, null));
+		client.setPriority(clientPriority);
+		client.start();
+		long start = System.currentTimeMillis();
+		while (poolThread.getPriority() != clientPriority && System.currentTimeMillis() - start < TIMEOUT)
+			Thread.sleep(10);
+		assertEquals("Priority of the pool thread not raised", clientPriority, poolThread.getPriority());
+		assertEquals("Priority of the processing thread not raised", clientPriority, first.thread.getPriority());
+
+		release.countDown();
+		client.join(TIMEOUT);
+		assertFalse("Client still waiting", client.isAlive());
+		assertEquals("Priority of the pool thread not restored", Thread.NORM_PRIORITY - 1, poolThread.getPriority());
+		assertTrue("Search not run", events.contains("end search"));
+	}
+}
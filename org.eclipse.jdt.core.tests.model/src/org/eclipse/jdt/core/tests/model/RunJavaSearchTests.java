@@ -75,6 +75,8 @@ public class RunJavaSearchTests extends junit.framework.TestCase {
 		allClasses.add(JavaSearchScopeTests.class);
 		allClasses.add(MatchingRegionsTest.class);
 		allClasses.add(JavaIndexTests.class);
+		allClasses.add(DiskIndexTests.class);
+		allClasses.add(JobManagerTests.class);
 		allClasses.add(Bug376673Test.class);
 		allClasses.add(JavaSearchBug565512Test.class);
 		allClasses.add(JavaSearchNameEnvironmentTest.class);
@@ -801,4 +801,36 @@ public class FullSourceWorkspaceBuildTests extends FullSourceWorkspaceTests {
 		tagAsSummary("Build with Generic Types ", false); // do NOT put in fingerprint
 		compile("GenericsTest.java", 12_629_541, "", "1.8", false /*no log*/ );
 	}
+
+	/**
+	 * Compile a generated source made of stream pipelines and repeated generic method invocations,
+	 * where many invocations share the same method, argument types and target type.
+	 */
+	public void testBuildStreamChains() throws IOException {
+		tagAsSummary("Build Stream Chains ", false); // do NOT put in fingerprint
+		StringBuilder source = new StringBuilder();
+		source.append("import java.util.*;\n");
+		source.append("import java.util.stream.*;\n");
+		source.append("public class StreamChains {\n");
+		for (int i = 0; i < 500; i++) {
+			source.append("	List<String> m").append(i).append("(List<String> in, Map<String, Integer> map) {\n");
+			source.append("		List<String> names = Arrays.asList(\"a\", \"b\", \"c\");\n");
+			source.append("		Set<Integer> ids = new HashSet<>(Arrays.asList(1, 2, 3));\n");
+			source.append("		List<Integer> empty = Collections.emptyList();\n");
+			source.append("		Integer value = Objects.requireNonNull(map.get(\"k\"));\n");
+			source.append("		String joined = String.join(\",\", Collections.unmodifiableList(names));\n");
+			source.append("		Optional<String> first = Optional.of(joined).map(s -> s.trim());\n");
+			source.append("		return in.stream().filter(s -> !s.isEmpty()).map(String::toUpperCase).sorted().collect(Collectors.toList());\n");
+			source.append("	}\n");
+		}
+		source.append("}\n");
+		File file = new File(System.getProperty("java.io.tmpdir"), "StreamChains.java");
+		org.eclipse.jdt.core.tests.util.Util.writeToFile(source.toString(), file.getAbsolutePath());
+		String path = file.getAbsolutePath();
+		if (path.indexOf(" ") > 0) {
+			path = "\"" + path + "\"";
+		}
+		final String targetWorkspacePath = ResourcesPlugin.getWorkspace().getRoot().getLocation().toFile().getCanonicalPath();
+		compile(" " + path, "-nowarn", "", "1.8", false /*no log*/, targetWorkspacePath + File.separator + getName() + ".log");
+	}
 }
@@ -383,6 +383,7 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 	private static final String POST_ACTION_DEBUG = JavaCore.PLUGIN_ID + "/debug/postaction" ; //$NON-NLS-1$
 	private static final String BUILDER_DEBUG = JavaCore.PLUGIN_ID + "/debug/builder" ; //$NON-NLS-1$
 	private static final String BUILDER_STATS_DEBUG = JavaCore.PLUGIN_ID + "/debug/builder/stats" ; //$NON-NLS-1$
+	private static final String BUILDER_TRACE_DEBUG = JavaCore.PLUGIN_ID + "/debug/builder/trace" ; //$NON-NLS-1$
 	private static final String COMPLETION_DEBUG = JavaCore.PLUGIN_ID + "/debug/completion" ; //$NON-NLS-1$
 	private static final String RESOLUTION_DEBUG = JavaCore.PLUGIN_ID + "/debug/resolution" ; //$NON-NLS-1$
 	private static final String SELECTION_DEBUG = JavaCore.PLUGIN_ID + "/debug/selection" ; //$NON-NLS-1$
@@ -1863,6 +1864,7 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 				JavaBuilder.DEBUG = debug && options.getBooleanOption(BUILDER_DEBUG, false);
 				Compiler.DEBUG = debug && options.getBooleanOption(COMPILER_DEBUG, false);
 				JavaBuilder.SHOW_STATS = debug && options.getBooleanOption(BUILDER_STATS_DEBUG, false);
+				JavaBuilder.TRACE = debug && options.getBooleanOption(BUILDER_TRACE_DEBUG, false);
 				CompletionEngine.DEBUG = debug && options.getBooleanOption(COMPLETION_DEBUG, false);
 				JavaModelManager.CP_RESOLVE_VERBOSE = debug && options.getBooleanOption(CP_RESOLVE_DEBUG, false);
 				JavaModelManager.CP_RESOLVE_VERBOSE_ADVANCED = debug && options.getBooleanOption(CP_RESOLVE_ADVANCED_DEBUG, false);
@@ -2257,17 +2259,19 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 			return null; // should never be requested on non-Java projects
 		}
 		PerProjectInfo info = getPerProjectInfo(project, true/*create if missing*/);
-		if (!info.triedRead) {
-			info.triedRead = true;
-			try {
-				if (monitor != null)
-					monitor.subTask(Messages.bind(Messages.build_readStateProgress, project.getName()));
-				info.savedState = readState(project);
-			} catch (CoreException e) {
-				Util.log(e, "Exception while reading last build state for: " + project); //$NON-NLS-1$
+		synchronized (info) { // projects built concurrently may ask for the state of the same prerequisite
+			if (!info.triedRead) {
+				info.triedRead = true;
+				try {
+					if (monitor != null)
+						monitor.subTask(Messages.bind(Messages.build_readStateProgress, project.getName()));
+					info.savedState = readState(project);
+				} catch (CoreException e) {
+					Util.log(e, "Exception while reading last build state for: " + project); //$NON-NLS-1$
+				}
 			}
+			return info.savedState;
 		}
-		return info.savedState;
 	}
 
 	public String getOption(String optionName) {
@@ -5215,8 +5219,10 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 		if (JavaProject.hasJavaNature(project)) {
 			// should never be requested on non-Java projects
 			PerProjectInfo info = getPerProjectInfo(project, true /*create if missing*/);
-			info.triedRead = true; // no point trying to re-read once using setter
-			info.savedState = state;
+			synchronized (info) {
+				info.triedRead = true; // no point trying to re-read once using setter
+				info.savedState = state;
+			}
 		}
 		if (state == null) { // delete state file to ensure a full build happens if the workspace crashes
 			try {
@@ -61,8 +61,9 @@ private boolean inCompiler;
 
 protected boolean keepStoringProblemMarkers;
 protected Set<SourceFile> filesWithAnnotations = null;
+CompileBatchSizer batchSizer;
 
-//2000 is best compromise between space used and speed
+//2000 is best compromise between space used and speed, groups are smaller when the heap is short, see CompileBatchSizer
 public static int MAX_AT_ONCE = Integer.getInteger(JavaModelManager.MAX_COMPILED_UNITS_AT_ONCE, 2000).intValue();
 public final static String[] JAVA_PROBLEM_MARKER_ATTRIBUTE_NAMES = {
 		IMarker.MESSAGE,
@@ -91,6 +92,7 @@ protected AbstractImageBuilder(JavaBuilder javaBuilder, boolean buildStarting, S
 	this.sourceLocations = this.nameEnvironment.sourceLocations;
 	this.notifier = javaBuilder.notifier;
 	this.keepStoringProblemMarkers = true; // may get disabled when missing classfiles are encountered
+	this.batchSizer = new CompileBatchSizer();
 
 	if (buildStarting) {
 		this.newState = newState == null ? new State(javaBuilder) : newState;
@@ -132,12 +134,18 @@ public void acceptResult(CompilationResult result) {
 	if (!this.workQueue.isCompiled(compilationUnit)) {
 		this.workQueue.finished(compilationUnit);
 
+		BuildTrace trace = this.javaBuilder.trace;
+		long phaseStart = trace == null ? 0 : System.nanoTime();
 		try {
 			updateProblemsFor(compilationUnit, result); // record compilation problems before potentially adding duplicate errors
 			updateTasksFor(compilationUnit, result); // record tasks
 		} catch (CoreException e) {
 			throw internalException(e);
 		}
+		if (trace != null) {
+			trace.record("unit", "updateProblems", phaseStart, "unit", compilationUnit.typeLocator()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			phaseStart = System.nanoTime();
+		}
 
 		if (result.hasInconsistentToplevelHierarchies)
 			// ensure that this file is always retrieved from source for the rest of the build
@@ -203,6 +211,9 @@ public void acceptResult(CompilationResult result) {
 		if (result.hasAnnotations && this.filesWithAnnotations != null) // only initialized if an annotation processor is attached
 			this.filesWithAnnotations.add(compilationUnit);
 
+		if (trace != null)
+			trace.record("unit", "writeClassFiles", phaseStart, "unit", typeLocator, "classFiles", Integer.valueOf(length)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+
 		this.compiler.lookupEnvironment.releaseClassFiles(classFiles);
 		finishedWith(typeLocator, result, compilationUnit.getMainTypeName(), definedTypeNames, duplicateTypeNames);
 		this.notifier.compiled(compilationUnit);
@@ -294,7 +305,11 @@ protected void compile(SourceFile[] units) {
 		this.filesWithAnnotations.clear();
 
 	// notify CompilationParticipants which source files are about to be compiled
+	BuildTrace trace = this.javaBuilder.trace;
+	long phaseStart = trace == null ? 0 : System.nanoTime();
 	CompilationParticipantResult[] participantResults = this.javaBuilder.participants == null ? null : notifyParticipants(units);
+	if (trace != null && participantResults != null)
+		trace.record("participants", "buildStarting", phaseStart, "units", Integer.valueOf(units.length)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 	if (participantResults != null && participantResults.length > units.length) {
 		units = new SourceFile[participantResults.length];
 		for (int i = participantResults.length; --i >= 0;)
@@ -302,7 +317,8 @@ protected void compile(SourceFile[] units) {
 	}
 
 	int unitsLength = units.length;
-	this.compiledAllAtOnce = MAX_AT_ONCE == 0 || unitsLength <= MAX_AT_ONCE;
+	int doNow = this.batchSizer.nextBatchSize(unitsLength);
+	this.compiledAllAtOnce = unitsLength <= doNow;
 	if (this.compiledAllAtOnce) {
 		// do them all now
 		if (JavaBuilder.DEBUG)
@@ -312,11 +328,12 @@ protected void compile(SourceFile[] units) {
 	} else {
 		SourceFile[] remainingUnits = new SourceFile[unitsLength]; // copy of units, removing units when about to compile
 		System.arraycopy(units, 0, remainingUnits, 0, unitsLength);
-		int doNow = unitsLength < MAX_AT_ONCE ? unitsLength : MAX_AT_ONCE;
-		SourceFile[] toCompile = new SourceFile[doNow];
 		int remainingIndex = 0;
 		boolean compilingFirstGroup = true;
 		while (remainingIndex < unitsLength) {
+			if (!compilingFirstGroup)
+				doNow = this.batchSizer.nextBatchSize(unitsLength - remainingIndex);
+			SourceFile[] toCompile = new SourceFile[doNow];
 			int count = 0;
 			while (remainingIndex < unitsLength && count < doNow) {
 				// Although it needed compiling when this method was called, it may have
@@ -345,7 +362,10 @@ protected void compile(SourceFile[] units) {
 			if (participantResults[i] != null)
 				recordParticipantResult(participantResults[i]);
 
+		phaseStart = trace == null ? 0 : System.nanoTime();
 		processAnnotations(participantResults);
+		if (trace != null)
+			trace.record("participants", "processAnnotations", phaseStart, "units", Integer.valueOf(participantResults.length)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 	}
 }
 
@@ -374,14 +394,21 @@ protected void compile(SourceFile[] units, SourceFile[] additionalUnits, boolean
 	}
 	this.nameEnvironment.setNames(initialTypeNames, additionalUnits);
 	this.notifier.checkCancel();
+	long phaseStart = System.nanoTime();
 	try {
 		this.inCompiler = true;
+		this.batchSizer.batchStarting();
 		this.compiler.compile(units);
 	} catch (AbortCompilation ignored) {
 		// ignore the AbortCompilcation coming from BuildNotifier.checkCancelWithinCompiler()
 		// the Compiler failed after the user has chose to cancel... likely due to an OutOfMemory error
 	} finally {
+		this.batchSizer.batchFinished(units.length);
 		this.inCompiler = false;
+		// the class files and problems of the units are recorded within this phase, see acceptResult()
+		if (this.javaBuilder.trace != null)
+			this.javaBuilder.trace.record("compiler", "compile", phaseStart, //$NON-NLS-1$ //$NON-NLS-2$
+				"units", Integer.valueOf(units.length), "firstGroup", Boolean.valueOf(compilingFirstGroup)); //$NON-NLS-1$ //$NON-NLS-2$
 	}
 	// Check for cancel immediately after a compile, because the compiler may
 	// have been cancelled but without propagating the correct exception
@@ -490,6 +517,13 @@ public ICompilationUnit fromIFile(IFile file) {
 	return findSourceFile(file, true);
 }
 
+@Override
+public boolean hasCurrentClassFiles(IFile file) {
+	SourceFile sourceFile = findSourceFile(file, true);
+	// the references of a source file are removed along with its class files, and recorded when it is compiled
+	return sourceFile != null && this.newState.references.containsKey(sourceFile.typeLocator());
+}
+
 protected void initializeAnnotationProcessorManager(Compiler newCompiler) {
 	AbstractAnnotationProcessorManager annotationManager = JavaModelManager.getJavaModelManager().createAnnotationProcessorManager();
 	if (annotationManager != null) {
@@ -657,9 +691,7 @@ protected void recordParticipantResult(CompilationParticipantResult result) {
 
 	String[] dependencies = result.dependencies;
 	if (dependencies != null) {
-		ReferenceCollection refs = this.newState.references.get(result.sourceFile.typeLocator());
-		if (refs != null)
-			refs.addDependencies(dependencies);
+		this.newState.recordDependencies(result.sourceFile.typeLocator(), dependencies);
 	}
 }
 
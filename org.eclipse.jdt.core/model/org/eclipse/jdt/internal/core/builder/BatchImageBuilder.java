@@ -96,6 +96,30 @@ public void build() {
 	}
 }
 
+/**
+ * Seed the output folders from the given cache entry instead of compiling the source files.
+ */
+void importFromCache(BuildStateCache cache) {
+	try {
+		this.notifier.subTask(Messages.bind(Messages.build_cleaningOutput, this.javaBuilder.currentProject.getName()));
+		if (this.compilationGroup != CompilationGroup.TEST) {
+			JavaBuilder.removeProblemsAndTasksFor(this.javaBuilder.currentProject);
+		}
+		cleanOutputFolders(false);
+		this.notifier.updateProgressDelta(0.05f);
+
+		this.notifier.subTask(Messages.build_copyingResources);
+		for (int i = 0, l = this.sourceLocations.length; i < l; i++) {
+			cache.importOutputFolder(this.sourceLocations[i].binaryFolder);
+			this.notifier.checkCancel();
+		}
+	} catch (CoreException e) {
+		throw internalException(e);
+	} finally {
+		cleanUp();
+	}
+}
+
 @Override
 protected void acceptSecondaryType(ClassFile classFile) {
 	if (this.secondaryTypes != null)
@@ -297,6 +321,7 @@ private void printStats() {
 	System.out.print(", resolve: " + compilerStats.resolveTime + " ms (" + ((int) (compilerStats.resolveTime * 1000.0 / time)) / 10.0 + "%)"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 	System.out.print(", analyze: " + compilerStats.analyzeTime + " ms (" + ((int) (compilerStats.analyzeTime * 1000.0 / time)) / 10.0 + "%)"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 	System.out.println(", generate: " + compilerStats.generateTime + " ms (" + ((int) (compilerStats.generateTime * 1000.0 / time)) / 10.0 + "%)"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	System.out.println(">   " + this.batchSizer); //$NON-NLS-1$
 }
 
 @Override
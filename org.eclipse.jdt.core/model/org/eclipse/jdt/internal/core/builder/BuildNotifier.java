@@ -49,8 +49,10 @@ private static final int millisecondsBeforeInterruptAutoBuild = Integer
 private BooleanSupplier interruptSupplier;
 private long startTimeNanos;
 private int buildKind;
+// the counts of the build cycle when this notifier was created, projects built concurrently only add their own counts
+private int[] initialCounts;
 
-public static void resetProblemCounters() {
+public static synchronized void resetProblemCounters() {
 	NewErrorCount = 0;
 	FixedErrorCount = 0;
 	NewWarningCount = 0;
@@ -62,10 +64,13 @@ public BuildNotifier(IProgressMonitor monitor, int buildKind, BooleanSupplier in
 	this.buildKind = buildKind;
 	this.interruptSupplier = interruptSupplier;
 	this.cancelling = false;
-	this.newErrorCount = NewErrorCount;
-	this.fixedErrorCount = FixedErrorCount;
-	this.newWarningCount = NewWarningCount;
-	this.fixedWarningCount = FixedWarningCount;
+	synchronized (BuildNotifier.class) {
+		this.newErrorCount = NewErrorCount;
+		this.fixedErrorCount = FixedErrorCount;
+		this.newWarningCount = NewWarningCount;
+		this.fixedWarningCount = FixedWarningCount;
+	}
+	this.initialCounts = new int[] {this.newErrorCount, this.fixedErrorCount, this.newWarningCount, this.fixedWarningCount};
 	this.workDone = 0;
 	this.totalWork = 1000000;
 	this.startTimeNanos = System.nanoTime();
@@ -142,10 +147,12 @@ public void compiled(SourceFile unit) {
 }
 
 public void done() {
-	NewErrorCount = this.newErrorCount;
-	FixedErrorCount = this.fixedErrorCount;
-	NewWarningCount = this.newWarningCount;
-	FixedWarningCount = this.fixedWarningCount;
+	synchronized (BuildNotifier.class) {
+		NewErrorCount += this.newErrorCount - this.initialCounts[0];
+		FixedErrorCount += this.fixedErrorCount - this.initialCounts[1];
+		NewWarningCount += this.newWarningCount - this.initialCounts[2];
+		FixedWarningCount += this.fixedWarningCount - this.initialCounts[3];
+	}
 
 	updateProgress(1.0f);
 	subTask(Messages.build_done);
@@ -0,0 +1,343 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.builder;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.internal.core.util.Util;
+
+/**
+ * Local, content addressed cache of built states and their output folders, which lets a fresh workspace start
+ * from the result of a full build done elsewhere, for instance by another workspace or CI agent sharing the directory.
+ * <p>
+ * The cache is opt-in: it is only used when the system property {@value #DIRECTORY_PROPERTY} names a directory.
+ * A full build then looks for an entry keyed by the hash of everything the build depends on: the compiler options,
+ * the files of the source folders and the contents of the classpath. When one is found, the output folders and the
+ * state are copied from it instead of compiling, and the next builds are incremental as usual. Otherwise the project
+ * is built, and the result is added to the cache if the build did not report any problem or task, since markers are
+ * not part of an entry.
+ * </p><p>
+ * Entries are written to a temporary directory which is then renamed, so concurrent builders only ever see complete
+ * entries, and are never modified afterwards. Locations outside the workspace are keyed by their path along with
+ * their contents, so only workspaces with the same layout share entries. Projects with compilation participants
+ * are never cached, since participants may generate or depend on any file.
+ * </p><p>
+ * The hashes of the jars are remembered for the life of the VM while their size and modification time are unchanged,
+ * so that the projects of a workspace sharing the same libraries and JDK do not read them again.
+ * </p>
+ */
+class BuildStateCache {
+
+static final String DIRECTORY_PROPERTY = "org.eclipse.jdt.core.builder.stateCache"; //$NON-NLS-1$
+private static final String STATE_FILE = "state"; //$NON-NLS-1$
+private static final String OUTPUT_DIRECTORY = "output"; //$NON-NLS-1$
+
+private static final class JarHash {
+	final long length;
+	final long lastModified;
+	final byte[] hash;
+
+	JarHash(long length, long lastModified, byte[] hash) {
+		this.length = length;
+		this.lastModified = lastModified;
+		this.hash = hash;
+	}
+}
+private static final Map<String, JarHash> JAR_HASHES = new ConcurrentHashMap<>();
+
+private final IProject project;
+private final File entry;
+private final Set<IContainer> importedFolders;
+
+private BuildStateCache(IProject project, File entry) {
+	this.project = project;
+	this.entry = entry;
+	this.importedFolders = new HashSet<>(3);
+}
+
+/**
+ * Answer the cache entry of the project about to be fully built by the given builder,
+ * or null if the cache is disabled or can not be used for this project.
+ */
+static BuildStateCache forBuilder(JavaBuilder javaBuilder) {
+	String directory = System.getProperty(DIRECTORY_PROPERTY);
+	if (directory == null || directory.isEmpty() || (javaBuilder.participants != null && javaBuilder.participants.length > 0))
+		return null;
+	try {
+		String key = computeKey(javaBuilder);
+		if (JavaBuilder.DEBUG)
+			System.out.println("JavaBuilder: Build state cache key of " + javaBuilder.currentProject.getName() + " is " + key); //$NON-NLS-1$ //$NON-NLS-2$
+		return new BuildStateCache(javaBuilder.currentProject, new File(directory, key));
+	} catch (CoreException | IOException | NoSuchAlgorithmException e) {
+		Util.log(e, "JavaBuilder could not compute the build state cache key of " + javaBuilder.currentProject.getName()); //$NON-NLS-1$
+		return null;
+	}
+}
+
+private static String computeKey(JavaBuilder javaBuilder) throws CoreException, IOException, NoSuchAlgorithmException {
+	MessageDigest digest = MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+	update(digest, String.valueOf(State.VERSION));
+	update(digest, javaBuilder.currentProject.getName());
+	for (Map.Entry<String, String> option : new TreeMap<>(javaBuilder.javaProject.getOptions(true)).entrySet()) {
+		update(digest, option.getKey());
+		update(digest, option.getValue());
+	}
+
+	NameEnvironment[] environments = {javaBuilder.nameEnvironment, javaBuilder.testNameEnvironment};
+	// output folders are skipped when walking source folders which contain them
+	Set<IPath> outputFolders = new HashSet<>();
+	for (NameEnvironment environment : environments)
+		for (ClasspathMultiDirectory sourceLocation : environment.sourceLocations)
+			if (sourceLocation.hasIndependentOutputFolder)
+				outputFolders.add(sourceLocation.binaryFolder.getFullPath());
+
+	for (NameEnvironment environment : environments) {
+		for (ClasspathMultiDirectory sourceLocation : environment.sourceLocations) {
+			update(digest, sourceLocation.sourceFolder.getFullPath().toString());
+			update(digest, sourceLocation.binaryFolder.getFullPath().toString());
+			updateWithFiles(digest, sourceLocation.sourceFolder, sourceLocation.inclusionPatterns, sourceLocation.exclusionPatterns, outputFolders, false);
+		}
+		for (ClasspathLocation location : environment.binaryLocations) {
+			if (location instanceof ClasspathMultiDirectory)
+				continue; // output folders of the project itself
+			update(digest, location.getClass().getName());
+			if (location instanceof ClasspathDirectory) {
+				IContainer folder = ((ClasspathDirectory) location).binaryFolder;
+				update(digest, folder.getFullPath().toString());
+				updateWithFiles(digest, folder, null, null, outputFolders, true);
+			} else if (location instanceof ClasspathJar) {
+				String zipFilename = ((ClasspathJar) location).zipFilename;
+				update(digest, zipFilename);
+				File file = new File(zipFilename);
+				if (file.isFile())
+					digest.update(getJarHash(file));
+			} else {
+				update(digest, location.debugPathString()); // the JDK images are only keyed by their path
+			}
+		}
+	}
+
+	StringBuilder key = new StringBuilder();
+	for (byte b : digest.digest())
+		key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+	return key.toString();
+}
+
+/**
+ * Hash the files of the given container. Class files are only hashed in class folders, source folders may be
+ * the output folder of the project.
+ */
+private static void updateWithFiles(MessageDigest digest, IContainer container, char[][] inclusionPatterns,
+		char[][] exclusionPatterns, Set<IPath> skippedFolders, boolean isClassFolder) throws CoreException, IOException {
+	if (!container.exists())
+		return;
+	int segmentCount = container.getFullPath().segmentCount();
+	TreeMap<String, IFile> files = new TreeMap<>(); // walking order is not specified, hash the files in a stable order
+	container.accept(
+		proxy -> {
+			IPath fullPath = proxy.requestFullPath();
+			if (proxy.getType() == IResource.FILE) {
+				if ((isClassFolder || !org.eclipse.jdt.internal.compiler.util.Util.isClassFileName(proxy.getName()))
+						&& !Util.isExcluded(fullPath, inclusionPatterns, exclusionPatterns, false))
+					files.put(fullPath.removeFirstSegments(segmentCount).toString(), (IFile) proxy.requestResource());
+				return false;
+			}
+			if (skippedFolders.contains(fullPath) && !fullPath.equals(container.getFullPath()))
+				return false;
+			if (exclusionPatterns != null && inclusionPatterns == null) // must walk children if inclusionPatterns != null
+				if (Util.isExcluded(fullPath, null, exclusionPatterns, true))
+					return false;
+			return true;
+		},
+		IResource.NONE
+	);
+	for (Map.Entry<String, IFile> file : files.entrySet()) {
+		update(digest, file.getKey());
+		try (InputStream in = file.getValue().getContents(true)) {
+			update(digest, in);
+		}
+	}
+}
+
+private static byte[] getJarHash(File jar) throws IOException, NoSuchAlgorithmException {
+	String path = jar.getAbsolutePath();
+	long length = jar.length();
+	long lastModified = jar.lastModified();
+	JarHash jarHash = JAR_HASHES.get(path);
+	if (jarHash != null && jarHash.length == length && jarHash.lastModified == lastModified)
+		return jarHash.hash;
+	MessageDigest digest = MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+	try (InputStream in = new FileInputStream(jar)) {
+		update(digest, in);
+	}
+	jarHash = new JarHash(length, lastModified, digest.digest());
+	JAR_HASHES.put(path, jarHash);
+	return jarHash.hash;
+}
+
+private static void update(MessageDigest digest, String value) {
+	byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+	digest.update((byte) (bytes.length >>> 24));
+	digest.update((byte) (bytes.length >>> 16));
+	digest.update((byte) (bytes.length >>> 8));
+	digest.update((byte) bytes.length);
+	digest.update(bytes);
+}
+
+private static void update(MessageDigest digest, InputStream in) throws IOException {
+	byte[] buffer = new byte[8192];
+	int read;
+	while ((read = in.read(buffer)) != -1)
+		digest.update(buffer, 0, read);
+}
+
+/**
+ * Answer the state of the cache entry, or null if there is no such entry or it was written by another version.
+ */
+State readState() {
+	File stateFile = new File(this.entry, STATE_FILE);
+	if (!stateFile.isFile())
+		return null;
+	try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(stateFile), 8192)))) {
+		State state = State.read(this.project, in);
+		if (state != null)
+			state.tagAsStructurallyChanged(); // like any full build, dependent projects must look at the new class files
+		return state;
+	} catch (IOException | CoreException e) {
+		Util.log(e, "JavaBuilder could not read the cached build state " + stateFile); //$NON-NLS-1$
+		return null;
+	}
+}
+
+/**
+ * Copy the cached files of the given output folder into it. Folders shared by several source folders are copied once.
+ */
+void importOutputFolder(IContainer outputFolder) throws CoreException {
+	if (!this.importedFolders.add(outputFolder))
+		return;
+	File directory = new File(new File(this.entry, OUTPUT_DIRECTORY), outputFolder.getProjectRelativePath().toString());
+	if (directory.isDirectory())
+		importFiles(directory, outputFolder);
+}
+
+private void importFiles(File directory, IContainer container) throws CoreException {
+	File[] children = directory.listFiles();
+	if (children == null)
+		return;
+	for (File child : children) {
+		if (child.isDirectory()) {
+			IFolder folder = container.getFolder(new Path(child.getName()));
+			if (!folder.exists())
+				folder.create(IResource.FORCE | IResource.DERIVED, true, null);
+			importFiles(child, folder);
+		} else {
+			IFile file = container.getFile(new Path(child.getName()));
+			try (InputStream in = new BufferedInputStream(new FileInputStream(child))) {
+				if (file.exists()) {
+					file.setContents(in, true, false, null);
+				} else {
+					file.create(in, IResource.FORCE | IResource.DERIVED, null);
+				}
+			} catch (IOException e) {
+				throw new CoreException(new Status(IStatus.ERROR, JavaCore.PLUGIN_ID, e.getMessage(), e));
+			}
+		}
+	}
+}
+
+/**
+ * Add the given state and the output folders of the project to the cache, unless they are already cached
+ * or the build reported problems.
+ */
+void write(State state, ClasspathMultiDirectory[] sourceLocations, ClasspathMultiDirectory[] testSourceLocations) {
+	if (this.entry.exists())
+		return;
+	if (JavaBuilder.getProblemsFor(this.project).length > 0 || JavaBuilder.getTasksFor(this.project).length > 0)
+		return;
+	File temporary = new File(this.entry.getParentFile(), this.entry.getName() + '.' + System.nanoTime() + ".tmp"); //$NON-NLS-1$
+	try {
+		File output = new File(temporary, OUTPUT_DIRECTORY);
+		Set<IContainer> visited = new HashSet<>();
+		for (ClasspathMultiDirectory[] locations : new ClasspathMultiDirectory[][] {sourceLocations, testSourceLocations}) {
+			for (ClasspathMultiDirectory sourceLocation : locations) {
+				IContainer outputFolder = sourceLocation.binaryFolder;
+				if (visited.add(outputFolder) && outputFolder.exists())
+					exportFiles(outputFolder, new File(output, outputFolder.getProjectRelativePath().toString()), !sourceLocation.hasIndependentOutputFolder);
+			}
+		}
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(new File(temporary, STATE_FILE)), 8192)))) {
+			state.write(out);
+		}
+		if (!temporary.renameTo(this.entry)) // another builder added the same entry first
+			delete(temporary);
+	} catch (IOException | CoreException e) {
+		Util.log(e, "JavaBuilder could not add the build state of " + this.project.getName() + " to the cache"); //$NON-NLS-1$ //$NON-NLS-2$
+		delete(temporary);
+	}
+}
+
+private void exportFiles(IContainer container, File directory, boolean classFilesOnly) throws CoreException, IOException {
+	if (!directory.isDirectory() && !directory.mkdirs())
+		throw new IOException("Could not create " + directory); //$NON-NLS-1$
+	for (IResource member : container.members()) {
+		if (member.getType() == IResource.FILE) {
+			if (classFilesOnly && !org.eclipse.jdt.internal.compiler.util.Util.isClassFileName(member.getName()))
+				continue;
+			try (InputStream in = ((IFile) member).getContents(true)) {
+				Files.copy(in, new File(directory, member.getName()).toPath());
+			}
+		} else {
+			exportFiles((IContainer) member, new File(directory, member.getName()), classFilesOnly);
+		}
+	}
+}
+
+private static void delete(File file) {
+	File[] children = file.listFiles();
+	if (children != null)
+		for (File child : children)
+			delete(child);
+	file.delete();
+}
+}
@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.builder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Timeline of the phases of one project build, recorded when {@link JavaBuilder#TRACE} is set.
+ * <p>
+ * The timeline is written as a Chrome trace, the JSON format read by chrome://tracing and Perfetto, in the working
+ * location of the project. Each project is a process of its own, numbered in the order the projects are first built,
+ * and each phase is a complete event on the thread which built the project, phases recorded while another one runs
+ * are shown nested in it. Times are counted from the loading of this class, so that the timelines of the projects
+ * built in one session line up in separate lanes when looked at together.
+ * </p>
+ */
+class BuildTrace {
+
+static final String FILE_NAME = "build-trace.json"; //$NON-NLS-1$
+
+private static final long ORIGIN_NANOS = System.nanoTime();
+private static final Map<String, Integer> PROCESS_IDS = new ConcurrentHashMap<>();
+private static final AtomicInteger LAST_PROCESS_ID = new AtomicInteger();
+
+private final String projectName;
+private final int processId;
+private final StringBuilder events;
+
+BuildTrace(String projectName) {
+	this.projectName = projectName;
+	this.processId = PROCESS_IDS.computeIfAbsent(projectName, name -> Integer.valueOf(LAST_PROCESS_ID.incrementAndGet())).intValue();
+	this.events = new StringBuilder(4096);
+	// names the process of the events, the project
+	this.events.append("{\"name\":\"process_name\",\"ph\":\"M\",\"pid\":").append(this.processId) //$NON-NLS-1$
+		.append(",\"args\":{\"name\":"); //$NON-NLS-1$
+	appendString(projectName);
+	this.events.append("}}"); //$NON-NLS-1$
+}
+
+/**
+ * Record a phase which started at the given time, as answered by {@link System#nanoTime()}, and ends now.
+ * The given arguments are pairs of names and values, shown with the phase.
+ */
+synchronized void record(String category, String name, long startNanos, Object... arguments) {
+	long endNanos = System.nanoTime();
+	this.events.append(",\n{\"name\":"); //$NON-NLS-1$
+	appendString(name);
+	this.events.append(",\"cat\":"); //$NON-NLS-1$
+	appendString(category);
+	this.events.append(",\"ph\":\"X\",\"pid\":").append(this.processId) //$NON-NLS-1$
+		.append(",\"tid\":").append(Thread.currentThread().getId()) //$NON-NLS-1$
+		.append(",\"ts\":").append((startNanos - ORIGIN_NANOS) / 1000) //$NON-NLS-1$
+		.append(",\"dur\":").append((endNanos - startNanos) / 1000); //$NON-NLS-1$
+	if (arguments.length > 0) {
+		this.events.append(",\"args\":{"); //$NON-NLS-1$
+		for (int i = 0; i + 1 < arguments.length; i += 2) {
+			if (i > 0)
+				this.events.append(',');
+			appendString(String.valueOf(arguments[i]));
+			this.events.append(':');
+			Object value = arguments[i + 1];
+			if (value instanceof Number || value instanceof Boolean)
+				this.events.append(value);
+			else
+				appendString(String.valueOf(value));
+		}
+		this.events.append('}');
+	}
+	this.events.append('}');
+}
+
+private void appendString(String value) {
+	this.events.append('"');
+	for (int i = 0, l = value.length(); i < l; i++) {
+		char c = value.charAt(i);
+		switch (c) {
+			case '"' :
+			case '\\' :
+				this.events.append('\\').append(c);
+				break;
+			default :
+				if (c < 0x20)
+					this.events.append(String.format("\\u%04x", Integer.valueOf(c))); //$NON-NLS-1$
+				else
+					this.events.append(c);
+		}
+	}
+	this.events.append('"');
+}
+
+/**
+ * Write the recorded phases to the given file, replacing the timeline of a previous build.
+ */
+synchronized void write(File file) throws IOException {
+	String trace = "{\"traceEvents\":[\n" + this.events + "\n]}\n"; //$NON-NLS-1$ //$NON-NLS-2$
+	Files.write(file.toPath(), trace.getBytes(StandardCharsets.UTF_8));
+}
+
+@Override
+public String toString() {
+	return "Build trace of " + this.projectName; //$NON-NLS-1$
+}
+}
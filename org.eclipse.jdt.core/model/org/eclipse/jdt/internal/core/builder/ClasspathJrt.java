@@ -40,6 +40,7 @@ import org.eclipse.jdt.internal.compiler.env.IMultiModuleEntry;
 import org.eclipse.jdt.internal.compiler.env.NameEnvironmentAnswer;
 import org.eclipse.jdt.internal.compiler.util.JRTUtil;
 import org.eclipse.jdt.internal.compiler.util.JRTUtil.JrtFileVisitor;
+import org.eclipse.jdt.internal.compiler.util.JrtBinaryTypeCache;
 import org.eclipse.jdt.internal.compiler.util.SimpleSet;
 import org.eclipse.jdt.internal.compiler.util.SuffixConstants;
 import org.eclipse.jdt.internal.core.JavaProject;
@@ -192,7 +193,8 @@ public NameEnvironmentAnswer findClass(String binaryFileName, String qualifiedPa
 
 	try {
 		String fileNameWithoutExtension = qualifiedBinaryFileName.substring(0, qualifiedBinaryFileName.length() - SuffixConstants.SUFFIX_CLASS.length);
-		IBinaryType reader = ClassFileReader.readFromModule(this.jrtFile, moduleName, qualifiedBinaryFileName, moduleNameFilter);
+		IBinaryType reader = JrtBinaryTypeCache.getClassfile(this.zipFilename, qualifiedBinaryFileName, moduleName, moduleNameFilter,
+				() -> ClassFileReader.readFromModule(this.jrtFile, moduleName, qualifiedBinaryFileName, moduleNameFilter));
 		if (reader != null)
 			return createAnswer(fileNameWithoutExtension, reader, reader.getModule());
 	} catch (ClassFormatException | IOException e) { // treat as if class file is missing
@@ -304,5 +306,6 @@ public NameEnvironmentAnswer findClass(String typeName, String qualifiedPackageN
 public static void resetCaches() {
 	PackageCache.clear();
 	ModulesCache.clear();
+	JrtBinaryTypeCache.reset();
 }
 }
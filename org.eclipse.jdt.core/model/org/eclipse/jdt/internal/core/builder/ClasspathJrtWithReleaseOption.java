@@ -40,6 +40,7 @@ import org.eclipse.jdt.internal.compiler.env.IModule;
 import org.eclipse.jdt.internal.compiler.env.NameEnvironmentAnswer;
 import org.eclipse.jdt.internal.compiler.util.CtSym;
 import org.eclipse.jdt.internal.compiler.util.JRTUtil;
+import org.eclipse.jdt.internal.compiler.util.JrtBinaryTypeCache;
 import org.eclipse.jdt.internal.compiler.util.SimpleSet;
 import org.eclipse.jdt.internal.compiler.util.SuffixConstants;
 import org.eclipse.jdt.internal.core.util.Util;
@@ -200,35 +201,13 @@ public class ClasspathJrtWithReleaseOption extends ClasspathJrt {
 		}
 		List<Path> releaseRoots = this.ctSym.releaseRoots(this.releaseCode);
 		try {
-			IBinaryType reader = null;
-			byte[] content = null;
 			String fileNameWithoutExtension = qualifiedBinaryFileName.substring(0,
 												qualifiedBinaryFileName.length() - SuffixConstants.SUFFIX_CLASS.length);
-			if (!releaseRoots.isEmpty()) {
-				qualifiedBinaryFileName = qualifiedBinaryFileName.replace(".class", ".sig"); //$NON-NLS-1$ //$NON-NLS-2$
-				Path fullPath = this.ctSym.getFullPath(this.releaseCode, qualifiedBinaryFileName, moduleName);
-				// If file is known, read it from ct.sym
-				if (fullPath != null) {
-					content = this.ctSym.getFileBytes(fullPath);
-					if (content != null) {
-						reader = new ClassFileReader(content, qualifiedBinaryFileName.toCharArray());
-						if (moduleName != null) {
-							((ClassFileReader) reader).moduleName = moduleName.toCharArray();
-						} else {
-							if (this.ctSym.isJRE12Plus()) {
-								moduleName = this.ctSym.getModuleInJre12plus(this.releaseCode, qualifiedBinaryFileName);
-								if (moduleName != null) {
-									((ClassFileReader) reader).moduleName = moduleName.toCharArray();
-								}
-							}
-						}
-					}
-				}
-			} else {
-				// Read the file in a "classic" way from the JDK itself
-				reader = ClassFileReader.readFromModule(this.jrtFile, moduleName, qualifiedBinaryFileName,
-						moduleNameFilter);
-			}
+			String fileName = releaseRoots.isEmpty()
+					? qualifiedBinaryFileName
+					: qualifiedBinaryFileName.replace(".class", ".sig"); //$NON-NLS-1$ //$NON-NLS-2$
+			IBinaryType reader = JrtBinaryTypeCache.getClassfile(this.zipFilename + '|' + this.releaseCode, fileName, moduleName,
+					moduleNameFilter, () -> readClassFile(releaseRoots, fileName, moduleName, moduleNameFilter));
 			if (reader != null)
 				return createAnswer(fileNameWithoutExtension, reader, reader.getModule());
 		} catch (ClassFormatException | IOException e) {
@@ -237,6 +216,33 @@ public class ClasspathJrtWithReleaseOption extends ClasspathJrt {
 		return null;
 	}
 
+	private ClassFileReader readClassFile(List<Path> releaseRoots, String qualifiedBinaryFileName, String moduleName,
+			Predicate<String> moduleNameFilter) throws IOException, ClassFormatException {
+		if (releaseRoots.isEmpty()) {
+			// Read the file in a "classic" way from the JDK itself
+			return ClassFileReader.readFromModule(this.jrtFile, moduleName, qualifiedBinaryFileName, moduleNameFilter);
+		}
+		Path fullPath = this.ctSym.getFullPath(this.releaseCode, qualifiedBinaryFileName, moduleName);
+		// If file is known, read it from ct.sym
+		if (fullPath == null)
+			return null;
+		byte[] content = this.ctSym.getFileBytes(fullPath);
+		if (content == null)
+			return null;
+		ClassFileReader reader = new ClassFileReader(content, qualifiedBinaryFileName.toCharArray());
+		if (moduleName != null) {
+			reader.moduleName = moduleName.toCharArray();
+		} else {
+			if (this.ctSym.isJRE12Plus()) {
+				moduleName = this.ctSym.getModuleInJre12plus(this.releaseCode, qualifiedBinaryFileName);
+				if (moduleName != null) {
+					reader.moduleName = moduleName.toCharArray();
+				}
+			}
+		}
+		return reader;
+	}
+
 	@Override
 	public Collection<String> getModuleNames(Collection<String> limitModules) {
 		Map<String, SimpleSet> cache = findPackagesInModules();
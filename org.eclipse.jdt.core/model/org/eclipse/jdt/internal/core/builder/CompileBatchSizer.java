@@ -0,0 +1,192 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.builder;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chooses how many compilation units an image builder compiles at once.
+ * <p>
+ * Compiling all the units of a project in one group is the fastest, since later groups recompile the units they
+ * reference from the work queue, but every unit of a group keeps its AST and bindings until the group is done.
+ * Groups are therefore sized from the heap left after garbage collection and from the heap retained per unit by
+ * the previous groups, and never exceed {@link AbstractImageBuilder#MAX_AT_ONCE}.
+ * </p><p>
+ * The heap retained by a group is the growth of the heap pools' usage after garbage collection, see
+ * {@link MemoryPoolMXBean#getCollectionUsage()}, so garbage waiting to be collected is not counted. It is only
+ * measured when a collection ran while the group was compiled, and only for groups of at least
+ * {@link #MIN_MEASURED_UNITS} units. Collectors that do not collect the old generation on every collection make
+ * it an underestimate, which only makes the groups larger, at most as large as they are without this sizing.
+ * </p><p>
+ * A builder sizes its groups from its own measurements once it has one. Until then it uses the footprint measured
+ * by the previous builds of the VM, a moving average that one unusual group can not move much.
+ * </p>
+ */
+public class CompileBatchSizer {
+
+// the fewest units compiled at once unless MAX_AT_ONCE is lower, below this the recompilations cost more than they save
+public static final int MIN_AT_ONCE = 100;
+// groups of fewer units are not measured, the heap they retain is mostly noise
+public static final int MIN_MEASURED_UNITS = 50;
+// the part of the heap left that the units of a group may use
+private static final double HEADROOM_RATIO = 0.5;
+// the footprint per unit assumed until a group was measured
+public static final long INITIAL_UNIT_FOOTPRINT = 256 * 1024;
+
+private static volatile long sharedFootprint = INITIAL_UNIT_FOOTPRINT;
+
+private final List<MemoryPoolMXBean> heapPools;
+private final List<GarbageCollectorMXBean> collectors;
+
+private final List<Integer> batchSizes;
+private long unitFootprint = -1; // until a group of this builder was measured
+private long retainedBeforeBatch;
+private long collectionsBeforeBatch;
+private long collectionTimeBeforeBatch;
+private long startBatchNanos;
+private long collections;
+private long collectionTime;
+private long compileTime;
+private long largestFootprint;
+
+CompileBatchSizer() {
+	this.heapPools = new ArrayList<>();
+	for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+		if (pool.getType() == MemoryType.HEAP && pool.isValid() && pool.getCollectionUsage() != null)
+			this.heapPools.add(pool);
+	this.collectors = ManagementFactory.getGarbageCollectorMXBeans();
+	this.batchSizes = new ArrayList<>();
+}
+
+/**
+ * Answer how many of the given number of units should be compiled in the next group.
+ */
+int nextBatchSize(int unitsLength) {
+	long footprint = this.unitFootprint < 0 ? sharedFootprint : this.unitFootprint;
+	Runtime runtime = Runtime.getRuntime();
+	long headroom = headroom(runtime.maxMemory(), retainedHeap(), runtime.totalMemory() - runtime.freeMemory());
+	return batchSize(headroom, footprint, AbstractImageBuilder.MAX_AT_ONCE, unitsLength);
+}
+
+/**
+ * Answer the heap left from the heap retained after the last garbage collection, so that garbage waiting to be
+ * collected is not counted. The heap in use, garbage included, is only counted when the retained heap is not known.
+ *
+ * @param retainedHeap the heap used after the last garbage collection, -1 if not known
+ * @param usedHeap the heap in use
+ */
+public static long headroom(long maxMemory, long retainedHeap, long usedHeap) {
+	return maxMemory - (retainedHeap < 0 ? usedHeap : retainedHeap);
+}
+
+/**
+ * Answer how many of the given number of units to compile at once when each one retains the given number of
+ * bytes and the given number of bytes of heap is left.
+ *
+ * @param maxAtOnce the most units compiled at once, 0 if unlimited
+ */
+public static int batchSize(long headroom, long unitFootprint, int maxAtOnce, int unitsLength) {
+	if (maxAtOnce == 0)
+		return unitsLength; // no limit
+	long fitting = (long) (Math.max(headroom, 0) * HEADROOM_RATIO) / Math.max(unitFootprint, 1);
+	int size = (int) Math.max(Math.min(fitting, maxAtOnce), Math.min(MIN_AT_ONCE, maxAtOnce));
+	return Math.min(size, unitsLength);
+}
+
+/**
+ * Answer the heap retained per unit by a group of the given number of units, from the heap retained before and
+ * after it was compiled, or -1 if the group can not be measured.
+ */
+public static long footprintSample(long retainedBefore, long retainedAfter, int unitsLength) {
+	if (unitsLength < MIN_MEASURED_UNITS || retainedBefore < 0 || retainedAfter < 0)
+		return -1;
+	return Math.max(retainedAfter - retainedBefore, 0) / unitsLength;
+}
+
+/**
+ * Answer the footprint per unit shared by the builds of the VM once the given sample was measured: it moves a
+ * quarter of the way to the sample, and at most doubles.
+ */
+public static long averageFootprint(long shared, long sample) {
+	long average = (3 * shared + sample) / 4;
+	return Math.max(Math.min(average, 2 * shared), 1);
+}
+
+void batchStarting() {
+	this.retainedBeforeBatch = retainedHeap();
+	this.collectionsBeforeBatch = collectionCount();
+	this.collectionTimeBeforeBatch = collectionTime();
+	this.startBatchNanos = System.nanoTime();
+}
+
+void batchFinished(int unitsLength) {
+	long collectionCount = collectionCount();
+	this.compileTime += System.nanoTime() - this.startBatchNanos;
+	this.collections += collectionCount - this.collectionsBeforeBatch;
+	this.collectionTime += collectionTime() - this.collectionTimeBeforeBatch;
+	this.batchSizes.add(Integer.valueOf(unitsLength));
+	if (collectionCount == this.collectionsBeforeBatch)
+		return; // the usage after collection is the one before the group
+	long footprint = footprintSample(this.retainedBeforeBatch, retainedHeap(), unitsLength);
+	if (footprint < 0)
+		return;
+	this.largestFootprint = Math.max(this.largestFootprint, footprint);
+	this.unitFootprint = footprint;
+	sharedFootprint = averageFootprint(sharedFootprint, footprint);
+}
+
+/**
+ * Answer the heap used after the last garbage collection, -1 if not known.
+ */
+private long retainedHeap() {
+	if (this.heapPools.isEmpty())
+		return -1;
+	long retained = 0;
+	for (MemoryPoolMXBean pool : this.heapPools) {
+		MemoryUsage usage = pool.getCollectionUsage();
+		if (usage != null) // null once the pool is no longer valid
+			retained += usage.getUsed();
+	}
+	return retained;
+}
+
+private long collectionCount() {
+	long count = 0;
+	for (GarbageCollectorMXBean collector : this.collectors)
+		count += Math.max(collector.getCollectionCount(), 0); // -1 when not supported
+	return count;
+}
+
+private long collectionTime() {
+	long time = 0;
+	for (GarbageCollectorMXBean collector : this.collectors)
+		time += Math.max(collector.getCollectionTime(), 0);
+	return time;
+}
+
+@Override
+public String toString() {
+	long compileMillis = this.compileTime / 1_000_000;
+	return "compiled in " + this.batchSizes.size() + " groups of " + this.batchSizes //$NON-NLS-1$ //$NON-NLS-2$
+		+ " units, up to " + this.largestFootprint / 1024 + " KB retained per unit; GC: " + this.collections //$NON-NLS-1$ //$NON-NLS-2$
+		+ " collections in " + this.collectionTime + " ms (" //$NON-NLS-1$ //$NON-NLS-2$
+		+ (compileMillis == 0 ? 0 : ((int) (this.collectionTime * 1000.0 / compileMillis)) / 10.0) + "% of compile time)"; //$NON-NLS-1$
+}
+}
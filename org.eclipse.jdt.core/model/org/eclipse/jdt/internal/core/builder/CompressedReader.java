@@ -56,6 +56,13 @@ public class CompressedReader {
 		return this.in.readUTF().toCharArray();
 	}
 
+	/** @see CompressedWriter#writeBytes(byte[]) **/
+	public byte[] readBytes(int length) throws IOException {
+		byte[] bytes = new byte[length];
+		this.in.readFully(bytes);
+		return bytes;
+	}
+
 	/** @see CompressedWriter#writeStringUsingLast(String) **/
 	public String readStringUsingLast() throws IOException {
 		return new String(readCharsUsingLast());
@@ -67,6 +67,17 @@ public class CompressedWriter {
 		this.out.writeUTF(new String(name));
 	}
 
+	/**
+	 * Writes the given bytes as they are, their number has to be known when reading them.
+	 *
+	 * @param bytes
+	 *            bytes to write
+	 * @see CompressedReader#readBytes(int)
+	 **/
+	public void writeBytes(byte[] bytes) throws IOException {
+		this.out.write(bytes);
+	}
+
 	/**
 	 * Writes v using a list of likely values "typical". If v is element of "typical" then encode v as an index.
 	 * Otherwise encoded as typical.length and plain encoded v;
@@ -25,4 +25,12 @@ import org.eclipse.jdt.internal.compiler.env.ICompilationUnit;
  */
 public interface ICompilationUnitLocator {
 	public ICompilationUnit fromIFile(IFile file);
+
+	/**
+	 * Answer whether the class files compiled from the given file by a previous build, or earlier in this build,
+	 * are still current, so that the file need not be compiled again as long as its contents do not change.
+	 */
+	public default boolean hasCurrentClassFiles(IFile file) {
+		return false;
+	}
 }
@@ -32,7 +32,7 @@ import org.eclipse.jdt.internal.core.util.Util;
 import java.io.*;
 import java.net.URI;
 import java.util.*;
-import java.util.Map.Entry;
+import java.util.function.Predicate;
 
 /**
  * The incremental image builder
@@ -50,6 +50,8 @@ protected boolean hasStructuralChanges;
 protected boolean makeOutputFolderConsistent;
 
 private IncrementalImageBuilder testImageBuilder;
+// the content and structural hashes of the class file being written, null when writeClassFileCheck did not compute them
+private long[] newClassFileHashes;
 
 public static int MaxCompileLoop = 5; // perform a full build if it takes more than ? incremental compile loops
 
@@ -242,11 +244,15 @@ protected void addAffectedSourceFiles(Set<String> qualifiedSet, Set<String> simp
 		internedSimpleNames = null;
 	char[][] internedRootNames = ReferenceCollection.internSimpleNames(rootSet, false);
 
-	next: for (Entry<String, ReferenceCollection> entry : this.newState.references.entrySet()) {
-		String typeLocator = entry.getKey();
+	// unless a well known simple name changed, only the source files referencing one of the simple names can be affected
+	Collection<String> typeLocators = internedSimpleNames == null
+		? this.newState.references.keySet()
+		: this.newState.getTypeLocatorsReferencing(internedSimpleNames);
+	// answers false for the type locators removed since they were indexed, and leaves the saved collections encoded
+	Predicate<String> includes = this.newState.references.includes(internedQualifiedNames, internedSimpleNames, internedRootNames);
+	next: for (String typeLocator : typeLocators) {
 		if (affectedTypes != null && !affectedTypes.contains(typeLocator)) continue next;
-		ReferenceCollection refs = entry.getValue();
-		if (refs.includes(internedQualifiedNames, internedSimpleNames, internedRootNames)) {
+		if (includes.test(typeLocator)) {
 			IFile file = this.javaBuilder.currentProject.getFile(typeLocator);
 			SourceFile sourceFile = findSourceFile(file, true);
 			if (sourceFile == null) continue next;
@@ -797,6 +803,7 @@ protected void removeClassFile(IPath typePath, IContainer outputFolder) throws C
 		addDependentsOf(typePath, true); // when member types are removed, their enclosing type is structurally changed
 	}
 	IFile classFile = outputFolder.getFile(typePath.addFileExtension(SuffixConstants.EXTENSION_class));
+	this.newState.removeClassFileHashes(classFile.getProjectRelativePath().toString());
 	if (classFile.exists()) {
 		if (JavaBuilder.DEBUG)
 			System.out.println("Deleting class file of removed type " + typePath); //$NON-NLS-1$
@@ -887,6 +894,7 @@ protected void writeClassFileContents(ClassFile classfile, IFile file, String qu
 			if (!file.isDerived())
 				file.setDerived(true, null);
 			file.setContents(new ByteArrayInputStream(bytes), true, false, null);
+			recordClassFileHashes(file);
 		} else if (JavaBuilder.DEBUG) {
 			System.out.println("Skipped over unchanged class file " + file.getName());//$NON-NLS-1$
 		}
@@ -897,6 +905,7 @@ protected void writeClassFileContents(ClassFile classfile, IFile file, String qu
 			System.out.println("Writing new class file " + file.getName());//$NON-NLS-1$
 		try {
 			file.create(new ByteArrayInputStream(bytes), IResource.FORCE | IResource.DERIVED, null);
+			recordClassFileHashes(file);
 		} catch (CoreException e) {
 			if (e.getStatus().getCode() == IResourceStatus.CASE_VARIANT_EXISTS) {
 				IStatus status = e.getStatus();
@@ -922,6 +931,7 @@ protected void writeClassFileContents(ClassFile classfile, IFile file, String qu
 						boolean success = false;
 						try {
 							file.create(new ByteArrayInputStream(bytes), IResource.FORCE | IResource.DERIVED, null);
+							recordClassFileHashes(file);
 							success = true;
 						} catch (CoreException ignored) {
 							// ignore the second exception
@@ -938,6 +948,31 @@ protected void writeClassFileContents(ClassFile classfile, IFile file, String qu
 }
 
 protected boolean writeClassFileCheck(IFile file, String fileName, byte[] newBytes) throws CoreException {
+	this.newClassFileHashes = null;
+	long[] hashes = this.newState.getClassFileHashes(file.getProjectRelativePath().toString());
+	if (hashes != null && hashes[2] == file.getModificationStamp()) {
+		long contentHash = contentHash(newBytes);
+		if (hashes[0] != contentHash) {
+			// the file is as the builder wrote it and its contents change: its structure changes when its structural
+			// hash does, without reading the file back
+			try {
+				ClassFileReader reader = new ClassFileReader(newBytes, fileName.toCharArray());
+				long structuralHash = reader.getStructuralHash();
+				this.newClassFileHashes = new long[] {contentHash, structuralHash};
+				// ignore local types since they're only visible inside a single method
+				if (!(reader.isLocal() || reader.isAnonymous()) && structuralHash != hashes[1]) {
+					if (JavaBuilder.DEBUG)
+						System.out.println("Type has structural changes " + fileName); //$NON-NLS-1$
+					addDependentsOf(new Path(fileName), true);
+					this.newState.wasStructurallyChanged(fileName);
+				}
+			} catch (ClassFormatException e) {
+				addDependentsOf(new Path(fileName), true);
+				this.newState.wasStructurallyChanged(fileName);
+			}
+			return true;
+		}
+	}
 	try {
 		byte[] oldBytes = Util.getResourceContentsAsByteArray(file);
 		notEqual : if (newBytes.length == oldBytes.length) {
@@ -950,11 +985,16 @@ protected boolean writeClassFileCheck(IFile file, String fileName, byte[] newByt
 		String filePath = location.getSchemeSpecificPart();
 		ClassFileReader reader = new ClassFileReader(oldBytes, filePath.toCharArray());
 		// ignore local types since they're only visible inside a single method
-		if (!(reader.isLocal() || reader.isAnonymous()) && reader.hasStructuralChanges(newBytes)) {
-			if (JavaBuilder.DEBUG)
-				System.out.println("Type has structural changes " + fileName); //$NON-NLS-1$
-			addDependentsOf(new Path(fileName), true);
-			this.newState.wasStructurallyChanged(fileName);
+		if (!(reader.isLocal() || reader.isAnonymous())) {
+			// the structures are compared through their hashes, kept so that the next build does not read the file back
+			long structuralHash = new ClassFileReader(newBytes, fileName.toCharArray()).getStructuralHash();
+			this.newClassFileHashes = new long[] {contentHash(newBytes), structuralHash};
+			if (reader.getStructuralHash() != structuralHash) {
+				if (JavaBuilder.DEBUG)
+					System.out.println("Type has structural changes " + fileName); //$NON-NLS-1$
+				addDependentsOf(new Path(fileName), true);
+				this.newState.wasStructurallyChanged(fileName);
+			}
 		}
 	} catch (JavaModelException jme) {
 		Throwable e = jme.getCause();
@@ -972,6 +1012,27 @@ protected boolean writeClassFileCheck(IFile file, String fileName, byte[] newByt
 	return true;
 }
 
+/**
+ * Remember the hashes of a class file just written, as computed by {@link #writeClassFileCheck(IFile, String, byte[])},
+ * so that the next incremental build can tell whether its structure changes without reading it back. The class files
+ * it did not parse, those written by full builds and the new ones, are read back the first time they are written again.
+ */
+private void recordClassFileHashes(IFile file) {
+	String classFilePath = file.getProjectRelativePath().toString();
+	if (this.newClassFileHashes == null)
+		this.newState.removeClassFileHashes(classFilePath);
+	else
+		this.newState.recordClassFileHashes(classFilePath, this.newClassFileHashes[0], this.newClassFileHashes[1], file.getModificationStamp());
+	this.newClassFileHashes = null;
+}
+
+static long contentHash(byte[] bytes) {
+	long hash = 0xcbf29ce484222325L ^ bytes.length; // 64-bit FNV-1a
+	for (byte b : bytes)
+		hash = (hash ^ (b & 0xFF)) * 0x100000001b3L;
+	return hash;
+}
+
 @Override
 public String toString() {
 	return "incremental image builder for:\n\tnew state: " + this.newState; //$NON-NLS-1$
@@ -16,6 +16,7 @@ package org.eclipse.jdt.internal.core.builder;
 
 import org.eclipse.core.resources.*;
 import org.eclipse.core.runtime.*;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
 
 import org.eclipse.jdt.core.*;
 import org.eclipse.jdt.core.compiler.*;
@@ -39,12 +40,18 @@ NameEnvironment testNameEnvironment;
 SimpleLookupTable binaryLocationsPerProject; // maps a project to its binary resources (output folders, class folders, zip/jar files)
 public State lastState;
 BuildNotifier notifier;
+BuildTrace trace; // null unless TRACE is set
 char[][] extraResourceFileFilters;
 String[] extraResourceFolderFilters;
 public static final String SOURCE_ID = "JDT"; //$NON-NLS-1$
 
 public static boolean DEBUG = false;
 public static boolean SHOW_STATS = false;
+/**
+ * When set, the phases of each project build are written to a timeline in the working location of the project,
+ * see {@link BuildTrace}.
+ */
+public static boolean TRACE = false;
 
 /**
  * Bug 549457: In case auto-building on a JDT core settings change (e.g. compiler compliance) is not desired,
@@ -53,13 +60,26 @@ public static boolean SHOW_STATS = false;
 private static final boolean DISABLE_AUTO_BUILDING_ON_SETTINGS_CHANGE = Boolean.getBoolean("org.eclipse.disableAutoBuildOnSettingsChange"); //$NON-NLS-1$
 private static final IPath JDT_CORE_SETTINGS_PATH = Path.fromPortableString(JavaProject.DEFAULT_PREFERENCES_DIRNAME + IPath.SEPARATOR + JavaProject.JAVA_CORE_PREFS_FILE);
 
+/**
+ * When set, the java builder only locks the project it builds, instead of the whole workspace.
+ * Independent projects are then built concurrently, up to the maximum number of concurrent builds
+ * of the workspace description. Specify VM property: {@code -Dorg.eclipse.jdt.core.builder.parallel=true}
+ */
+public static boolean PARALLEL_BUILDS = Boolean.getBoolean("org.eclipse.jdt.core.builder.parallel"); //$NON-NLS-1$
+
 /**
  * A list of project names that have been built.
  * This list is used to reset the JavaModel.existingExternalFiles cache when a build cycle begins
  * so that deleted external jars are discovered.
+ * Guarded by the JavaBuilder class, since projects may be built concurrently.
  */
 static LinkedHashSet<String> builtProjects;
 
+/**
+ * The times of the projects built since the beginning of the build cycle, reported when {@link #SHOW_STATS} is set.
+ */
+static final ProjectBuildTimes buildTimes = new ProjectBuildTimes();
+
 public static IMarker[] getProblemsFor(IResource resource) {
 	try {
 		if (resource != null && resource.exists()) {
@@ -111,6 +131,9 @@ public static void buildStarting() {
  */
 public static void buildFinished() {
 	BuildNotifier.resetProblemCounters();
+	if (SHOW_STATS && !buildTimes.isEmpty())
+		System.out.print(buildTimes);
+	buildTimes.reset();
 }
 
 public static void removeProblemsFor(IResource resource) {
@@ -165,21 +188,34 @@ public static void writeState(Object state, DataOutputStream out) throws IOExcep
 	((State) state).write(out);
 }
 
+@Override
+public ISchedulingRule getRule(int kind, Map<String, String> args) {
+	if (PARALLEL_BUILDS)
+		return getProject(); // output folders and markers are always inside the project being built
+	return super.getRule(kind, args);
+}
+
 @Override
 protected IProject[] build(int kind, Map ignored, IProgressMonitor monitor) throws CoreException {
 	this.currentProject = getProject();
 	if (this.currentProject == null || !this.currentProject.isAccessible()) return new IProject[0];
 
+	long startNanos = System.nanoTime();
+
 	if (DEBUG)
 		System.out.println("\nJavaBuilder: Starting build of " + this.currentProject.getName() //$NON-NLS-1$
 			+ " @ " + new Date(System.currentTimeMillis())); //$NON-NLS-1$
 	this.notifier = new BuildNotifier(monitor,kind,
 			kind == IncrementalProjectBuilder.AUTO_BUILD ? this::isInterrupted : ()->false);
 	this.notifier.begin();
+	this.trace = TRACE ? new BuildTrace(this.currentProject.getName()) : null;
 	boolean ok = false;
 	try {
 		this.notifier.checkCancel();
+		long phaseStart = System.nanoTime();
 		kind = initializeBuilder(kind, true);
+		if (this.trace != null)
+			this.trace.record("builder", "initialize", phaseStart); //$NON-NLS-1$ //$NON-NLS-2$
 
 		if (isWorthBuilding()) {
 			if (kind == FULL_BUILD) {
@@ -199,7 +235,10 @@ protected IProject[] build(int kind, Map ignored, IProgressMonitor monitor) thro
 					buildAll();
 				} else if (this.nameEnvironment.sourceLocations.length > 0 || this.testNameEnvironment.sourceLocations.length > 0) {
 					// if there is no source to compile & no classpath changes then we are done
+					phaseStart = System.nanoTime();
 					SimpleLookupTable deltas = findDeltas();
+					if (this.trace != null)
+						this.trace.record("builder", "findDeltas", phaseStart); //$NON-NLS-1$ //$NON-NLS-2$
 					if (deltas == null) {
 						if (DEBUG)
 							System.out.println("JavaBuilder: Performing full build since deltas are missing after incremental request"); //$NON-NLS-1$
@@ -254,8 +293,19 @@ protected IProject[] build(int kind, Map ignored, IProgressMonitor monitor) thro
 			clearLastState();
 		this.notifier.done();
 		cleanup();
+		if (this.trace != null) {
+			// also written when the build failed or was cancelled, to show how far it got
+			this.trace.record("builder", "build", startNanos); //$NON-NLS-1$ //$NON-NLS-2$
+			writeTrace();
+		}
 	}
 	IProject[] requiredProjects = getRequiredProjects(true);
+	if (SHOW_STATS) {
+		String[] prerequisites = new String[requiredProjects.length];
+		for (int i = 0, l = requiredProjects.length; i < l; i++)
+			prerequisites[i] = requiredProjects[i].getName();
+		buildTimes.record(this.currentProject.getName(), startNanos, System.nanoTime(), prerequisites);
+	}
 	if (DEBUG)
 		System.out.println("JavaBuilder: Finished build of " + this.currentProject.getName() //$NON-NLS-1$
 			+ " @ " + new Date(System.currentTimeMillis()) + "\n"); //$NON-NLS-1$ //$NON-NLS-2$
@@ -268,16 +318,37 @@ private void buildAll() {
 	if (DEBUG && this.lastState != null)
 		System.out.println("JavaBuilder: Clearing last state : " + this.lastState); //$NON-NLS-1$
 	clearLastState();
+	BuildStateCache cache = BuildStateCache.forBuilder(this);
+	State cachedState = cache == null ? null : cache.readState();
+	if (cachedState != null) {
+		if (DEBUG)
+			System.out.println("JavaBuilder: Importing the cached build state instead of building"); //$NON-NLS-1$
+		long phaseStart = System.nanoTime();
+		new BatchImageBuilder(this, false, CompilationGroup.MAIN).importFromCache(cache);
+		new BatchImageBuilder(this, false, CompilationGroup.TEST).importFromCache(cache);
+		recordNewState(cachedState);
+		if (this.trace != null)
+			this.trace.record("builder", "importFromCache", phaseStart); //$NON-NLS-1$ //$NON-NLS-2$
+		return;
+	}
 	BatchImageBuilder imageBuilder = new BatchImageBuilder(this, true, CompilationGroup.MAIN);
 	BatchImageBuilder testImageBuilder = new BatchImageBuilder(imageBuilder, true, CompilationGroup.TEST);
+	long phaseStart = System.nanoTime();
 	imageBuilder.build();
+	if (this.trace != null)
+		this.trace.record("builder", "fullBuild", phaseStart, "group", CompilationGroup.MAIN); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 	if (testImageBuilder.sourceLocations.length > 0) {
 		// Note: testImageBuilder *MUST* have a separate output folder, or it will delete the files created by imageBuilder.build()
+		phaseStart = System.nanoTime();
 		testImageBuilder.build();
+		if (this.trace != null)
+			this.trace.record("builder", "fullBuild", phaseStart, "group", CompilationGroup.TEST); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 	} else {
 		testImageBuilder.cleanUp();
 	}
 	recordNewState(imageBuilder.newState);
+	if (cache != null)
+		cache.write(imageBuilder.newState, this.nameEnvironment.sourceLocations, this.testNameEnvironment.sourceLocations);
 }
 
 private void buildDeltas(SimpleLookupTable deltas) {
@@ -287,7 +358,11 @@ private void buildDeltas(SimpleLookupTable deltas) {
 		System.out.println("JavaBuilder: Clearing last state : " + this.lastState); //$NON-NLS-1$
 	clearLastState(); // clear the previously built state so if the build fails, a full build will occur next time
 	IncrementalImageBuilder imageBuilder = new IncrementalImageBuilder(this);
-	if (imageBuilder.build(deltas)) {
+	long phaseStart = System.nanoTime();
+	boolean built = imageBuilder.build(deltas);
+	if (this.trace != null)
+		this.trace.record("builder", "incrementalBuild", phaseStart, "deltas", Integer.valueOf(deltas.elementSize)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	if (built) {
 		recordNewState(imageBuilder.newState);
 	} else {
 		if (DEBUG)
@@ -347,6 +422,19 @@ private void createInconsistentBuildMarker(CoreException coreException) throws C
 	this.currentProject.createMarker(IJavaModelMarker.JAVA_MODEL_PROBLEM_MARKER, attributes);
 }
 
+private void writeTrace() {
+	try {
+		File file = this.currentProject.getWorkingLocation(JavaCore.PLUGIN_ID).append(BuildTrace.FILE_NAME).toFile();
+		this.trace.write(file);
+		if (DEBUG)
+			System.out.println("JavaBuilder: Wrote the build trace of " + this.currentProject.getName() + " to " + file); //$NON-NLS-1$ //$NON-NLS-2$
+	} catch (IOException e) {
+		Util.log(e, "JavaBuilder could not write the build trace of " + this.currentProject.getName()); //$NON-NLS-1$
+	} finally {
+		this.trace = null;
+	}
+}
+
 private void cleanup() {
 	this.participants = null;
 	if(this.nameEnvironment != null) {
@@ -634,10 +722,12 @@ private int initializeBuilder(int kind, boolean forBuild) throws CoreException {
 
 		// Flush the existing external files cache if this is the beginning of a build cycle
 		String projectName = this.currentProject.getName();
-		if (builtProjects == null || builtProjects.contains(projectName)) {
-			builtProjects = new LinkedHashSet();
+		synchronized (JavaBuilder.class) {
+			if (builtProjects == null || builtProjects.contains(projectName)) {
+				builtProjects = new LinkedHashSet();
+			}
+			builtProjects.add(projectName);
 		}
-		builtProjects.add(projectName);
 	}
 
 	this.binaryLocationsPerProject = new SimpleLookupTable(3);
@@ -0,0 +1,435 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.builder;
+
+import java.io.ByteArrayOutputStream;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * The reference collections of a {@link State}, keyed by type locator.
+ * <p>
+ * A saved state holds all its reference collections in one block of bytes, along with the offset of each collection
+ * in the block. When a state is read, its collections are only decoded when they are first asked for: a build which
+ * only looks at the collections of a few source files does not pay for the others.
+ * The block is never modified, copies of the map share it.
+ * </p><p>
+ * The names of the saved state are numbered by their position in its name tables, and each collection refers to them
+ * by number. {@link #includes(char[][][], char[][], char[][])} checks the collections which were not decoded yet on
+ * those numbers, so looking for the dependents of a change leaves them encoded: iterating the map does not keep the
+ * collections it decodes either. Only collections asked for with {@link #get(Object)} stay decoded.
+ * </p>
+ */
+class LazyReferenceMap extends AbstractMap<String, ReferenceCollection> {
+
+/**
+ * The encoded reference collections of a saved state, and the names they refer to by index.
+ * <pre>
+ * byte		kind, 1 for an AdditionalTypeCollection, 2 for a ReferenceCollection
+ * if kind is 1:
+ * varint		defined type names count, followed by their index in typeNames
+ * varint		qualified names count, followed by their index in qualifiedNames
+ * varint		simple names count, followed by their index in simpleNames
+ * varint		root names count, followed by their index in rootNames
+ * </pre>
+ * A varint is an unsigned int written 7 bits at a time, the high bit of each byte telling whether more bytes follow.
+ */
+static class Encoding {
+	final byte[] bytes;
+	final char[][] typeNames;
+	final char[][][] qualifiedNames;
+	final char[][] simpleNames;
+	final char[][] rootNames;
+
+	Encoding(byte[] bytes, char[][] typeNames, char[][][] qualifiedNames, char[][] simpleNames, char[][] rootNames) {
+		this.bytes = bytes;
+		this.typeNames = typeNames;
+		this.qualifiedNames = qualifiedNames;
+		this.simpleNames = simpleNames;
+		this.rootNames = rootNames;
+	}
+
+	// the number of each name, by identity since the names are interned. Created when first needed
+	private IdentityHashMap<char[][], Integer> qualifiedNameIds;
+	private IdentityHashMap<char[], Integer> simpleNameIds;
+	private IdentityHashMap<char[], Integer> rootNameIds;
+
+	ReferenceCollection decode(int offset) {
+		int[] position = {offset};
+		byte kind = this.bytes[position[0]++];
+		char[][] definedTypeNames = kind == 1 ? readNames(position, this.typeNames) : null;
+		char[][][] qualified = new char[readInt(position)][][];
+		for (int i = 0, l = qualified.length; i < l; i++)
+			qualified[i] = this.qualifiedNames[readInt(position)];
+		char[][] simple = readNames(position, this.simpleNames);
+		char[][] root = readNames(position, this.rootNames);
+		return kind == 1
+			? new AdditionalTypeCollection(definedTypeNames, qualified, simple, root)
+			: new ReferenceCollection(qualified, simple, root);
+	}
+
+	/**
+	 * Answer the simple names of the collection at the given offset, without decoding the collection.
+	 */
+	char[][] decodeSimpleNames(int offset) {
+		int[] position = {offset};
+		byte kind = this.bytes[position[0]++];
+		if (kind == 1)
+			skipInts(position);
+		skipInts(position);
+		return readNames(position, this.simpleNames);
+	}
+
+	/**
+	 * Answer the numbers of the given names in the given table, ignoring the names which are not in the table,
+	 * or null if the names are null.
+	 */
+	private static <T> BitSet ids(T[] names, IdentityHashMap<T, Integer> ids) {
+		if (names == null)
+			return null;
+		BitSet result = new BitSet();
+		for (T name : names) {
+			Integer id = ids.get(name);
+			if (id != null)
+				result.set(id.intValue());
+		}
+		return result;
+	}
+
+	private static <T> IdentityHashMap<T, Integer> numbered(T[] names) {
+		IdentityHashMap<T, Integer> result = new IdentityHashMap<>(names.length);
+		for (int i = 0, l = names.length; i < l; i++)
+			result.put(names[i], Integer.valueOf(i));
+		return result;
+	}
+
+	/**
+	 * Answer a test of whether the collection at a given offset includes the given names, with the same answers as
+	 * {@link ReferenceCollection#includes(char[][][], char[][], char[][])} but without decoding the collection.
+	 */
+	synchronized IntPredicate includes(char[][][] qualified, char[][] simple, char[][] root) {
+		if (this.qualifiedNameIds == null) {
+			this.qualifiedNameIds = numbered(this.qualifiedNames);
+			this.simpleNameIds = numbered(this.simpleNames);
+			this.rootNameIds = numbered(this.rootNames);
+		}
+		BitSet qualifiedIds = ids(qualified, this.qualifiedNameIds);
+		BitSet simpleIds = ids(simple, this.simpleNameIds);
+		BitSet rootIds = ids(root, this.rootNameIds);
+		// a qualified name of one segment is also found among the simple names, see ReferenceCollection#includesQualifiedName
+		BitSet qualifiedSimpleIds = null;
+		if (qualified != null) {
+			qualifiedSimpleIds = new BitSet();
+			for (char[][] qualifiedName : qualified) {
+				if (qualifiedName.length == 1) {
+					Integer id = this.simpleNameIds.get(qualifiedName[0]);
+					if (id != null)
+						qualifiedSimpleIds.set(id.intValue());
+				}
+			}
+		}
+		BitSet qualifiedSimple = qualifiedSimpleIds;
+		return offset -> {
+			int[] position = {offset};
+			if (this.bytes[position[0]++] == 1)
+				skipInts(position); // the defined type names
+			boolean hasQualified = containsOne(position, qualifiedIds);
+			int simpleNamesOffset = position[0];
+			boolean hasSimple = containsOne(position, simpleIds);
+			boolean hasRoot = containsOne(position, rootIds);
+			if (!hasQualified)
+				hasQualified = containsOne(new int[] {simpleNamesOffset}, qualifiedSimple);
+			return hasQualified && hasSimple && hasRoot;
+		};
+	}
+
+	/**
+	 * Answer whether one of the numbers at the given position is in the given set, moving the position past them.
+	 * A null set means any name, as it does for {@link ReferenceCollection#includes(char[][][], char[][], char[][])}.
+	 */
+	private boolean containsOne(int[] position, BitSet ids) {
+		boolean result = ids == null;
+		for (int count = readInt(position); count > 0; count--) {
+			int id = readInt(position);
+			if (!result && ids.get(id))
+				result = true;
+		}
+		return result;
+	}
+
+	private char[][] readNames(int[] position, char[][] names) {
+		char[][] result = new char[readInt(position)][];
+		for (int i = 0, l = result.length; i < l; i++)
+			result[i] = names[readInt(position)];
+		return result;
+	}
+
+	/**
+	 * Write the encoding of the collection at the given offset to the given stream, as it is.
+	 */
+	void copy(int offset, ByteArrayOutputStream out) {
+		int[] position = {offset};
+		if (this.bytes[position[0]++] == 1)
+			skipInts(position); // the defined type names
+		skipInts(position);
+		skipInts(position);
+		skipInts(position);
+		out.write(this.bytes, offset, position[0] - offset);
+	}
+
+	/**
+	 * Answer whether the name tables are worth writing again as they are, for the collections at the given offsets
+	 * to be copied as they are: the names of each table are distinct, and at least half of all the names are still
+	 * referred to by these collections.
+	 */
+	boolean isMostlyReferenced(int[] offsets, int length) {
+		IdentityHashMap<char[], Integer> simpleIds = numbered(this.simpleNames);
+		if (numbered(this.typeNames).size() != this.typeNames.length
+				|| numbered(this.qualifiedNames).size() != this.qualifiedNames.length
+				|| simpleIds.size() != this.simpleNames.length
+				|| numbered(this.rootNames).size() != this.rootNames.length)
+			return false; // the names would not keep their numbers once written again
+		BitSet types = new BitSet();
+		BitSet qualified = new BitSet();
+		BitSet simple = new BitSet();
+		BitSet root = new BitSet();
+		for (int i = 0; i < length; i++) {
+			int[] position = {offsets[i]};
+			if (this.bytes[position[0]++] == 1)
+				markInts(position, types);
+			markInts(position, qualified);
+			markInts(position, simple);
+			markInts(position, root);
+		}
+		// the segments of the qualified names are written as simple names
+		for (int id = qualified.nextSetBit(0); id >= 0; id = qualified.nextSetBit(id + 1)) {
+			for (char[] segment : this.qualifiedNames[id]) {
+				Integer simpleId = simpleIds.get(segment);
+				if (simpleId != null)
+					simple.set(simpleId.intValue());
+			}
+		}
+		int names = this.typeNames.length + this.qualifiedNames.length + this.simpleNames.length + this.rootNames.length;
+		int referenced = types.cardinality() + qualified.cardinality() + simple.cardinality() + root.cardinality();
+		return 2 * referenced >= names;
+	}
+
+	private void markInts(int[] position, BitSet ids) {
+		for (int count = readInt(position); count > 0; count--)
+			ids.set(readInt(position));
+	}
+
+	private void skipInts(int[] position) {
+		for (int count = readInt(position); count > 0; count--)
+			readInt(position);
+	}
+
+	private int readInt(int[] position) {
+		int value = 0;
+		int shift = 0;
+		byte b;
+		do {
+			b = this.bytes[position[0]++];
+			value |= (b & 0x7F) << shift;
+			shift += 7;
+		} while (b < 0);
+		return value;
+	}
+
+	static void writeInt(ByteArrayOutputStream out, int value) {
+		while ((value & ~0x7F) != 0) {
+			out.write((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.write(value);
+	}
+}
+
+// values are either a ReferenceCollection, or the Integer offset of its encoding when it was not decoded yet
+private final LinkedHashMap<String, Object> entries;
+private final Encoding encoding;
+
+LazyReferenceMap() {
+	this.entries = new LinkedHashMap<>(7);
+	this.encoding = null;
+}
+
+LazyReferenceMap(Encoding encoding, String[] typeLocators, int[] offsets) {
+	this.entries = new LinkedHashMap<>((int) (typeLocators.length / 0.75 + 1));
+	this.encoding = encoding;
+	for (int i = 0, l = typeLocators.length; i < l; i++)
+		this.entries.put(typeLocators[i], Integer.valueOf(offsets[i]));
+}
+
+LazyReferenceMap(LazyReferenceMap map) {
+	this.entries = new LinkedHashMap<>(map.entries);
+	this.encoding = map.encoding;
+}
+
+/**
+ * Answer the encoding to write the collections which were not decoded yet with, copying them as they are, or null if
+ * they should be decoded and encoded again: when all the collections were decoded, or when the names of the encoding
+ * are mostly no longer referred to, see {@link Encoding#isMostlyReferenced(int[], int)}.
+ */
+Encoding getEncodingToCopy() {
+	if (this.encoding == null)
+		return null;
+	int[] offsets = new int[this.entries.size()];
+	int length = 0;
+	for (Object value : this.entries.values())
+		if (value instanceof Integer)
+			offsets[length++] = ((Integer) value).intValue();
+	return length > 0 && this.encoding.isMostlyReferenced(offsets, length) ? this.encoding : null;
+}
+
+/**
+ * Answer the collections in the order of the type locators. When the given encoding is the one of the map, the
+ * collections which were not decoded yet are answered as the Integer offset of their encoding in it, otherwise they
+ * are decoded, but not kept.
+ */
+Object[] getValues(Encoding copied) {
+	Object[] values = this.entries.values().toArray();
+	if (copied != this.encoding)
+		for (int i = 0, l = values.length; i < l; i++)
+			if (values[i] instanceof Integer)
+				values[i] = this.encoding.decode(((Integer) values[i]).intValue());
+	return values;
+}
+
+private ReferenceCollection decode(Map.Entry<String, Object> entry) {
+	Object value = entry.getValue();
+	if (value instanceof Integer)
+		return this.encoding.decode(((Integer) value).intValue()); // not kept, see the class comment
+	return (ReferenceCollection) value;
+}
+
+/**
+ * Pass the simple names referenced by each type locator to the given consumer, without decoding the collections.
+ */
+void forEachSimpleNames(BiConsumer<String, char[][]> consumer) {
+	for (Map.Entry<String, Object> entry : this.entries.entrySet()) {
+		Object value = entry.getValue();
+		consumer.accept(entry.getKey(), value instanceof Integer
+			? this.encoding.decodeSimpleNames(((Integer) value).intValue())
+			: ((ReferenceCollection) value).simpleNameReferences);
+	}
+}
+
+/**
+ * Answer a test of whether the collection of a type locator includes the given names, see
+ * {@link ReferenceCollection#includes(char[][][], char[][], char[][])}. The test answers false for a type locator
+ * without a collection. The collections which were not decoded yet are checked in their encoded form.
+ */
+Predicate<String> includes(char[][][] qualifiedNames, char[][] simpleNames, char[][] rootNames) {
+	IntPredicate encodedIncludes = this.encoding == null ? null : this.encoding.includes(qualifiedNames, simpleNames, rootNames);
+	return typeLocator -> {
+		Object value = this.entries.get(typeLocator);
+		if (value instanceof Integer) {
+			boolean result = encodedIncludes.test(((Integer) value).intValue());
+			if (ReferenceCollection.REFERENCE_COLLECTION_DEBUG
+					&& result != this.encoding.decode(((Integer) value).intValue()).includes(qualifiedNames, simpleNames, rootNames))
+				throw new IllegalStateException("Mismatched encoded includes(..) for " + typeLocator); //$NON-NLS-1$
+			return result;
+		}
+		return value != null && ((ReferenceCollection) value).includes(qualifiedNames, simpleNames, rootNames);
+	};
+}
+
+@Override
+public int size() {
+	return this.entries.size();
+}
+
+@Override
+public boolean containsKey(Object key) {
+	return this.entries.containsKey(key);
+}
+
+@Override
+public ReferenceCollection get(Object key) {
+	Object value = this.entries.get(key);
+	if (value instanceof Integer) {
+		value = this.encoding.decode(((Integer) value).intValue());
+		this.entries.put((String) key, value); // replaces the value of an existing key, the order is kept
+	}
+	return (ReferenceCollection) value;
+}
+
+/**
+ * Answers the previous collection of the key only if it was decoded, a collection still encoded is not decoded
+ * just to be dropped: null is answered instead.
+ */
+@Override
+public ReferenceCollection put(String key, ReferenceCollection value) {
+	Object previous = this.entries.put(key, value);
+	return previous instanceof ReferenceCollection ? (ReferenceCollection) previous : null;
+}
+
+/**
+ * Answers the removed collection only if it was decoded, see {@link #put(String, ReferenceCollection)}.
+ */
+@Override
+public ReferenceCollection remove(Object key) {
+	Object previous = this.entries.remove(key);
+	return previous instanceof ReferenceCollection ? (ReferenceCollection) previous : null;
+}
+
+@Override
+public void clear() {
+	this.entries.clear();
+}
+
+@Override
+public Set<String> keySet() {
+	return this.entries.keySet();
+}
+
+@Override
+public Set<Map.Entry<String, ReferenceCollection>> entrySet() {
+	return new AbstractSet<Map.Entry<String, ReferenceCollection>>() {
+		@Override
+		public Iterator<Map.Entry<String, ReferenceCollection>> iterator() {
+			Iterator<Map.Entry<String, Object>> iterator = LazyReferenceMap.this.entries.entrySet().iterator();
+			return new Iterator<Map.Entry<String, ReferenceCollection>>() {
+				@Override
+				public boolean hasNext() {
+					return iterator.hasNext();
+				}
+				@Override
+				public Map.Entry<String, ReferenceCollection> next() {
+					Map.Entry<String, Object> entry = iterator.next();
+					return new SimpleImmutableEntry<>(entry.getKey(), decode(entry));
+				}
+				@Override
+				public void remove() {
+					iterator.remove();
+				}
+			};
+		}
+		@Override
+		public int size() {
+			return LazyReferenceMap.this.entries.size();
+		}
+	};
+}
+}
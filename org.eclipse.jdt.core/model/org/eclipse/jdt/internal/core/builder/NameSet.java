@@ -15,6 +15,10 @@ package org.eclipse.jdt.internal.core.builder;
 
 import org.eclipse.jdt.core.compiler.CharOperation;
 
+/**
+ * Set of names, used to intern them. Adding is thread safe since the interned names of
+ * {@link ReferenceCollection} are shared by the builds of all projects, which may run concurrently.
+ */
 public final class NameSet {
 
 // to avoid using Enumerations, walk the individual values skipping nulls
@@ -31,7 +35,7 @@ public NameSet(int size) {
 	this.names = new char[extraRoom][];
 }
 
-public char[] add(char[] name) {
+public synchronized char[] add(char[] name) {
 	int length = this.names.length;
 	int index = CharOperation.hashCode(name) % length;
 	char[] current;
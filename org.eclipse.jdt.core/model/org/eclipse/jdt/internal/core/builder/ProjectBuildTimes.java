@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.builder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Times of the projects built during one build cycle, which may be built concurrently.
+ * <p>
+ * The critical path is the chain of prerequisite projects whose build times add up to the longest time:
+ * however many projects are built at once, the build cycle can not take less than this.
+ * </p>
+ */
+class ProjectBuildTimes {
+
+static class Entry {
+	final String projectName;
+	final long startNanos;
+	final long endNanos;
+	final String[] prerequisites;
+
+	Entry(String projectName, long startNanos, long endNanos, String[] prerequisites) {
+		this.projectName = projectName;
+		this.startNanos = startNanos;
+		this.endNanos = endNanos;
+		this.prerequisites = prerequisites;
+	}
+
+	long duration() {
+		return this.endNanos - this.startNanos;
+	}
+}
+
+private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+synchronized void record(String projectName, long startNanos, long endNanos, String[] prerequisites) {
+	// a project built again in the same cycle (cycles, or builders ahead of the java builder) adds up
+	Entry previous = this.entries.get(projectName);
+	if (previous != null)
+		startNanos -= previous.duration();
+	this.entries.put(projectName, new Entry(projectName, startNanos, endNanos, prerequisites));
+}
+
+synchronized boolean isEmpty() {
+	return this.entries.isEmpty();
+}
+
+synchronized void reset() {
+	this.entries.clear();
+}
+
+/**
+ * Answer the projects of the critical path, starting with the first one built.
+ */
+synchronized List<Entry> criticalPath() {
+	Map<String, Long> pathTimes = new HashMap<>();
+	Map<String, Entry> previousOnPath = new HashMap<>();
+	Entry last = null;
+	for (Entry entry : this.entries.values()) {
+		long time = pathTime(entry, pathTimes, previousOnPath, new HashMap<>());
+		if (last == null || time > pathTimes.get(last.projectName).longValue())
+			last = entry;
+	}
+	List<Entry> path = new ArrayList<>();
+	for (Entry entry = last; entry != null; entry = previousOnPath.get(entry.projectName))
+		path.add(0, entry);
+	return path;
+}
+
+private long pathTime(Entry entry, Map<String, Long> pathTimes, Map<String, Entry> previousOnPath, Map<String, Boolean> visiting) {
+	Long known = pathTimes.get(entry.projectName);
+	if (known != null)
+		return known.longValue();
+	visiting.put(entry.projectName, Boolean.TRUE);
+	long longest = 0;
+	for (String prerequisite : entry.prerequisites) {
+		Entry required = this.entries.get(prerequisite);
+		// prerequisites which were not built in this cycle, or are part of a cycle, do not delay the project
+		if (required == null || visiting.containsKey(prerequisite))
+			continue;
+		long time = pathTime(required, pathTimes, previousOnPath, visiting);
+		if (time > longest) {
+			longest = time;
+			previousOnPath.put(entry.projectName, required);
+		}
+	}
+	visiting.remove(entry.projectName);
+	long time = longest + entry.duration();
+	pathTimes.put(entry.projectName, Long.valueOf(time));
+	return time;
+}
+
+@Override
+public synchronized String toString() {
+	long total = 0, start = Long.MAX_VALUE, end = Long.MIN_VALUE;
+	for (Entry entry : this.entries.values()) {
+		total += entry.duration();
+		start = Math.min(start, entry.startNanos);
+		end = Math.max(end, entry.endNanos);
+	}
+	StringBuilder buffer = new StringBuilder("JavaBuilder: Built "); //$NON-NLS-1$
+	buffer.append(this.entries.size()).append(" projects in ") //$NON-NLS-1$
+		.append(toMillis(end - start)).append(" ms, for a total of ") //$NON-NLS-1$
+		.append(toMillis(total)).append(" ms of project builds\n"); //$NON-NLS-1$
+	List<Entry> path = criticalPath();
+	long pathTotal = 0;
+	for (Entry entry : path)
+		pathTotal += entry.duration();
+	buffer.append("JavaBuilder: Critical path of ").append(toMillis(pathTotal)).append(" ms:\n"); //$NON-NLS-1$ //$NON-NLS-2$
+	for (Entry entry : path)
+		buffer.append("    ").append(entry.projectName).append(": ").append(toMillis(entry.duration())).append(" ms\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	return buffer.toString();
+}
+
+private static long toMillis(long nanos) {
+	return nanos / 1_000_000;
+}
+}
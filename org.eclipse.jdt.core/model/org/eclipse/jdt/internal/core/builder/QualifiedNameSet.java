@@ -15,6 +15,9 @@ package org.eclipse.jdt.internal.core.builder;
 
 import org.eclipse.jdt.core.compiler.CharOperation;
 
+/**
+ * Set of qualified names, used to intern them. Adding is thread safe, see {@link NameSet}.
+ */
 public class QualifiedNameSet {
 
 // to avoid using Enumerations, walk the individual values skipping nulls
@@ -31,7 +34,7 @@ public QualifiedNameSet(int size) {
 	this.qualifiedNames = new char[extraRoom][][];
 }
 
-public char[][] add(char[][] qualifiedName) {
+public synchronized char[][] add(char[][] qualifiedName) {
 	int qLength = qualifiedName.length;
 	if (qLength == 0) return CharOperation.NO_CHAR_CHAR;
 
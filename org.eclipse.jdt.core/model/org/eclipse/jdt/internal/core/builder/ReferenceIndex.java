@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.builder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.internal.compiler.util.CharArrayHashMap;
+
+/**
+ * Inverted index of {@link State#references}: answers the type locators whose reference collection may include
+ * one of a set of simple names, without walking all the reference collections of the project.
+ * <p>
+ * The index only grows. It answers a superset of the type locators whose collection currently includes a name:
+ * a locator whose collection was replaced or removed since it was indexed is still answered, so callers must
+ * check the current collection of each answered locator with {@link ReferenceCollection#includes(char[][][], char[][], char[][])}.
+ * Since it never answers less than needed, a state can keep using the index of the state it was copied from.
+ * </p>
+ */
+class ReferenceIndex {
+
+// type locators are numbered in the order they are first indexed, which keeps the answers in a stable order
+private final Map<String, Integer> ids;
+private final List<String> typeLocators;
+// for each simple name, the sorted ids of the locators which referenced it. The first element is the count of ids
+private final CharArrayHashMap<int[]> postings;
+
+private int size;
+private final int initialSize;
+
+ReferenceIndex(LazyReferenceMap references) {
+	this.ids = new HashMap<>(references.size() * 2);
+	this.typeLocators = new ArrayList<>(references.size());
+	this.postings = new CharArrayHashMap<>(references.size() * 4);
+	references.forEachSimpleNames(this::add); // does not decode the collections of a saved state
+	this.initialSize = this.size;
+}
+
+/**
+ * Answer whether the index holds so many outdated entries that it should be built again.
+ */
+boolean isStale() {
+	return this.size > 2 * this.initialSize + 1024;
+}
+
+/**
+ * Index the simple names of the given collection, the collection of the given type locator.
+ * Names which are no longer referenced by the type locator are kept.
+ */
+void add(String typeLocator, ReferenceCollection collection) {
+	add(typeLocator, collection.simpleNameReferences);
+}
+
+private void add(String typeLocator, char[][] simpleNames) {
+	Integer id = this.ids.get(typeLocator);
+	if (id == null) {
+		id = Integer.valueOf(this.typeLocators.size());
+		this.ids.put(typeLocator, id);
+		this.typeLocators.add(typeLocator);
+	}
+	for (char[] simpleName : simpleNames)
+		addPosting(simpleName, id.intValue());
+}
+
+private void addPosting(char[] simpleName, int id) {
+	int[] posting = this.postings.get(simpleName);
+	if (posting == null) {
+		posting = new int[4];
+		this.postings.put(simpleName, posting);
+	}
+	int count = posting[0];
+	int index = Arrays.binarySearch(posting, 1, count + 1, id);
+	if (index >= 0)
+		return; // already indexed
+	index = -(index + 1);
+	if (count + 1 == posting.length) {
+		posting = Arrays.copyOf(posting, posting.length * 2);
+		this.postings.put(simpleName, posting);
+	}
+	System.arraycopy(posting, index, posting, index + 1, count + 1 - index);
+	posting[index] = id;
+	posting[0] = count + 1;
+	this.size++;
+}
+
+/**
+ * Answer the type locators which may reference one of the given simple names, in the order they were indexed.
+ */
+List<String> typeLocatorsReferencing(char[][] simpleNames) {
+	BitSet found = new BitSet(this.typeLocators.size());
+	for (char[] simpleName : simpleNames) {
+		int[] posting = this.postings.get(simpleName);
+		if (posting != null) {
+			for (int i = 1, count = posting[0]; i <= count; i++)
+				found.set(posting[i]);
+		}
+	}
+	List<String> result = new ArrayList<>(found.cardinality());
+	for (int id = found.nextSetBit(0); id >= 0; id = found.nextSetBit(id + 1))
+		result.add(this.typeLocators.get(id));
+	return result;
+}
+}
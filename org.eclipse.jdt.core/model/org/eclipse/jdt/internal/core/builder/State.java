@@ -18,6 +18,7 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.core.builder;
 
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
@@ -65,9 +66,14 @@ public ClasspathMultiDirectory[] testSourceLocations;
 public ClasspathLocation[] binaryLocations;
 public ClasspathLocation[] testBinaryLocations;
 // keyed by the project relative path of the type (i.e. "src1/p1/p2/A.java"), value is a ReferenceCollection or an AdditionalTypeCollection
-Map<String, ReferenceCollection> references;
+LazyReferenceMap references;
 // keyed by qualified type name "p1/p2/A", value is the project relative path which defines this type "src1/p1/p2/A.java"
 public Map<String, String> typeLocators;
+// inverted index of references, built when first needed and not persisted
+private ReferenceIndex referenceIndex;
+// keyed by the project relative path of a class file written by the builder (i.e. "bin/p1/p2/A$M.class"),
+// value is {hash of its contents, structural hash, modification stamp of the file once written}
+private Map<String, long[]> classFileHashes;
 
 int buildNumber;
 long lastStructuralBuildTime;
@@ -79,7 +85,7 @@ private long previousStructuralBuildTime;
 private StringSet structurallyChangedTypes;
 public static int MaxStructurallyChangedTypes = 100; // keep track of ? structurally changed types, otherwise consider all to be changed
 
-public static final byte VERSION = 0x0026;
+public static final byte VERSION = 0x0028;
 
 static final byte SOURCE_FOLDER = 1;
 static final byte BINARY_FOLDER = 2;
@@ -104,8 +110,9 @@ protected State(JavaBuilder javaBuilder) {
 	this.binaryLocations = javaBuilder.nameEnvironment.binaryLocations;
 	this.testSourceLocations = javaBuilder.testNameEnvironment.sourceLocations;
 	this.testBinaryLocations = javaBuilder.testNameEnvironment.binaryLocations;
-	this.references = new LinkedHashMap<>(7);
+	this.references = new LazyReferenceMap();
 	this.typeLocators = new LinkedHashMap<>(7);
+	this.classFileHashes = new LinkedHashMap<>(7);
 
 	this.buildNumber = 0; // indicates a full build
 	this.lastStructuralBuildTime = computeStructuralBuildTime(javaBuilder.lastState == null ? 0 : javaBuilder.lastState.lastStructuralBuildTime);
@@ -127,8 +134,10 @@ void copyFrom(State lastState) {
 	this.lastStructuralBuildTime = lastState.lastStructuralBuildTime;
 	this.structuralBuildTimes = lastState.structuralBuildTimes;
 
-	this.references = new LinkedHashMap<>(lastState.references);
+	this.references = new LazyReferenceMap(lastState.references);
 	this.typeLocators = new LinkedHashMap<>(lastState.typeLocators);
+	this.referenceIndex = lastState.referenceIndex; // answers a superset of the references, see ReferenceIndex
+	this.classFileHashes = new LinkedHashMap<>(lastState.classFileHashes);
 }
 
 /**
@@ -175,6 +184,24 @@ public Map<String, ReferenceCollection> getReferences() {
 	return this.references;
 }
 
+/**
+ * Answer the type locators whose reference collection may include one of the given simple names.
+ * Each answered collection still needs to be checked, see {@link ReferenceIndex}.
+ */
+List<String> getTypeLocatorsReferencing(char[][] simpleNames) {
+	if (this.referenceIndex == null || this.referenceIndex.isStale())
+		this.referenceIndex = new ReferenceIndex(this.references);
+	return this.referenceIndex.typeLocatorsReferencing(simpleNames);
+}
+
+/**
+ * Answer the hashes recorded for the given class file, see {@link #recordClassFileHashes(String, long, long, long)},
+ * or null if none were.
+ */
+long[] getClassFileHashes(String classFilePath) {
+	return this.classFileHashes.get(classFilePath);
+}
+
 StringSet getStructurallyChangedTypes(State prereqState) {
 	if (prereqState != null && prereqState.previousStructuralBuildTime > 0) {
 		Object o = this.structuralBuildTimes.get(prereqState.javaProjectName);
@@ -227,13 +254,35 @@ boolean isSourceFolderEmpty(IContainer sourceFolder) {
 }
 
 void record(String typeLocator, char[][][] qualifiedRefs, char[][] simpleRefs, char[][] rootRefs, char[] mainTypeName, ArrayList typeNames) {
+	ReferenceCollection collection;
 	if (typeNames.size() == 1 && CharOperation.equals(mainTypeName, (char[]) typeNames.get(0))) {
-		this.references.put(typeLocator, new ReferenceCollection(qualifiedRefs, simpleRefs, rootRefs));
+		collection = new ReferenceCollection(qualifiedRefs, simpleRefs, rootRefs);
 	} else {
 		char[][] definedTypeNames = new char[typeNames.size()][]; // can be empty when no types are defined
 		typeNames.toArray(definedTypeNames);
-		this.references.put(typeLocator, new AdditionalTypeCollection(definedTypeNames, qualifiedRefs, simpleRefs, rootRefs));
+		collection = new AdditionalTypeCollection(definedTypeNames, qualifiedRefs, simpleRefs, rootRefs);
 	}
+	this.references.put(typeLocator, collection);
+	if (this.referenceIndex != null)
+		this.referenceIndex.add(typeLocator, collection);
+}
+
+void recordDependencies(String typeLocator, String[] typeNameDependencies) {
+	ReferenceCollection collection = this.references.get(typeLocator);
+	if (collection != null) {
+		collection.addDependencies(typeNameDependencies);
+		if (this.referenceIndex != null)
+			this.referenceIndex.add(typeLocator, collection);
+	}
+}
+
+/**
+ * Record the hashes of a class file just written by the builder: the hash of its contents,
+ * its {@link org.eclipse.jdt.internal.compiler.classfmt.ClassFileReader#getStructuralHash() structural hash}
+ * and its modification stamp, which tells whether the file was changed since.
+ */
+void recordClassFileHashes(String classFilePath, long contentHash, long structuralHash, long modificationStamp) {
+	this.classFileHashes.put(classFilePath, new long[] {contentHash, structuralHash, modificationStamp});
 }
 
 void recordLocatorForType(String qualifiedTypeName, String typeLocator) {
@@ -251,6 +300,10 @@ void recordStructuralDependency(IProject prereqProject, State prereqState) {
 			this.structuralBuildTimes.put(prereqProject.getName(), Long.valueOf(prereqState.lastStructuralBuildTime));
 }
 
+void removeClassFileHashes(String classFilePath) {
+	this.classFileHashes.remove(classFilePath);
+}
+
 void removeLocator(String typeLocatorToRemove) {
 	this.knownPackageNames = null;
 	this.references.remove(typeLocatorToRemove);
@@ -337,39 +390,22 @@ static State read(IProject project, DataInputStream input) throws IOException, C
 	}
 	internedQualifiedNames = ReferenceCollection.internQualifiedNames(internedQualifiedNames, false /* drop well known */, false /* do not sort */);
 
+	char[][] typeNames = readNames(in);
+
+	// the collections are only decoded when first asked for, see LazyReferenceMap
+	int encodedLength = in.readInt();
+	int[] offsets = new int[length = in.readInt()];
+	for (int i = 0; i < length; i++)
+		offsets[i] = in.readIntInRange(encodedLength);
+	byte[] encoded = in.readBytes(encodedLength);
+	newState.references = new LazyReferenceMap(
+		new LazyReferenceMap.Encoding(encoded, typeNames, internedQualifiedNames, internedSimpleNames, internedRootNames),
+		internedTypeLocators, offsets);
+
 	length = in.readInt();
-	newState.references = new LinkedHashMap((int) (length / 0.75 + 1));
-	for (int i = 0; i < length; i++) {
-		String typeLocator = internedTypeLocators[in.readInt()];
-		ReferenceCollection collection = null;
-		switch (in.readByte()) {
-			case 1 :
-				char[][] additionalTypeNames = readNames(in);
-				char[][][] qualifiedNames = new char[in.readInt()][][];
-				for (int j = 0, m = qualifiedNames.length; j < m; j++)
-					qualifiedNames[j] = internedQualifiedNames[in.readIntInRange(internedQualifiedNames.length)];
-				char[][] simpleNames = new char[in.readInt()][];
-				for (int j = 0, m = simpleNames.length; j < m; j++)
-					simpleNames[j] = internedSimpleNames[in.readIntInRange(internedSimpleNames.length)];
-				char[][] rootNames = new char[in.readInt()][];
-				for (int j = 0, m = rootNames.length; j < m; j++)
-					rootNames[j] = internedRootNames[in.readIntInRange(internedRootNames.length)];
-				collection = new AdditionalTypeCollection(additionalTypeNames, qualifiedNames, simpleNames, rootNames);
-				break;
-			case 2 :
-				char[][][] qNames = new char[in.readInt()][][];
-				for (int j = 0, m = qNames.length; j < m; j++)
-					qNames[j] = internedQualifiedNames[in.readIntInRange(internedQualifiedNames.length)];
-				char[][] sNames = new char[in.readInt()][];
-				for (int j = 0, m = sNames.length; j < m; j++)
-					sNames[j] = internedSimpleNames[in.readIntInRange(internedSimpleNames.length)];
-				char[][] rNames = new char[in.readInt()][];
-				for (int j = 0, m = rNames.length; j < m; j++)
-					rNames[j] = internedRootNames[in.readIntInRange(internedRootNames.length)];
-				collection = new ReferenceCollection(qNames, sNames, rNames);
-		}
-		newState.references.put(typeLocator, collection);
-	}
+	newState.classFileHashes = new LinkedHashMap<>((int) (length / 0.75 + 1));
+	for (int i = 0; i < length; i++)
+		newState.classFileHashes.put(in.readStringUsingLast(), new long[] {in.readLong(), in.readLong(), in.readLong()});
 	if (JavaBuilder.DEBUG)
 		System.out.println("Successfully read state for " + newState.javaProjectName); //$NON-NLS-1$
 	return newState;
@@ -628,10 +664,34 @@ void write(DataOutputStream output) throws IOException {
  * char[][][]	Interned qualified names
  * char[][]	Interned simple names
  */
+	// the collections not decoded since the state was read are copied as they are, and the names keep the numbers
+	// these collections refer to them by, unless most of these names are no longer referred to
+	LazyReferenceMap.Encoding copiedEncoding = this.references.getEncodingToCopy();
+	Object[] collections = this.references.getValues(copiedEncoding);
 	SimpleLookupTable internedRootNames = new SimpleLookupTable(3);
 	SimpleLookupTable internedQualifiedNames = new SimpleLookupTable(31);
 	SimpleLookupTable internedSimpleNames = new SimpleLookupTable(31);
-	for (ReferenceCollection collection : this.references.values()) {
+	SimpleLookupTable internedTypeNames = new SimpleLookupTable(3);
+	if (copiedEncoding != null) {
+		for (char[] sName : copiedEncoding.simpleNames)
+			internedSimpleNames.put(sName, Integer.valueOf(internedSimpleNames.elementSize));
+		for (char[][] qName : copiedEncoding.qualifiedNames) {
+			internedQualifiedNames.put(qName, Integer.valueOf(internedQualifiedNames.elementSize));
+			for (int k = 0, n = qName.length; k < n; k++) {
+				char[] sName = qName[k];
+				if (!internedSimpleNames.containsKey(sName))
+					internedSimpleNames.put(sName, Integer.valueOf(internedSimpleNames.elementSize));
+			}
+		}
+		for (char[] rName : copiedEncoding.rootNames)
+			internedRootNames.put(rName, Integer.valueOf(internedRootNames.elementSize));
+		for (char[] tName : copiedEncoding.typeNames)
+			internedTypeNames.put(tName, Integer.valueOf(internedTypeNames.elementSize));
+	}
+	for (Object value : collections) {
+		if (!(value instanceof ReferenceCollection))
+			continue; // copied, its names were added above
+		ReferenceCollection collection = (ReferenceCollection) value;
 		char[][] rNames = collection.rootReferences;
 		for (int j = 0, m = rNames.length; j < m; j++) {
 			char[] rName = rNames[j];
@@ -700,49 +760,87 @@ void write(DataOutputStream output) throws IOException {
 	}
 
 /*
- * References table
- * int		interned locator id
- * ReferenceCollection
-*/
-	out.writeInt(length = this.references.size());
-	if (length > 0) {
-		for (Entry<String, ReferenceCollection> entry : this.references.entrySet()) {
-			String key = entry.getKey();
-			length--;
-			Integer index = (Integer) internedTypeLocators.get(key);
-			out.writeInt(index.intValue());
-			ReferenceCollection collection = entry.getValue();
-			if (collection instanceof AdditionalTypeCollection) {
-				out.writeByte(1);
-				AdditionalTypeCollection atc = (AdditionalTypeCollection) collection;
-				writeNames(atc.definedTypeNames, out);
-			} else {
-				out.writeByte(2);
-			}
-			char[][][] qNames = collection.qualifiedNameReferences;
-			int qLength = qNames.length;
-			out.writeInt(qLength);
-			for (int j = 0; j < qLength; j++) {
-				index = (Integer) internedQualifiedNames.get(qNames[j]);
-				out.writeIntInRange(index.intValue(), internedQualifiedNames.elementSize);
-			}
-			char[][] sNames = collection.simpleNameReferences;
-			int sLength = sNames.length;
-			out.writeInt(sLength);
-			for (int j = 0; j < sLength; j++) {
-				index = (Integer) internedSimpleNames.get(sNames[j]);
-				out.writeIntInRange(index.intValue(), internedSimpleNames.elementSize);
-			}
-			char[][] rNames = collection.rootReferences;
-			int rLength = rNames.length;
-			out.writeInt(rLength);
-			for (int j = 0; j < rLength; j++) {
-				index = (Integer) internedRootNames.get(rNames[j]);
-				out.writeIntInRange(index.intValue(), internedRootNames.elementSize);
+ * char[][]	Defined type names of the additional type collections
+ */
+	for (Object collection : collections) {
+		if (collection instanceof AdditionalTypeCollection) {
+			char[][] tNames = ((AdditionalTypeCollection) collection).definedTypeNames;
+			for (int j = 0, m = tNames.length; j < m; j++) {
+				if (!internedTypeNames.containsKey(tNames[j]))
+					internedTypeNames.put(tNames[j], Integer.valueOf(internedTypeNames.elementSize));
 			}
 		}
-		if (JavaBuilder.DEBUG && length != 0)
-			System.out.println("references table is inconsistent"); //$NON-NLS-1$
+	}
+	internedArray = new char[internedTypeNames.elementSize][];
+	Object[] typeNames = internedTypeNames.keyTable;
+	positions = internedTypeNames.valueTable;
+	for (int i = positions.length; --i >= 0; ) {
+		if (positions[i] != null) {
+			int index = ((Integer) positions[i]).intValue();
+			internedArray[index] = (char[]) typeNames[i];
+		}
+	}
+	writeNames(internedArray, out);
+
+/*
+ * References table, in the order of the interned type locators
+ * int		length of the encoded collections
+ * int		number of collections
+ * int		offset of each collection
+ * byte[]	encoded collections, see LazyReferenceMap.Encoding
+*/
+	ByteArrayOutputStream encoded = new ByteArrayOutputStream(collections.length * 32);
+	int[] offsets = new int[collections.length];
+	length = 0;
+	for (Object value : collections) {
+		offsets[length++] = encoded.size();
+		if (value instanceof Integer) {
+			copiedEncoding.copy(((Integer) value).intValue(), encoded);
+			continue;
+		}
+		ReferenceCollection collection = (ReferenceCollection) value;
+		if (collection instanceof AdditionalTypeCollection) {
+			encoded.write(1);
+			char[][] tNames = ((AdditionalTypeCollection) collection).definedTypeNames;
+			LazyReferenceMap.Encoding.writeInt(encoded, tNames.length);
+			for (int j = 0, m = tNames.length; j < m; j++)
+				LazyReferenceMap.Encoding.writeInt(encoded, ((Integer) internedTypeNames.get(tNames[j])).intValue());
+		} else {
+			encoded.write(2);
+		}
+		char[][][] qNames = collection.qualifiedNameReferences;
+		LazyReferenceMap.Encoding.writeInt(encoded, qNames.length);
+		for (int j = 0, m = qNames.length; j < m; j++)
+			LazyReferenceMap.Encoding.writeInt(encoded, ((Integer) internedQualifiedNames.get(qNames[j])).intValue());
+		char[][] sNames = collection.simpleNameReferences;
+		LazyReferenceMap.Encoding.writeInt(encoded, sNames.length);
+		for (int j = 0, m = sNames.length; j < m; j++)
+			LazyReferenceMap.Encoding.writeInt(encoded, ((Integer) internedSimpleNames.get(sNames[j])).intValue());
+		char[][] rNames = collection.rootReferences;
+		LazyReferenceMap.Encoding.writeInt(encoded, rNames.length);
+		for (int j = 0, m = rNames.length; j < m; j++)
+			LazyReferenceMap.Encoding.writeInt(encoded, ((Integer) internedRootNames.get(rNames[j])).intValue());
+	}
+	out.writeInt(encoded.size());
+	out.writeInt(length);
+	for (int i = 0; i < length; i++)
+		out.writeIntInRange(offsets[i], encoded.size());
+	out.writeBytes(encoded.toByteArray());
+
+/*
+ * Class file hashes table
+ * String		project relative path of the class file
+ * long		hash of its contents
+ * long		structural hash
+ * long		modification stamp
+ */
+	out.writeInt(this.classFileHashes.size());
+	for (Entry<String, long[]> entry : this.classFileHashes.entrySet()) {
+		long[] hashes = entry.getValue();
+		out.writeStringUsingLast(entry.getKey());
+		out.writeLong(hashes[0]);
+		out.writeLong(hashes[1]);
+		out.writeLong(hashes[2]);
 	}
 }
 
@@ -15,6 +15,8 @@
 
 package org.eclipse.jdt.internal.core.util;
 
+import org.eclipse.jdt.internal.compiler.util.CharDeduplication;
+
 /** Utility to provide deduplication by best effort. **/
 public final class DeduplicationUtil {
 	private DeduplicationUtil() {
@@ -32,9 +34,14 @@ public final class DeduplicationUtil {
 	}
 
 	public static char[] intern(char[] array) {
+		// the compiler's global tier answers most names without locking
+		char[] shared = CharDeduplication.getShared(array);
+		if (shared != null)
+			return shared;
 		synchronized (charArraySymbols) {
-			return charArraySymbols.add(array);
+			shared = charArraySymbols.add(array);
 		}
+		return CharDeduplication.intern(shared);
 	}
 
 	/*
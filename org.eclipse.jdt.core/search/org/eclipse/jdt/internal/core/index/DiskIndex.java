@@ -16,12 +16,14 @@ package org.eclipse.jdt.internal.core.index;
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
 import java.util.regex.Pattern;
 
 import org.eclipse.jdt.core.compiler.CharOperation;
 import org.eclipse.jdt.core.search.*;
 import org.eclipse.jdt.internal.core.util.*;
 import org.eclipse.osgi.util.NLS;
+import org.eclipse.jdt.internal.compiler.parser.ScannerHelper;
 import org.eclipse.jdt.internal.compiler.util.HashtableOfIntValues;
 import org.eclipse.jdt.internal.compiler.util.HashtableOfObject;
 import org.eclipse.jdt.internal.compiler.util.SimpleLookupTable;
@@ -39,21 +41,28 @@ private int[] chunkOffsets;
 private int documentReferenceSize; // 1, 2 or more bytes... depends on # of document names
 private int startOfCategoryTables;
 private HashtableOfIntValues categoryOffsets, categoryEnds;
+private HashtableOfIntValues categoryIndexOffsets; // category name -> offset of the CategoryIndex of its table
+private HashtableOfObject categoryIndexes; // category name -> CategoryIndex, read when first needed
 
 private int cacheUserCount;
 private String[][] cachedChunks; // decompressed chunks of document names
 private HashtableOfObject categoryTables; // category name -> HashtableOfObject(words -> int[] of document #'s) or offset if not read yet
 private char[] cachedCategoryName;
+// category tables with this many words are not kept between queries, nor read whole when the words of a query share a prefix
+private static final int LARGE_CATEGORY_TABLE_SIZE = 20000;
+// large category tables are written with the n-grams of their words when set, see CategoryIndex
+public static boolean NGRAM_INDEX = Boolean.parseBoolean(System.getProperty("org.eclipse.jdt.ngramIndex", "false")); //$NON-NLS-1$ //$NON-NLS-2$
 
 private static final int DEFAULT_BUFFER_SIZE = 2048;
 private static int BUFFER_READ_SIZE = DEFAULT_BUFFER_SIZE;
 private static final int BUFFER_WRITE_SIZE = DEFAULT_BUFFER_SIZE;
 private byte[] streamBuffer;
 private int bufferIndex, bufferEnd; // used when reading from the file into the streamBuffer
+private int bufferOffset; // offset in the file of the streamBuffer, when read with seekStream()
 private int streamEnd; // used when writing data from the streamBuffer to the file
 char separator = Index.DEFAULT_SEPARATOR;
 
-public static final String INDEX_VERSION = "1.132"; //$NON-NLS-1$
+public static final String INDEX_VERSION = "1.134"; //$NON-NLS-1$
 public static final String SIGNATURE = "INDEX VERSION " + INDEX_VERSION; //$NON-NLS-1$
 private static final char[] SIGNATURE_CHARS = SIGNATURE.toCharArray();
 public static boolean DEBUG = false;
@@ -66,6 +75,78 @@ private static final int CHUNK_SIZE = 100;
 private static final SimpleSetOfCharArray INTERNED_CATEGORY_NAMES = new SimpleSetOfCharArray(20);
 private static final String TMP_EXT = ".tmp"; //$NON-NLS-1$
 
+/**
+ * The index of a category table. The words of a table are written in the order of {@link DiskIndex#compareWords(char[], char[])},
+ * in which the words starting with a given prefix, in any case, follow each other. The index holds the first word of
+ * every {@link #BLOCK_SIZE} words and the offset of its entry in the table: the words of a query which all start with
+ * the same prefix are read from the blocks which may hold this prefix only.
+ * <p>
+ * When {@link DiskIndex#NGRAM_INDEX} is set, the index of a large table also locates the n-grams of its words: each
+ * character and each sequence of {@link #GRAM_LENGTH} characters, in lower case, with the numbers of the words holding
+ * it in the table. The n-grams are sorted and indexed by blocks like the words. The words of a substring or subword
+ * query are read from the words holding all the n-grams of its key only.
+ * </p><p>
+ * The n-grams make a large table about twice as large on disk, and a hash table of all the n-grams of its words is
+ * built in memory while the table is written, which is why they are not written by default.
+ * </p>
+ */
+static class CategoryIndex {
+	static final int BLOCK_SIZE = 128;
+	static final int GRAM_LENGTH = 3;
+
+	final int size; // the number of words in the table
+	final char[][] firstWords;
+	final int[] offsets;
+	final int gramCount; // 0 if the n-grams of the words were not written
+	final char[][] firstGrams; // the sorted n-grams are written in blocks too, each followed by the offset of the numbers of its words
+	final int[] gramOffsets;
+
+	CategoryIndex(int size, char[][] firstWords, int[] offsets, int gramCount, char[][] firstGrams, int[] gramOffsets) {
+		this.size = size;
+		this.firstWords = firstWords;
+		this.offsets = offsets;
+		this.gramCount = gramCount;
+		this.firstGrams = firstGrams;
+		this.gramOffsets = gramOffsets;
+	}
+
+	/**
+	 * Answer the first block which may hold words starting with the given prefix.
+	 */
+	int firstBlockOf(char[] prefix) {
+		int first = 0;
+		int low = 0, high = this.firstWords.length - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			if (comparePrefix(this.firstWords[middle], prefix) < 0) {
+				first = middle; // the block may still end with words starting with the prefix
+				low = middle + 1;
+			} else {
+				high = middle - 1;
+			}
+		}
+		return first;
+	}
+
+	/**
+	 * Answer the block of n-grams which holds the given n-gram if any, or -1 if it is before the first n-gram.
+	 */
+	int gramBlockOf(char[] gram) {
+		int block = -1;
+		int low = 0, high = this.firstGrams.length - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			if (CharOperation.compareTo(this.firstGrams[middle], gram) <= 0) {
+				block = middle;
+				low = middle + 1;
+			} else {
+				high = middle - 1;
+			}
+		}
+		return block;
+	}
+}
+
 static class IntList {
 
 int size;
@@ -103,6 +184,8 @@ DiskIndex() {
 	this.cachedCategoryName = null;
 	this.categoryOffsets = null;
 	this.categoryEnds = null;
+	this.categoryIndexOffsets = null;
+	this.categoryIndexes = null;
 }
 DiskIndex(IndexLocation location) throws IOException {
 	this();
@@ -196,7 +279,7 @@ HashtableOfObject addQueryResults(char[][] categories, char[] key, int matchRule
 		switch (matchRule) {
 			case SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE:
 				for (int i = 0, l = categories.length; i < l; i++) {
-					HashtableOfObject wordsToDocNumbers = readCategoryTable(categories[i], false);
+					HashtableOfObject wordsToDocNumbers = readCategoryTable(categories[i], key, matchRule);
 					Object value;
 					if (wordsToDocNumbers != null && (value = wordsToDocNumbers.get(key)) != null)
 						results = addQueryResult(results, key, value, memoryIndex, prevResults);
@@ -205,7 +288,7 @@ HashtableOfObject addQueryResults(char[][] categories, char[] key, int matchRule
 				break;
 			case SearchPattern.R_PREFIX_MATCH | SearchPattern.R_CASE_SENSITIVE:
 				for (int i = 0, l = categories.length; i < l; i++) {
-					HashtableOfObject wordsToDocNumbers = readCategoryTable(categories[i], false);
+					HashtableOfObject wordsToDocNumbers = readCategoryTable(categories[i], key, matchRule);
 					if (wordsToDocNumbers != null) {
 						char[][] words = wordsToDocNumbers.keyTable;
 						Object[] values = wordsToDocNumbers.valueTable;
@@ -235,14 +318,15 @@ HashtableOfObject addQueryResults(char[][] categories, char[] key, int matchRule
 				}
 				break;
 			default:
+				Pattern regexp = Index.compileRegexp(key, matchRule); // compiled once for all the words
 				for (int i = 0, l = categories.length; i < l; i++) {
-					HashtableOfObject wordsToDocNumbers = readCategoryTable(categories[i], false);
+					HashtableOfObject wordsToDocNumbers = readCategoryTable(categories[i], key, matchRule);
 					if (wordsToDocNumbers != null) {
 						char[][] words = wordsToDocNumbers.keyTable;
 						Object[] values = wordsToDocNumbers.valueTable;
 						for (int j = 0, m = words.length; j < m; j++) {
 							char[] word = words[j];
-							if (word != null && Index.isMatch(key, word, matchRule))
+							if (word != null && Index.isMatch(key, word, matchRule, regexp))
 								results = addQueryResult(results, word, values[j], memoryIndex, prevResults);
 						}
 					}
@@ -253,6 +337,132 @@ HashtableOfObject addQueryResults(char[][] categories, char[] key, int matchRule
 
 	return results;
 }
+/**
+ * Answer the prefix of all the words matching the given key with the given rule, ignoring case,
+ * or null if the matching words do not all start with the same characters.
+ */
+static char[] commonPrefix(char[] key, int matchRule) {
+	if ((matchRule & (SearchPattern.R_SUBSTRING_MATCH | SearchPattern.R_SUBWORD_MATCH)) != 0)
+		return null;
+	int length;
+	switch (matchRule & Index.MATCH_RULE_INDEX_MASK & ~SearchPattern.R_CASE_SENSITIVE) {
+		case SearchPattern.R_EXACT_MATCH :
+		case SearchPattern.R_PREFIX_MATCH :
+			length = key.length;
+			break;
+		case SearchPattern.R_PATTERN_MATCH :
+			for (length = 0; length < key.length && key[length] != '*' && key[length] != '?'; length++) {
+				// the characters before the first wild card
+			}
+			break;
+		case SearchPattern.R_CAMELCASE_MATCH :
+		case SearchPattern.R_CAMELCASE_SAME_PART_COUNT_MATCH :
+			length = 1; // camel case matches start with the first character of the key, and so do prefix matches
+			break;
+		default :
+			return null;
+	}
+	return length == 0 ? null : CharOperation.subarray(key, 0, length);
+}
+/**
+ * Answer the n-grams held by all the words matching the given key with the given substring or subword rule,
+ * see {@link CategoryIndex}, or null if the matching words do not all hold the n-grams of the key.
+ */
+static char[][] keyGrams(char[] key, int matchRule) {
+	if ((matchRule & (SearchPattern.R_SUBSTRING_MATCH | SearchPattern.R_SUBWORD_MATCH)) == 0 || key.length == 0)
+		return null;
+	switch (matchRule & Index.MATCH_RULE_INDEX_MASK & ~(SearchPattern.R_SUBSTRING_MATCH | SearchPattern.R_SUBWORD_MATCH | SearchPattern.R_CASE_SENSITIVE)) {
+		case SearchPattern.R_EXACT_MATCH :
+		case SearchPattern.R_PREFIX_MATCH :
+			break; // the words matching the key with these rules hold it too
+		default :
+			return null;
+	}
+	// a subword match holds the characters of the key, a substring match holds all of it
+	if ((matchRule & SearchPattern.R_SUBWORD_MATCH) != 0 || key.length < CategoryIndex.GRAM_LENGTH)
+		return grams(key, 1);
+	return grams(key, CategoryIndex.GRAM_LENGTH);
+}
+/**
+ * Answer the distinct sequences of the given length of characters of the given word, in lower case and sorted.
+ */
+static char[][] grams(char[] word, int length) {
+	int count = word.length - length + 1;
+	if (count <= 0)
+		return CharOperation.NO_CHAR_CHAR;
+	char[][] grams = new char[count][];
+	for (int i = 0; i < count; i++) {
+		char[] gram = grams[i] = new char[length];
+		for (int j = 0; j < length; j++)
+			gram[j] = ScannerHelper.toLowerCase(word[i + j]);
+	}
+	Arrays.sort(grams, CharOperation::compareTo);
+	int distinct = 1;
+	for (int i = 1; i < count; i++)
+		if (!CharOperation.equals(grams[i], grams[distinct - 1]))
+			grams[distinct++] = grams[i];
+	if (distinct < count)
+		System.arraycopy(grams, 0, grams = new char[distinct][], 0, distinct);
+	return grams;
+}
+private static void addGrams(HashtableOfObject gramsToWordNumbers, char[][] grams, int wordNumber) {
+	for (int i = 0, l = grams.length; i < l; i++) {
+		IntList wordNumbers = (IntList) gramsToWordNumbers.get(grams[i]);
+		if (wordNumbers == null)
+			gramsToWordNumbers.putUnsafely(grams[i], new IntList(new int[] {wordNumber}));
+		else
+			wordNumbers.add(wordNumber);
+	}
+}
+private static int[] intersect(int[] numbers1, int[] numbers2) {
+	int[] result = new int[Math.min(numbers1.length, numbers2.length)];
+	int count = 0;
+	for (int i = 0, j = 0, l1 = numbers1.length, l2 = numbers2.length; i < l1 && j < l2;) {
+		if (numbers1[i] < numbers2[j]) {
+			i++;
+		} else if (numbers1[i] > numbers2[j]) {
+			j++;
+		} else {
+			result[count++] = numbers1[i];
+			i++;
+			j++;
+		}
+	}
+	if (count < result.length)
+		System.arraycopy(result, 0, result = new int[count], 0, count);
+	return result;
+}
+/**
+ * Compare the given words the way they are sorted in a category table, see {@link CategoryIndex}:
+ * ignoring case first, then the shorter word first, then by their characters.
+ */
+static int compareWords(char[] word1, char[] word2) {
+	int length1 = word1.length, length2 = word2.length;
+	for (int i = 0, l = Math.min(length1, length2); i < l; i++) {
+		char c1 = ScannerHelper.toLowerCase(word1[i]), c2 = ScannerHelper.toLowerCase(word2[i]);
+		if (c1 != c2)
+			return c1 - c2;
+	}
+	if (length1 != length2)
+		return length1 - length2;
+	for (int i = 0; i < length1; i++)
+		if (word1[i] != word2[i])
+			return word1[i] - word2[i];
+	return 0;
+}
+/**
+ * Answer whether the given word sorts before (negative), after (positive) the words starting with the given prefix
+ * ignoring case, or is one of them (zero).
+ */
+static int comparePrefix(char[] word, char[] prefix) {
+	int wordLength = word.length, prefixLength = prefix.length;
+	for (int i = 0, l = Math.min(wordLength, prefixLength); i < l; i++) {
+		char c1 = ScannerHelper.toLowerCase(word[i]), c2 = ScannerHelper.toLowerCase(prefix[i]);
+		if (c1 != c2)
+			return c1 - c2;
+	}
+	return wordLength < prefixLength ? -1 : 0;
+}
 private synchronized void cacheDocumentNames() throws IOException {
 	// will need all document names so get them now
 	this.cachedChunks = new String[this.numberOfChunks][];
@@ -460,6 +670,7 @@ private void initializeFrom(DiskIndex diskIndex, File newIndexFile) throws IOExc
 	int size = diskIndex.categoryOffsets == null ? 8 : diskIndex.categoryOffsets.elementSize;
 	this.categoryOffsets = new HashtableOfIntValues(size);
 	this.categoryEnds = new HashtableOfIntValues(size);
+	this.categoryIndexOffsets = new HashtableOfIntValues(size);
 	this.categoryTables = new HashtableOfObject(size);
 	this.separator = diskIndex.separator;
 }
@@ -712,7 +923,7 @@ private synchronized HashtableOfObject readCategoryTable(char[] categoryName, bo
 		this.categoryTables.put(INTERNED_CATEGORY_NAMES.get(categoryName), categoryTable);
 		// cache the table as long as its not too big
 		// in practice, some tables can be greater than 500K when they contain more than 10K elements
-		this.cachedCategoryName = categoryTable.elementSize < 20000 ? categoryName : null;
+		this.cachedCategoryName = categoryTable.elementSize < LARGE_CATEGORY_TABLE_SIZE ? categoryName : null;
 	} catch (IOException ioe) {
 		this.streamBuffer = null;
 		throw ioe;
@@ -741,6 +952,186 @@ private synchronized HashtableOfObject readCategoryTable(char[] categoryName, bo
 	this.streamBuffer = null;
 	return categoryTable;
 }
+/**
+ * Answer the words of the given category which may match the given key with the given rule, mapped to their document
+ * numbers or to the offset of these in the file. Unless the table is cached already, only the words starting with
+ * the prefix of the matching words, or holding the n-grams of the key, are read from a large table, see {@link CategoryIndex}.
+ */
+private synchronized HashtableOfObject readCategoryTable(char[] categoryName, char[] key, int matchRule) throws IOException {
+	int indexOffset = this.categoryIndexOffsets == null ? HashtableOfIntValues.NO_VALUE : this.categoryIndexOffsets.get(categoryName);
+	if (indexOffset == HashtableOfIntValues.NO_VALUE || (this.categoryTables != null && this.categoryTables.get(categoryName) != null))
+		return readCategoryTable(categoryName, false);
+	char[] prefix = commonPrefix(key, matchRule);
+	char[][] grams = prefix == null ? keyGrams(key, matchRule) : null;
+	if (prefix == null && grams == null)
+		return readCategoryTable(categoryName, false);
+	CategoryIndex index = readCategoryIndex(categoryName, indexOffset);
+	if (index.size < LARGE_CATEGORY_TABLE_SIZE)
+		return readCategoryTable(categoryName, false); // read whole and cached for the next queries
+	if (prefix == null) {
+		if (index.gramCount == 0)
+			return readCategoryTable(categoryName, false); // written without the n-grams of its words
+		return readCategoryWords(index, readWordNumbers(index, grams));
+	}
+	HashtableOfObject words = new HashtableOfObject(13);
+	int block = index.firstBlockOf(prefix);
+	InputStream stream = this.indexLocation.getInputStream();
+	this.streamBuffer = new byte[BUFFER_READ_SIZE];
+	try {
+		stream.skip(index.offsets[block]);
+		this.bufferIndex = 0;
+		this.bufferEnd = stream.read(this.streamBuffer, 0, this.streamBuffer.length);
+		for (int i = block * CategoryIndex.BLOCK_SIZE; i < index.size; i++) {
+			char[] word = readStreamChars(stream);
+			int compare = comparePrefix(word, prefix);
+			if (compare > 0)
+				break; // past the words starting with the prefix
+			Object documentNumbers = readStreamDocumentNumbers(stream);
+			if (compare == 0)
+				words.putUnsafely(word, documentNumbers);
+		}
+	} finally {
+		stream.close();
+		this.indexLocation.close();
+		this.streamBuffer = null;
+	}
+	return words;
+}
+/**
+ * Answer the words of the given table with the given numbers, which must be sorted, mapped to their document numbers
+ * or to the offset of these in the file.
+ */
+private HashtableOfObject readCategoryWords(CategoryIndex index, int[] wordNumbers) throws IOException {
+	HashtableOfObject words = new HashtableOfObject(wordNumbers.length);
+	if (wordNumbers.length == 0)
+		return words;
+	InputStream stream = this.indexLocation.getInputStream();
+	this.streamBuffer = new byte[BUFFER_READ_SIZE];
+	this.bufferOffset = this.bufferIndex = this.bufferEnd = 0;
+	try {
+		int wordNumber = -1; // the number of the word at the position of the stream, if any
+		for (int i = 0, l = wordNumbers.length; i < l; i++) {
+			int block = wordNumbers[i] / CategoryIndex.BLOCK_SIZE;
+			if (wordNumber < 0 || block > wordNumber / CategoryIndex.BLOCK_SIZE) {
+				seekStream(stream, index.offsets[block]); // skip the blocks without any of the words
+				wordNumber = block * CategoryIndex.BLOCK_SIZE;
+			}
+			for (; wordNumber < wordNumbers[i]; wordNumber++) {
+				readStreamChars(stream);
+				readStreamDocumentNumbers(stream);
+			}
+			char[] word = readStreamChars(stream);
+			words.putUnsafely(word, readStreamDocumentNumbers(stream));
+			wordNumber++;
+		}
+	} finally {
+		stream.close();
+		this.indexLocation.close();
+		this.streamBuffer = null;
+	}
+	return words;
+}
+/**
+ * Answer the sorted numbers of the words of the given table which hold all the given n-grams, see {@link CategoryIndex}.
+ */
+private int[] readWordNumbers(CategoryIndex index, char[][] grams) throws IOException {
+	int[] offsets = new int[grams.length];
+	int found = 0;
+	InputStream stream = this.indexLocation.getInputStream();
+	this.streamBuffer = new byte[BUFFER_READ_SIZE];
+	this.bufferOffset = this.bufferIndex = this.bufferEnd = 0;
+	try {
+		int gramNumber = -1; // the number of the n-gram at the position of the stream, if any
+		for (int l = grams.length; found < l; found++) {
+			int block = index.gramBlockOf(grams[found]);
+			if (block < 0)
+				break; // no word holds grams[found]
+			if (gramNumber < block * CategoryIndex.BLOCK_SIZE) {
+				seekStream(stream, index.gramOffsets[block]); // skip the blocks without grams[found]
+				gramNumber = block * CategoryIndex.BLOCK_SIZE;
+			}
+			int blockEnd = Math.min((block + 1) * CategoryIndex.BLOCK_SIZE, index.gramCount);
+			int compare = -1;
+			while (compare < 0 && gramNumber < blockEnd) {
+				char[] gram = readStreamChars(stream);
+				offsets[found] = readStreamInt(stream);
+				gramNumber++;
+				compare = CharOperation.compareTo(gram, grams[found]);
+			}
+			if (compare != 0)
+				break; // no word holds grams[found]
+		}
+	} catch (IOException ioe) {
+		this.streamBuffer = null;
+		throw ioe;
+	} finally {
+		stream.close();
+		this.indexLocation.close();
+	}
+	if (found < grams.length) {
+		this.streamBuffer = null;
+		return new int[0];
+	}
+
+	// the numbers of the words are written before the n-grams, in the same order
+	int[] wordNumbers = null;
+	stream = this.indexLocation.getInputStream();
+	this.bufferOffset = this.bufferIndex = this.bufferEnd = 0;
+	try {
+		for (int i = 0; i < found; i++) {
+			seekStream(stream, offsets[i]);
+			int count = readStreamInt(stream);
+			int[] numbers = new int[count];
+			for (int j = 0, number = 0; j < count; j++)
+				numbers[j] = number += readStreamVarInt(stream); // written as the difference to the previous number
+			wordNumbers = wordNumbers == null ? numbers : intersect(wordNumbers, numbers);
+			if (wordNumbers.length == 0)
+				break;
+		}
+		return wordNumbers;
+	} finally {
+		stream.close();
+		this.indexLocation.close();
+		this.streamBuffer = null;
+	}
+}
+private CategoryIndex readCategoryIndex(char[] categoryName, int indexOffset) throws IOException {
+	if (this.categoryIndexes == null)
+		this.categoryIndexes = new HashtableOfObject(3);
+	CategoryIndex index = (CategoryIndex) this.categoryIndexes.get(categoryName);
+	if (index != null)
+		return index;
+	InputStream stream = this.indexLocation.getInputStream();
+	this.streamBuffer = new byte[BUFFER_READ_SIZE];
+	try {
+		stream.skip(indexOffset);
+		this.bufferIndex = 0;
+		this.bufferEnd = stream.read(this.streamBuffer, 0, this.streamBuffer.length);
+		int size = readStreamInt(stream);
+		int blocks = readStreamInt(stream);
+		char[][] firstWords = new char[blocks][];
+		int[] offsets = new int[blocks];
+		for (int i = 0; i < blocks; i++) {
+			firstWords[i] = readStreamChars(stream);
+			offsets[i] = readStreamInt(stream);
+		}
+		int gramCount = readStreamInt(stream);
+		int gramBlocks = readStreamInt(stream);
+		char[][] firstGrams = new char[gramBlocks][];
+		int[] gramOffsets = new int[gramBlocks];
+		for (int i = 0; i < gramBlocks; i++) {
+			firstGrams[i] = readStreamChars(stream);
+			gramOffsets[i] = readStreamInt(stream);
+		}
+		index = new CategoryIndex(size, firstWords, offsets, gramCount, firstGrams, gramOffsets);
+	} finally {
+		stream.close();
+		this.indexLocation.close();
+		this.streamBuffer = null;
+	}
+	this.categoryIndexes.put(INTERNED_CATEGORY_NAMES.get(categoryName), index);
+	return index;
+}
 private void readChunk(String[] docNames, InputStream stream, int index, int size) throws IOException {
 	String current = new String(readStreamChars(stream));
 	docNames[index++] = current;
@@ -848,6 +1239,7 @@ private void readHeaderInfo(InputStream stream) throws IOException {
 	int size = readStreamInt(stream);
 	this.categoryOffsets = new HashtableOfIntValues(size);
 	this.categoryEnds = new HashtableOfIntValues(size);
+	this.categoryIndexOffsets = new HashtableOfIntValues(size);
 	if (length != -1 && size > length) {
 		//  not an accurate check, but good enough  https://bugs.eclipse.org/bugs/show_bug.cgi?id=350612
 		if (DEBUG)
@@ -860,6 +1252,7 @@ private void readHeaderInfo(InputStream stream) throws IOException {
 		char[] categoryName = INTERNED_CATEGORY_NAMES.get(readStreamChars(stream));
 		offset = readStreamInt(stream);
 		this.categoryOffsets.put(categoryName, offset); // cache offset to category table
+		this.categoryIndexOffsets.put(categoryName, readStreamInt(stream));
 		if (previousCategory != null) {
 			this.categoryEnds.put(previousCategory, offset); // cache end of the category table
 		}
@@ -901,8 +1294,26 @@ private void readStreamBuffer(InputStream stream) throws IOException {
 	if (bytesInBuffer > 0)
 		System.arraycopy(this.streamBuffer, this.bufferIndex, this.streamBuffer, 0, bytesInBuffer);
 	this.bufferEnd = bytesInBuffer + stream.read(this.streamBuffer, bytesInBuffer, this.bufferIndex);
+	this.bufferOffset += this.bufferIndex;
 	this.bufferIndex = 0;
 }
+/**
+ * Move forward to the given offset in the file, reading the streamBuffer from there unless it holds this offset.
+ * The streamBuffer must have been read from the stream with this method only, starting with an empty buffer at offset 0.
+ * The offset may be before the current position only if it is still in the streamBuffer.
+ */
+private void seekStream(InputStream stream, int offset) throws IOException {
+	if (offset < this.bufferOffset)
+		throw new IllegalArgumentException("Cannot seek back to " + offset + " before the buffer at " + this.bufferOffset); //$NON-NLS-1$ //$NON-NLS-2$
+	if (offset < this.bufferOffset + this.bufferEnd) {
+		this.bufferIndex = offset - this.bufferOffset;
+		return;
+	}
+	stream.skip(offset - (this.bufferOffset + this.bufferEnd));
+	this.bufferOffset = offset;
+	this.bufferIndex = 0;
+	this.bufferEnd = stream.read(this.streamBuffer, 0, this.streamBuffer.length);
+}
 /**
  * Reads in a string from the specified data input stream. The
  * string has been encoded using a modified UTF-8 format.
@@ -1030,6 +1441,17 @@ private int[] readStreamDocumentArray(InputStream stream, int arraySize) throws
 	}
 	return indexes;
 }
+/**
+ * Read the document numbers of a word of a category table, see writeCategoryTable(), or the offset of these in the file.
+ */
+private Object readStreamDocumentNumbers(InputStream stream) throws IOException {
+	int arrayOffset = readStreamInt(stream);
+	if (arrayOffset <= 0)
+		return new int[] {-arrayOffset};
+	if (arrayOffset < 256)
+		return readStreamDocumentArray(stream, arrayOffset);
+	return Integer.valueOf(readStreamInt(stream));
+}
 private int readStreamInt(InputStream stream) throws IOException {
 	if (this.bufferIndex + 4 >= this.bufferEnd) {
 		readStreamBuffer(stream);
@@ -1039,6 +1461,18 @@ private int readStreamInt(InputStream stream) throws IOException {
 	val += (this.streamBuffer[this.bufferIndex++] & 0xFF) << 8;
 	return val + (this.streamBuffer[this.bufferIndex++] & 0xFF);
 }
+private int readStreamVarInt(InputStream stream) throws IOException {
+	if (this.bufferIndex + 5 >= this.bufferEnd) {
+		readStreamBuffer(stream);
+	}
+	int b = this.streamBuffer[this.bufferIndex++];
+	int val = b & 0x7F;
+	for (int shift = 7; b < 0; shift += 7) {
+		b = this.streamBuffer[this.bufferIndex++];
+		val |= (b & 0x7F) << shift;
+	}
+	return val;
+}
 private void writeAllDocumentNames(String[] sortedDocNames, FileOutputStream stream) throws IOException {
 	if (sortedDocNames.length == 0)
 		throw new IllegalArgumentException();
@@ -1137,26 +1571,85 @@ private void writeCategoryTable(char[] categoryName, HashtableOfObject wordsToDo
 		}
 	}
 
+	// the words are written in order, see CategoryIndex
+	char[][] words = new char[wordsToDocs.elementSize][];
+	int size = 0;
+	char[][] keys = wordsToDocs.keyTable;
+	for (int i = 0, l = keys.length; i < l; i++)
+		if (values[i] != null)
+			words[size++] = keys[i];
+	Arrays.sort(words, 0, size, DiskIndex::compareWords);
+	int[] blockOffsets = new int[(size + CategoryIndex.BLOCK_SIZE - 1) / CategoryIndex.BLOCK_SIZE];
+
 	this.categoryOffsets.put(categoryName, this.streamEnd); // remember the offset to the start of the table
 	this.categoryTables.put(categoryName, null); // flush cached table
-	writeStreamInt(stream, wordsToDocs.elementSize);
-	char[][] words = wordsToDocs.keyTable;
-	for (int i = 0, l = words.length; i < l; i++) {
-		Object o = values[i];
-		if (o != null) {
-			writeStreamChars(stream, words[i]);
-			if (o instanceof int[]) {
-				int[] documentNumbers = (int[]) o;
-				if (documentNumbers.length == 1)
-					writeStreamInt(stream, -documentNumbers[0]); // store an array of 1 element by negating the documentNumber (can be zero)
-				else
-					writeDocumentNumbers(documentNumbers, stream);
-			} else {
-				writeStreamInt(stream, largeArraySize); // mark to identify that an offset follows
-				writeStreamInt(stream, ((Integer) o).intValue()); // offset in the file of the array of document numbers
-			}
+	writeStreamInt(stream, size);
+	for (int i = 0; i < size; i++) {
+		if (i % CategoryIndex.BLOCK_SIZE == 0)
+			blockOffsets[i / CategoryIndex.BLOCK_SIZE] = this.streamEnd;
+		Object o = wordsToDocs.get(words[i]);
+		writeStreamChars(stream, words[i]);
+		if (o instanceof int[]) {
+			int[] documentNumbers = (int[]) o;
+			if (documentNumbers.length == 1)
+				writeStreamInt(stream, -documentNumbers[0]); // store an array of 1 element by negating the documentNumber (can be zero)
+			else
+				writeDocumentNumbers(documentNumbers, stream);
+		} else {
+			writeStreamInt(stream, largeArraySize); // mark to identify that an offset follows
+			writeStreamInt(stream, ((Integer) o).intValue()); // offset in the file of the array of document numbers
 		}
 	}
+
+	// the n-grams of the words of a large table may follow it: for each n-gram, the number of words holding it
+	// then the difference of each word number to the previous one, then the sorted n-grams & the offset of their numbers
+	char[][] grams = CharOperation.NO_CHAR_CHAR;
+	int[] gramOffsets = null;
+	if (size >= LARGE_CATEGORY_TABLE_SIZE && NGRAM_INDEX) {
+		HashtableOfObject gramsToWordNumbers = new HashtableOfObject(size);
+		for (int i = 0; i < size; i++) {
+			addGrams(gramsToWordNumbers, grams(words[i], 1), i);
+			addGrams(gramsToWordNumbers, grams(words[i], CategoryIndex.GRAM_LENGTH), i);
+		}
+		grams = new char[gramsToWordNumbers.elementSize][];
+		int count = 0;
+		char[][] gramKeys = gramsToWordNumbers.keyTable;
+		for (int i = 0, l = gramKeys.length; i < l; i++)
+			if (gramKeys[i] != null)
+				grams[count++] = gramKeys[i];
+		Arrays.sort(grams, CharOperation::compareTo);
+		gramOffsets = new int[count];
+		for (int i = 0; i < count; i++) {
+			gramOffsets[i] = this.streamEnd;
+			IntList wordNumbers = (IntList) gramsToWordNumbers.get(grams[i]);
+			writeStreamInt(stream, wordNumbers.size);
+			for (int j = 0, previous = 0; j < wordNumbers.size; previous = wordNumbers.elements[j++])
+				writeStreamVarInt(stream, wordNumbers.elements[j] - previous);
+		}
+	}
+	int[] gramBlockOffsets = new int[(grams.length + CategoryIndex.BLOCK_SIZE - 1) / CategoryIndex.BLOCK_SIZE];
+	for (int i = 0, l = grams.length; i < l; i++) {
+		if (i % CategoryIndex.BLOCK_SIZE == 0)
+			gramBlockOffsets[i / CategoryIndex.BLOCK_SIZE] = this.streamEnd;
+		writeStreamChars(stream, grams[i]);
+		writeStreamInt(stream, gramOffsets[i]);
+	}
+
+	// then the index of the table: the number of words & of blocks, the first word & offset of each block,
+	// then the number of n-grams & of their blocks, the first n-gram & offset of each block
+	this.categoryIndexOffsets.put(categoryName, this.streamEnd);
+	writeStreamInt(stream, size);
+	writeStreamInt(stream, blockOffsets.length);
+	for (int i = 0, l = blockOffsets.length; i < l; i++) {
+		writeStreamChars(stream, words[i * CategoryIndex.BLOCK_SIZE]);
+		writeStreamInt(stream, blockOffsets[i]);
+	}
+	writeStreamInt(stream, grams.length);
+	writeStreamInt(stream, gramBlockOffsets.length);
+	for (int i = 0, l = gramBlockOffsets.length; i < l; i++) {
+		writeStreamChars(stream, grams[i * CategoryIndex.BLOCK_SIZE]);
+		writeStreamInt(stream, gramBlockOffsets[i]);
+	}
 }
 private void writeDocumentNumbers(int[] documentNumbers, FileOutputStream stream) throws IOException {
 	// must store length as a positive int to detect in-lined array of 1 element
@@ -1222,7 +1715,8 @@ private void writeHeaderInfo(FileOutputStream stream) throws IOException {
 
 	writeStreamInt(stream, this.startOfCategoryTables);
 
-	// append the file with the category offsets... # of name -> offset pairs, followed by each name & an offset to its word->doc# table
+	// append the file with the category offsets... # of name -> offset pairs, followed by each name, an offset to its word->doc# table
+	// & an offset to the index of this table
 	writeStreamInt(stream, this.categoryOffsets.elementSize);
 	char[][] categoryNames = this.categoryOffsets.keyTable;
 	int[] offsets = this.categoryOffsets.valueTable;
@@ -1230,6 +1724,7 @@ private void writeHeaderInfo(FileOutputStream stream) throws IOException {
 		if (categoryNames[i] != null) {
 			writeStreamChars(stream, categoryNames[i]);
 			writeStreamInt(stream, offsets[i]);
+			writeStreamInt(stream, this.categoryIndexOffsets.get(categoryNames[i]));
 		}
 	}
 	// ensure buffer is written to the stream
@@ -1348,6 +1843,23 @@ private void writeStreamInt(FileOutputStream stream, int val) throws IOException
 	this.streamBuffer[this.bufferIndex++] = (byte) val;
 	this.streamEnd += 4;
 }
+/**
+ * Writes a positive int in 1 to 5 bytes, 7 bits at a time starting with the lowest ones,
+ * the highest bit of each byte is set when another byte follows.
+ */
+private void writeStreamVarInt(FileOutputStream stream, int val) throws IOException {
+	if ((this.bufferIndex + 5) >= BUFFER_WRITE_SIZE)  {
+		stream.write(this.streamBuffer, 0, this.bufferIndex);
+		this.bufferIndex = 0;
+	}
+	while ((val & ~0x7F) != 0) {
+		this.streamBuffer[this.bufferIndex++] = (byte) (val & 0x7F | 0x80);
+		this.streamEnd++;
+		val >>>= 7;
+	}
+	this.streamBuffer[this.bufferIndex++] = (byte) val;
+	this.streamEnd++;
+}
 
 synchronized int getCacheUserCount() {
 	return this.cacheUserCount;
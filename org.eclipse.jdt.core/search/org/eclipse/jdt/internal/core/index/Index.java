@@ -61,6 +61,23 @@ static final int MATCH_RULE_INDEX_MASK =
 	SearchPattern.R_SUBWORD_MATCH;
 
 public static boolean isMatch(char[] pattern, char[] word, int matchRule) {
+	return isMatch(pattern, word, matchRule, null);
+}
+
+/**
+ * Answer the regular expression of the given pattern if words are matched with one, see {@link #isMatch(char[], char[], int, Pattern)}.
+ */
+static Pattern compileRegexp(char[] pattern, int matchRule) {
+	if (pattern == null || (matchRule & SearchPattern.R_REGEXP_MATCH) == 0) return null;
+	return Pattern.compile(new String(pattern));
+}
+
+/**
+ * Same as {@link #isMatch(char[], char[], int)}, with the regular expression of the pattern when the match rule is
+ * {@link SearchPattern#R_REGEXP_MATCH}, as answered by {@link #compileRegexp(char[], int)}, so that the pattern is
+ * compiled once for all the words of a query.
+ */
+static boolean isMatch(char[] pattern, char[] word, int matchRule, Pattern regexp) {
 	if (pattern == null) return true;
 	int patternLength = pattern.length;
 	int wordLength = word.length;
@@ -85,7 +102,7 @@ public static boolean isMatch(char[] pattern, char[] word, int matchRule) {
 		case SearchPattern.R_PREFIX_MATCH :
 			return patternLength <= wordLength && CharOperation.prefixEquals(pattern, word, false);
 		case SearchPattern.R_REGEXP_MATCH :
-			Pattern regexPattern = Pattern.compile(new String(pattern));
+			Pattern regexPattern = regexp != null ? regexp : Pattern.compile(new String(pattern));
 			return regexPattern.matcher(new String(word)).matches();
 		case SearchPattern.R_PATTERN_MATCH :
 			return CharOperation.match(pattern, word, false);
@@ -13,6 +13,8 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.core.index;
 
+import java.util.regex.Pattern;
+
 import org.eclipse.jdt.core.search.*;
 import org.eclipse.jdt.internal.core.util.*;
 import org.eclipse.jdt.internal.compiler.util.HashtableOfObject;
@@ -89,6 +91,7 @@ HashtableOfObject addQueryResults(char[][] categories, char[] key, int matchRule
 			}
 		}
 	} else {
+		Pattern regexp = Index.compileRegexp(key, matchRule); // compiled once for all the words
 		for (int i = 0, l = referenceTables.length; i < l; i++) {
 			HashtableOfObject categoryToWords = (HashtableOfObject) referenceTables[i];
 			if (categoryToWords != null) {
@@ -98,7 +101,7 @@ HashtableOfObject addQueryResults(char[][] categories, char[] key, int matchRule
 						char[][] words = wordSet.words;
 						for (int k = 0, n = words.length; k < n; k++) {
 							char[] word = words[k];
-							if (word != null && Index.isMatch(key, word, matchRule)) {
+							if (word != null && Index.isMatch(key, word, matchRule, regexp)) {
 								if (results == null)
 									results = new HashtableOfObject(13);
 								EntryResult result = (EntryResult) results.get(word);
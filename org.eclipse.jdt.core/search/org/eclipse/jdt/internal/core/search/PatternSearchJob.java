@@ -334,7 +334,7 @@ static class IndexMatch {
 	}
 }
 
-static class ParallelSearchMonitor extends NullProgressMonitor {
+public static class ParallelSearchMonitor extends NullProgressMonitor {
 	private volatile boolean canceled;
 	private IProgressMonitor original;
 
@@ -214,6 +214,25 @@ class AddJarFileToIndex extends BinaryContainer {
 					}
 				}
 
+				// reuse the index of a copy of the jar from the jar index cache if any, before reading any class file
+				String cachedIndexName = this.manager.getCachedJarIndexName(new File(zip.getName()));
+				if (cachedIndexName != null) {
+					Index cachedIndex = this.manager.restoreCachedJarIndex(this.containerPath, cachedIndexName);
+					if (cachedIndex != null) {
+						if (this.forceIndexUpdate) {
+							this.manager.savePreBuiltIndex(cachedIndex);
+						} else {
+							this.manager.saveIndex(cachedIndex);
+						}
+						this.manager.updateMetaIndex(cachedIndex);
+						if (JobManager.VERBOSE)
+							org.eclipse.jdt.internal.core.util.Util.verbose("-> no indexing required (index restored from the jar index cache) for " //$NON-NLS-1$
+							+ zip.getName() + " (" //$NON-NLS-1$
+							+ (System.currentTimeMillis() - initialTime) + "ms)"); //$NON-NLS-1$
+						return true;
+					}
+				}
+
 				// Index the jar for the first time or reindex the jar in case the previous index file has been corrupted
 				// index already existed: recreate it so that we forget about previous entries
 				SearchParticipant participant = SearchEngine.getDefaultSearchParticipant();
@@ -270,6 +289,9 @@ class AddJarFileToIndex extends BinaryContainer {
 				else {
 					this.manager.saveIndex(index);
 				}
+				if (cachedIndexName != null) {
+					this.manager.cacheJarIndex(index, cachedIndexName);
+				}
 				if (JobManager.VERBOSE)
 					org.eclipse.jdt.internal.core.util.Util.verbose("-> done indexing of " //$NON-NLS-1$
 						+ zip.getName() + " (" //$NON-NLS-1$
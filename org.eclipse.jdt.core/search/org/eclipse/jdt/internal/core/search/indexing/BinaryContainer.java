@@ -26,6 +26,10 @@ public abstract class BinaryContainer extends IndexRequest {
 	public BinaryContainer(IPath containerPath, IndexManager manager) {
 		super(containerPath, manager);
 	}
+	@Override
+	public boolean canRunConcurrently() {
+		return true; // indexes the whole container in its own index
+	}
 
 	private boolean isIdentifier() throws InvalidInputException {
 		switch(this.scanner.scanIdentifier()) {
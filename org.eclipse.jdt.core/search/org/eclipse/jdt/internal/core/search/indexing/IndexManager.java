@@ -18,8 +18,14 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -141,6 +147,9 @@ public class IndexManager extends JobManager implements IIndexConstants {
 	public static boolean DEBUG = false;
 
 	private static final String INDEX_META_CONTAINER = "meta_index"; //$NON-NLS-1$
+
+	// common cache of jar indexes for all workspaces, named after the contents of the jars
+	private static String JAR_INDEX_CACHE = System.getProperty("jdt.core.jarIndexCache"); //$NON-NLS-1$
 	LinkedHashSet<Index> metaIndexUpdates;
 
 	public IndexManager() {
@@ -818,6 +827,12 @@ protected synchronized void moveToNextJob() {
 	this.needToSave = true;
 	super.moveToNextJob();
 }
+@Override
+protected synchronized void moveToNextJobs(IJob[] jobs) {
+	// remember that jobs were executed, and we will need to save indexes at some point
+	this.needToSave = true;
+	super.moveToNextJobs(jobs);
+}
 /**
  * No more job awaiting.
  */
@@ -1139,6 +1154,109 @@ public void savePreBuiltIndex(Index index) throws IOException {
 		updateIndexState(index.getIndexLocation(), REUSE_STATE);
 	}
 }
+/**
+ * Answers the name of the index of the given jar in the jar index cache, or null if there is no cache.
+ * The name is computed from the contents of the jar and its file name, from which the name of an automatic
+ * module is derived, so that the index of a jar is shared by all the copies of this jar.
+ */
+String getCachedJarIndexName(File jarFile) {
+	if (JAR_INDEX_CACHE == null)
+		return null;
+	try (InputStream stream = Files.newInputStream(jarFile.toPath())) {
+		MessageDigest digest = MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+		byte[] buffer = new byte[8192];
+		for (int read; (read = stream.read(buffer)) != -1;)
+			digest.update(buffer, 0, read);
+		digest.update(jarFile.getName().getBytes(StandardCharsets.UTF_8));
+		StringBuilder name = new StringBuilder(70);
+		for (byte b : digest.digest())
+			name.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		return name.append(".index").toString(); //$NON-NLS-1$
+	} catch (IOException | NoSuchAlgorithmException e) {
+		if (VERBOSE) {
+			Util.verbose("-> failed to compute the cached index name of " + jarFile + " because of the following exception:"); //$NON-NLS-1$ //$NON-NLS-2$
+			e.printStackTrace();
+		}
+		return null;
+	}
+}
+/*
+ * For testing the jar index cache in JavaIndexTests only
+ */
+public static void setJarIndexCache(String value, Class<?> clazz) throws IllegalArgumentException {
+	if (clazz != null && "org.eclipse.jdt.core.tests.model.JavaIndexTests".equals(clazz.getName())) { //$NON-NLS-1$
+		JAR_INDEX_CACHE = value;
+	} else {
+		throw new IllegalArgumentException("Cannot set jar index cache for specified test class"); //$NON-NLS-1$
+	}
+}
+private File getCachedJarIndexFile(String cachedIndexName) {
+	return new File(new File(JAR_INDEX_CACHE, DiskIndex.INDEX_VERSION), cachedIndexName);
+}
+/**
+ * Replaces the index of the given jar by a copy of the index with the given name in the jar index cache.
+ * Answers the new index, or null if the cache does not hold this index.
+ * The caller must have permission to write to the index from its write monitor.
+ */
+synchronized Index restoreCachedJarIndex(IPath containerPath, String cachedIndexName) {
+	File cachedIndexFile = getCachedJarIndexFile(cachedIndexName);
+	if (!cachedIndexFile.isFile())
+		return null;
+	String containerPathString = containerPath.getDevice() == null ? containerPath.toString() : containerPath.toOSString();
+	IndexLocation indexLocation = computeIndexLocation(containerPath);
+	Index index = getIndex(indexLocation);
+	ReadWriteMonitor monitor = index == null ? null : index.monitor;
+	File indexFile = indexLocation.getIndexFile();
+	if (monitor == null || indexFile == null)
+		return null; // index got deleted since acquired, or is not a file
+	try {
+		if (VERBOSE)
+			Util.verbose("-> restoring index: " + indexLocation + " from cached index " + cachedIndexFile); //$NON-NLS-1$ //$NON-NLS-2$
+		Files.copy(cachedIndexFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		index = new Index(indexLocation, containerPathString, true /*reuse index file*/);
+		index.monitor = monitor;
+		this.indexes.put(indexLocation, index);
+		return index;
+	} catch (IOException e) {
+		// the caller indexes the jar again
+		if (VERBOSE) {
+			Util.verbose("-> failed to restore index for path: " + containerPathString + " because of the following exception:"); //$NON-NLS-1$ //$NON-NLS-2$
+			e.printStackTrace();
+		}
+		return null;
+	}
+}
+/**
+ * Copies the given saved index of a jar into the jar index cache, under the given name.
+ */
+void cacheJarIndex(Index index, String cachedIndexName) {
+	File indexFile = index.getIndexFile();
+	if (indexFile == null || !indexFile.isFile() || index.hasChanged())
+		return;
+	File cachedIndexFile = getCachedJarIndexFile(cachedIndexName);
+	File tempFile = null;
+	try {
+		File directory = cachedIndexFile.getParentFile();
+		directory.mkdirs();
+		// copied then moved, so that other workspaces do not read a partial index
+		tempFile = File.createTempFile(cachedIndexName, ".tmp", directory); //$NON-NLS-1$
+		Files.copy(indexFile.toPath(), tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		try {
+			Files.move(tempFile.toPath(), cachedIndexFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			Files.move(tempFile.toPath(), cachedIndexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		if (VERBOSE)
+			Util.verbose("-> cached index: " + index.getIndexLocation() + " as " + cachedIndexFile); //$NON-NLS-1$ //$NON-NLS-2$
+	} catch (IOException e) {
+		if (VERBOSE) {
+			Util.verbose("-> failed to cache index " + index.getIndexLocation() + " because of the following exception:"); //$NON-NLS-1$ //$NON-NLS-2$
+			e.printStackTrace();
+		}
+		if (tempFile != null)
+			tempFile.delete();
+	}
+}
 public void saveIndex(Index index) throws IOException {
 	ReadWriteMonitor monitor = index.monitor;
 	if (monitor == null) return; // index got deleted since acquired
@@ -1161,11 +1279,10 @@ public void saveIndex(Index index) throws IOException {
 		if (awaitingJobsCount > 1) {
 			// Start at the end and go backwards
 			ListIterator<IJob> iterator = this.awaitingJobs.listIterator(awaitingJobsCount);
-			IJob first = this.awaitingJobs.get(0);
 			while (iterator.hasPrevious()) {
 				IJob job = iterator.previous();
-				// don't check first job, as it may have already started
-				if(job == first) {
+				// don't check first jobs, as they may have already started
+				if(hasStarted(job)) {
 					break;
 				}
 				if (job instanceof IndexRequest) {
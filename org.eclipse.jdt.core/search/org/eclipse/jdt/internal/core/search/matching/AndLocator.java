@@ -60,6 +60,12 @@ public void initializePolymorphicSearch(MatchLocator locator) {
 	}
 }
 @Override
+public void initializePolymorphicSearch(PatternLocator initialized, MatchLocator locator) {
+	for (int i = 0, length = this.patternLocators.length; i < length; i++) {
+		this.patternLocators[i].initializePolymorphicSearch(((AndLocator) initialized).patternLocators[i], locator);
+	}
+}
+@Override
 public int match(Annotation node, MatchingNodeSet nodeSet) {
 	int level = IMPOSSIBLE_MATCH;
 	for (int i = 0, length = this.patternLocators.length; i < length; i++) {
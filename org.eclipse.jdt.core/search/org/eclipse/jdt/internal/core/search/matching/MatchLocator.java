@@ -18,6 +18,7 @@ package org.eclipse.jdt.internal.core.search.matching;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -26,6 +27,13 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 import java.util.zip.ZipFile;
 
@@ -122,6 +130,14 @@ static {
 			break;
 	}
 }
+/*
+ * Number of groups of possible matches of a project located at once, on as many threads
+ */
+public static int LOCATE_THREADS = Math.max(1, Integer.getInteger("org.eclipse.jdt.search_locate_threads", 1).intValue()); //$NON-NLS-1$
+private static final String LOCATE_THREAD_NAME = "Java search match locator"; //$NON-NLS-1$
+private static ThreadPoolExecutor locateExecutor;
+// set while a thread of the executor locates a group of possible matches
+private static final ThreadLocal<Boolean> LOCATING_GROUP = new ThreadLocal<>();
 
 // permanent state
 public SearchPattern pattern;
@@ -1395,13 +1411,169 @@ protected void locateMatches(JavaProject javaProject, PossibleMatchSet matchSet,
 		this.progressMonitor.worked( expected-length);
 	}
 	// locate matches (processed matches are limited to avoid problem while using VM default memory heap size)
-	for (int index = 0; index < length;) {
-		int max = Math.min(MAX_AT_ONCE, length - index);
-		locateMatches(javaProject, possibleMatches, index, max);
-		index += max;
+	int threads = LOCATE_THREADS;
+	if (threads > 1 && length > MAX_AT_ONCE
+			&& IParallelizable.isParallelSearchSupported(this.scope) && IParallelizable.isParallelSearchSupported(this.pattern)
+			&& LOCATING_GROUP.get() == null) { // searches nested in a group would wait for threads of the group
+		locateMatchesInParallel(javaProject, possibleMatches, threads);
+	} else {
+		for (int index = 0; index < length;) {
+			int max = Math.min(MAX_AT_ONCE, length - index);
+			locateMatches(javaProject, possibleMatches, index, max);
+			index += max;
+		}
 	}
 	this.patternLocator.clear();
 }
+/**
+ * Locate the matches amongst the possible matches of a project on the given number of threads.
+ * The possible matches are split in groups of MAX_AT_ONCE / threads, so that the threads do not parse more
+ * units at once than a sequential search. Each group is located by its own locator, i.e. with its own parser,
+ * lookup environment and name environment. The matches of a group are reported by the calling thread once the
+ * ones of the previous groups are, so that the requestor gets them in the same order as in a sequential search.
+ */
+private void locateMatchesInParallel(JavaProject javaProject, PossibleMatch[] possibleMatches, int threads) throws CoreException {
+	PatternSearchJob.ParallelSearchMonitor monitor = new PatternSearchJob.ParallelSearchMonitor(
+			this.progressMonitor == null ? new NullProgressMonitor() : this.progressMonitor);
+	((IParallelizable) this.scope).initBeforeSearch(monitor);
+	ExecutorService executor = getLocateExecutor(threads);
+	ArrayDeque<Future<MatchGroup>> groups = new ArrayDeque<>(threads);
+	int groupSize = Math.max(1, MAX_AT_ONCE / threads);
+	int length = possibleMatches.length;
+	try {
+		for (int index = 0; index < length || !groups.isEmpty();) {
+			// keep one group running per thread, the ones waiting to be reported only hold their matches
+			while (index < length && groups.size() < threads) {
+				int max = Math.min(groupSize, length - index);
+				groups.add(executor.submit(new MatchGroup(javaProject, possibleMatches, index, max, monitor)));
+				index += max;
+			}
+			MatchGroup group;
+			try {
+				group = groups.remove().get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new OperationCanceledException();
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof Error)
+					throw (Error) e.getCause();
+				throw new RuntimeException(e.getCause());
+			}
+			group.report();
+		}
+	} finally {
+		if (!groups.isEmpty()) {
+			// stop the groups still running and wait for them to release their environments
+			monitor.setCanceled(true);
+			for (Future<MatchGroup> group : groups) {
+				try {
+					group.get();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				} catch (ExecutionException e) {
+					// already stopping
+				}
+			}
+		}
+	}
+}
+private static synchronized ExecutorService getLocateExecutor(int threads) {
+	if (locateExecutor != null && locateExecutor.getCorePoolSize() != threads) {
+		// LOCATE_THREADS changed, the maximum pool size may never be below the core pool size
+		if (threads > locateExecutor.getMaximumPoolSize()) {
+			locateExecutor.setMaximumPoolSize(threads);
+			locateExecutor.setCorePoolSize(threads);
+		} else {
+			locateExecutor.setCorePoolSize(threads);
+			locateExecutor.setMaximumPoolSize(threads);
+		}
+	}
+	if (locateExecutor == null) {
+		ThreadPoolExecutor threadPool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), runnable -> {
+					Thread thread = new Thread(runnable, LOCATE_THREAD_NAME);
+					thread.setDaemon(true);
+					thread.setContextClassLoader(MatchLocator.class.getClassLoader());
+					return thread;
+				});
+		threadPool.allowCoreThreadTimeOut(true); // no idle threads once the search is done
+		locateExecutor = threadPool;
+	}
+	return locateExecutor;
+}
+/*
+ * A group of possible matches of a project located on another thread, whose matches are collected
+ * to be reported in order by the locator of the search.
+ */
+private class MatchGroup extends SearchRequestor implements Callable<MatchGroup> {
+	private final JavaProject javaProject;
+	private final PossibleMatch[] possibleMatches;
+	private final int start;
+	private final int length;
+	private final IProgressMonitor monitor;
+	private final List<SearchMatch> matches = new ArrayList<>();
+	private HashMap<SearchMatch, Binding> groupMatchBinding;
+	private int worked;
+	private Exception failure;
+
+	MatchGroup(JavaProject javaProject, PossibleMatch[] possibleMatches, int start, int length, IProgressMonitor monitor) {
+		this.javaProject = javaProject;
+		this.possibleMatches = possibleMatches;
+		this.start = start;
+		this.length = length;
+		this.monitor = monitor;
+	}
+	@Override
+	public void acceptSearchMatch(SearchMatch match) {
+		this.matches.add(match);
+	}
+	@Override
+	public MatchGroup call() {
+		MatchLocator locator = new MatchLocator(MatchLocator.this.pattern, this, MatchLocator.this.scope, this.monitor);
+		locator.workingCopies = MatchLocator.this.workingCopies;
+		locator.handleFactory = new HandleFactory();
+		locator.allSuperTypeNames = MatchLocator.this.allSuperTypeNames;
+		locator.patternLocator.initializePolymorphicSearch(MatchLocator.this.patternLocator, locator);
+		locator.progressStep = Math.max(1, MatchLocator.this.progressStep); // progress is reported by the locator of the search
+		JavaModelManager manager = JavaModelManager.getJavaModelManager();
+		LOCATING_GROUP.set(Boolean.TRUE);
+		try {
+			manager.cacheZipFiles(locator);
+			locator.locateMatches(this.javaProject, this.possibleMatches, this.start, this.length);
+		} catch (CoreException | RuntimeException e) {
+			// matches found so far are reported before the failure
+			this.failure = e;
+		} finally {
+			LOCATING_GROUP.remove();
+			if (locator.nameEnvironment != null)
+				locator.nameEnvironment.cleanup();
+			manager.flushZipFiles(locator);
+			this.groupMatchBinding = locator.matchBinding;
+			this.worked = locator.progressWorked;
+		}
+		return this;
+	}
+	void report() throws CoreException {
+		MatchLocator locator = MatchLocator.this;
+		for (SearchMatch match : this.matches) {
+			long time = BasicSearchEngine.VERBOSE ? System.currentTimeMillis() : 0;
+			locator.requestor.acceptSearchMatch(match);
+			if (BasicSearchEngine.VERBOSE)
+				locator.resultCollectorTime += System.currentTimeMillis()-time;
+		}
+		locator.matchBinding.putAll(this.groupMatchBinding);
+		if (locator.progressMonitor != null && this.worked > 0) {
+			int steps = locator.progressWorked / locator.progressStep;
+			locator.progressWorked += this.worked;
+			locator.progressMonitor.worked((locator.progressWorked / locator.progressStep - steps) * locator.progressStep);
+		}
+		if (this.failure instanceof CoreException)
+			throw (CoreException) this.failure;
+		if (this.failure != null)
+			throw (RuntimeException) this.failure;
+	}
+}
 /**
  * Locate the matches in the given files and report them using the search requestor.
  */
@@ -135,6 +135,14 @@ public void initializePolymorphicSearch(MatchLocator locator) {
 		System.out.println("Time to initialize polymorphic search: "+(System.currentTimeMillis()-start)); //$NON-NLS-1$
 	}
 }
+@Override
+public void initializePolymorphicSearch(PatternLocator initialized, MatchLocator locator) {
+	MethodLocator methodLocator = (MethodLocator) initialized;
+	this.allSuperDeclaringTypeNames = methodLocator.allSuperDeclaringTypeNames;
+	this.samePkgSuperDeclaringTypeNames = methodLocator.samePkgSuperDeclaringTypeNames;
+	if (methodLocator.matchLocator != null)
+		this.matchLocator = locator;
+}
 /*
  * Return whether a type name is in pattern all super declaring types names.
  */
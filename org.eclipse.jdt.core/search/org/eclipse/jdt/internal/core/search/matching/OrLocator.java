@@ -59,6 +59,11 @@ public void initializePolymorphicSearch(MatchLocator locator) {
 		this.patternLocators[i].initializePolymorphicSearch(locator);
 }
 @Override
+public void initializePolymorphicSearch(PatternLocator initialized, MatchLocator locator) {
+	for (int i = 0, length = this.patternLocators.length; i < length; i++)
+		this.patternLocators[i].initializePolymorphicSearch(((OrLocator) initialized).patternLocators[i], locator);
+}
+@Override
 public int match(Annotation node, MatchingNodeSet nodeSet) {
 	int level = IMPOSSIBLE_MATCH;
 	for (int i = 0, length = this.patternLocators.length; i < length; i++) {
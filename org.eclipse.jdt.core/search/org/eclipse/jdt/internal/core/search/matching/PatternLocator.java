@@ -184,6 +184,13 @@ protected TypeBinding getTypeNameBinding(int index) {
 public void initializePolymorphicSearch(MatchLocator locator) {
 	// default is to do nothing
 }
+/**
+ * Initializes this search pattern so that polymorphic search can be performed by the given locator,
+ * reusing what the given pattern locator computed in {@link #initializePolymorphicSearch(MatchLocator)}.
+ */
+public void initializePolymorphicSearch(PatternLocator initialized, MatchLocator locator) {
+	// default is to do nothing
+}
 public int match(Annotation node, MatchingNodeSet nodeSet) {
 	// each subtype should override if needed
 	return IMPOSSIBLE_MATCH;
@@ -58,4 +58,14 @@ public interface IJob {
 	public default boolean waitNeeded() {
 		return false;
 	}
+
+	/**
+	 * Answers if this job may run at the same time as the other jobs answering {@code true} of other families, when the
+	 * job manager runs several jobs at once. Default implementation returns {@code false}.
+	 *
+	 * @return true if this job only updates the index of its own family, without requesting other jobs.
+	 */
+	public default boolean canRunConcurrently() {
+		return false;
+	}
 }
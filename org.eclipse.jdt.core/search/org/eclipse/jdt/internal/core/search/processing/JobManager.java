@@ -13,10 +13,19 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.core.search.processing;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
@@ -38,6 +47,16 @@ public abstract class JobManager implements Runnable {
 	protected volatile Thread processingThread;
 	protected volatile Job progressJob;
 
+	/* number of jobs run at once, see IJob#canRunConcurrently() */
+	private final int threadCount = Math.max(1, Integer.getInteger("org.eclipse.jdt.indexing_threads", 1).intValue()); //$NON-NLS-1$
+	/* jobs being run at once, the current job first */
+	private IJob[] concurrentJobs;
+	/* threads running the concurrent jobs besides the processing thread, created when first needed */
+	private ExecutorService concurrentExecutor;
+	private final Set<Thread> concurrentThreads = new HashSet<>();
+	/* priority of the concurrent threads, raised like the processing thread's while clients are waiting */
+	private int concurrentPriority = Thread.NORM_PRIORITY-1;
+
 	/* counter indicating whether job execution is enabled or not, disabled if <= 0
 	    it cannot go beyond 1 */
 	private int enableCount = 1;
@@ -112,15 +131,22 @@ public abstract class JobManager implements Runnable {
 
 		try {
 			IJob currentJob;
-			// cancel current job if it belongs to the given family
+			IJob[] currentJobs;
+			// cancel current jobs if they belong to the given family
 			synchronized(this){
 				currentJob = currentJob();
+				currentJobs = this.concurrentJobs != null ? this.concurrentJobs : currentJob != null ? new IJob[] {currentJob} : new IJob[0];
 				disable();
 			}
-			if (currentJob != null && (jobFamily == null || currentJob.belongsTo(jobFamily))) {
-				currentJob.cancel();
-
-				// wait until current active job has finished
+			boolean cancelled = false;
+			for (IJob job : currentJobs) {
+				if (jobFamily == null || job.belongsTo(jobFamily)) {
+					job.cancel();
+					cancelled = true;
+				}
+			}
+			if (cancelled) {
+				// wait until current active jobs have finished
 				while (this.processingThread != null && this.executing){
 					try {
 						if (VERBOSE)
@@ -163,11 +189,10 @@ public abstract class JobManager implements Runnable {
 		}
 		// Start at the end and go backwards
 		ListIterator<IJob> iterator = this.awaitingJobs.listIterator(this.awaitingJobs.size());
-		IJob first = this.awaitingJobs.get(0);
 		while (iterator.hasPrevious()) {
 			IJob job = iterator.previous();
-			// don't check first job, as it may have already started
-			if(job == first) {
+			// don't check first jobs, as they may have already started
+			if(hasStarted(job)) {
 				break;
 			}
 			if (request.equals(job)) {
@@ -176,6 +201,20 @@ public abstract class JobManager implements Runnable {
 		}
 		return false;
 	}
+	/**
+	 * Answers whether the given job of the queue may have already started: the first job, or a job run at once with it.
+	 */
+	protected synchronized boolean hasStarted(IJob job) {
+		if (!this.awaitingJobs.isEmpty() && this.awaitingJobs.get(0) == job)
+			return true;
+		if (this.concurrentJobs != null) {
+			for (IJob concurrentJob : this.concurrentJobs) {
+				if (concurrentJob == job)
+					return true;
+			}
+		}
+		return false;
+	}
 	/**
 	 * Advance to the next available job, once the current one has been completed.
 	 * Note: clients awaiting until the job count is zero are still waiting at this point.
@@ -192,6 +231,121 @@ public abstract class JobManager implements Runnable {
 			}
 		}
 	}
+	/**
+	 * Remove the given jobs, which were run at once, once they have all been completed.
+	 * Note: clients awaiting until the job count is zero are still waiting at this point.
+	 */
+	protected synchronized void moveToNextJobs(IJob[] jobs) {
+		this.concurrentJobs = null;
+		for (Iterator<IJob> it = this.awaitingJobs.iterator(); it.hasNext();) {
+			IJob job = it.next();
+			for (IJob completedJob : jobs) {
+				if (job == completedJob) { // not equals(), an equal job may be awaiting again
+					it.remove();
+					break;
+				}
+			}
+		}
+		if (awaitingJobsCount() == 0) {
+			this.notifyAll();
+		}
+	}
+	/**
+	 * Answers the first jobs in the queue which can run at once with the given current job, the current job first,
+	 * or null if it runs alone.
+	 */
+	private synchronized IJob[] concurrentJobs(IJob currentJob) {
+		if (this.threadCount == 1 || !currentJob.canRunConcurrently() || this.awaitingJobs.size() < 2)
+			return null;
+		List<IJob> jobs = new ArrayList<>(this.threadCount);
+		Set<String> families = new HashSet<>();
+		for (IJob job : this.awaitingJobs) {
+			// jobs of a family are run in order
+			if (jobs.size() == this.threadCount || !job.canRunConcurrently() || !families.add(job.getJobFamily()))
+				break;
+			jobs.add(job);
+		}
+		if (jobs.size() < 2)
+			return null;
+		return this.concurrentJobs = jobs.toArray(new IJob[jobs.size()]);
+	}
+	/**
+	 * Runs the given jobs at once, the first one in the processing thread, and waits until they have all been completed.
+	 */
+	private void executeConcurrently(IJob[] jobs) {
+		ExecutorService executor;
+		synchronized (this) {
+			if (this.concurrentExecutor == null) {
+				ThreadPoolExecutor threadPool = new ThreadPoolExecutor(this.threadCount - 1, this.threadCount - 1, 60, TimeUnit.SECONDS,
+						new LinkedBlockingQueue<>(), runnable -> {
+							Thread thread = new Thread(() -> {
+								try {
+									runnable.run();
+								} finally {
+									synchronized (this) {
+										this.concurrentThreads.remove(Thread.currentThread());
+									}
+								}
+							}, processName());
+							thread.setDaemon(true);
+							thread.setContextClassLoader(this.getClass().getClassLoader());
+							synchronized (this) {
+								// same priority as the processing thread
+								thread.setPriority(this.concurrentPriority);
+								this.concurrentThreads.add(thread);
+							}
+							return thread;
+						});
+				threadPool.allowCoreThreadTimeOut(true); // no idle threads once indexing is done
+				this.concurrentExecutor = threadPool;
+			}
+			executor = this.concurrentExecutor;
+		}
+		List<Future<?>> futures = new ArrayList<>(jobs.length - 1);
+		for (int i = 1; i < jobs.length; i++) {
+			IJob job = jobs[i];
+			if (VERBOSE)
+				Util.verbose("STARTING concurrent background job - " + job); //$NON-NLS-1$
+			futures.add(executor.submit(() -> job.execute(null)));
+		}
+		Throwable failure = null;
+		try {
+			jobs[0].execute(null);
+		} catch (RuntimeException | Error e) {
+			failure = e;
+		}
+		boolean interrupted = false;
+		for (Future<?> future : futures) {
+			while (true) {
+				try {
+					future.get();
+					break;
+				} catch (ExecutionException e) {
+					if (failure == null)
+						failure = e.getCause();
+					break;
+				} catch (InterruptedException e) {
+					interrupted = true; // the jobs must be completed before moving to the next ones
+				}
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+		if (failure instanceof RuntimeException)
+			throw (RuntimeException) failure;
+		if (failure instanceof Error)
+			throw (Error) failure;
+	}
+	/**
+	 * Sets the priority of the threads running concurrent jobs, answers the previous one.
+	 */
+	private synchronized int setConcurrentPriority(int priority) {
+		int previousPriority = this.concurrentPriority;
+		this.concurrentPriority = priority;
+		for (Thread thread : this.concurrentThreads)
+			thread.setPriority(priority);
+		return previousPriority;
+	}
 	/**
 	 * When idle, give chance to do something
 	 */
@@ -255,6 +409,7 @@ public abstract class JobManager implements Runnable {
 						// and bug 42760 NullPointerException in JobManager when searching)
 						Thread t = this.processingThread;
 						int originalPriority = t == null ? -1 : t.getPriority();
+						int originalConcurrentPriority = setConcurrentPriority(Thread.currentThread().getPriority());
 						try {
 							if (t != null)
 								t.setPriority(Thread.currentThread().getPriority());
@@ -327,6 +482,7 @@ public abstract class JobManager implements Runnable {
 							}
 							if (t != null && originalPriority > -1 && t.isAlive())
 								t.setPriority(originalPriority);
+							setConcurrentPriority(originalConcurrentPriority);
 						}
 				}
 			}
@@ -434,6 +590,7 @@ public abstract class JobManager implements Runnable {
 			while (this.processingThread != null) {
 				try {
 					IJob job;
+					IJob[] jobs = null;
 					synchronized (this) {
 						// handle shutdown case when notifyAll came before the wait but after the while loop was entered
 						if (this.processingThread == null) continue;
@@ -452,6 +609,7 @@ public abstract class JobManager implements Runnable {
 							this.wait(); // wait until a new job is posted (or reenabled:38901)
 						} else {
 							idlingStart = -1;
+							jobs = concurrentJobs(job);
 						}
 					}
 					if (job == null) {
@@ -475,13 +633,19 @@ public abstract class JobManager implements Runnable {
 							pJob.schedule();
 							this.progressJob = pJob;
 						}
-						/*boolean status = */job.execute(null);
+						if (jobs == null)
+							/*boolean status = */job.execute(null);
+						else
+							executeConcurrently(jobs);
 						//if (status == FAILED) request(job);
 					} finally {
 						this.executing = false;
 						if (VERBOSE)
 							Util.verbose("FINISHED background job - " + job); //$NON-NLS-1$
-						moveToNextJob();
+						if (jobs == null)
+							moveToNextJob();
+						else
+							moveToNextJobs(jobs);
 						if (this.awaitingClients == 0 && job.waitNeeded()) {
 							if (VERBOSE) {
 								Util.verbose("WAITING after job - " + job); //$NON-NLS-1$
@@ -543,6 +707,13 @@ public abstract class JobManager implements Runnable {
 				job.cancel();
 				job.join();
 			}
+			ExecutorService executor;
+			synchronized (this) {
+				executor = this.concurrentExecutor;
+				this.concurrentExecutor = null;
+			}
+			if (executor != null)
+				executor.shutdown();
 		} catch (InterruptedException e) {
 			// ignore
 		}